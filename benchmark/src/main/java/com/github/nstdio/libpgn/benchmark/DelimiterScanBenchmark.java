@@ -0,0 +1,94 @@
+package com.github.nstdio.libpgn.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nstdio.libpgn.io.DelimiterScanner;
+import com.github.nstdio.libpgn.io.PgnInputStream;
+import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
+
+/**
+ * Compares the byte-by-byte {@code PgnInputStream.until} with the word-at-a-time {@link DelimiterScanner} on the
+ * movetext dominated by moves and by comments. One operation is the full pass over 1 MB of movetext.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DelimiterScanBenchmark {
+    private static final DelimiterScanner MOVE_END = DelimiterScanner.of(' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*');
+    private static final DelimiterScanner CLOSING_BRACE = DelimiterScanner.of('}');
+    private static final int SIZE = 1 << 20;
+
+    @Param({"moves", "comments"})
+    public String movetext;
+
+    private byte[] input;
+    private boolean comments;
+
+    @Setup
+    public void setUp() {
+        comments = "comments".equals(movetext);
+
+        final String chunk = comments
+                ? "{The knight heads for the kingside where it will support the pawn storm after g4 and h4} "
+                : "1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O ";
+        final StringBuilder sb = new StringBuilder(SIZE + chunk.length());
+
+        while (sb.length() < SIZE) {
+            sb.append(chunk);
+        }
+
+        input = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public long bytewise() throws IOException {
+        final PgnInputStream in = PgnInputStreamFactory.of(new ByteArrayInputStream(input));
+        long scanned = 0;
+
+        try {
+            while (true) {
+                final int n = comments
+                        ? in.until('}')
+                        : in.until(' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*');
+
+                scanned += in.skip(n);
+            }
+        } catch (EOFException e) {
+            return scanned;
+        }
+    }
+
+    @Benchmark
+    public long swar() throws IOException {
+        final PgnInputStream in = PgnInputStreamFactory.of(new ByteArrayInputStream(input));
+        final DelimiterScanner scanner = comments ? CLOSING_BRACE : MOVE_END;
+        long scanned = 0;
+
+        try {
+            while (true) {
+                scanned += in.skip(in.until(scanner));
+            }
+        } catch (EOFException e) {
+            return scanned;
+        }
+    }
+}
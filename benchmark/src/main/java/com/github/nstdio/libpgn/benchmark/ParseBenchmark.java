@@ -0,0 +1,94 @@
+package com.github.nstdio.libpgn.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFactory;
+import com.github.nstdio.libpgn.entity.Game;
+
+/**
+ * Parses the generated PGN database of about 16 MB using different lexing modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    static final String GAME = "[Event \"Rated Blitz game\"]\n" +
+            "[Site \"https://lichess.org/a99fjfae\"]\n" +
+            "[White \"bmzbmzbmz\"]\n" +
+            "[Black \"PolarBear\"]\n" +
+            "[Result \"1-0\"]\n" +
+            "[UTCDate \"2013.12.30\"]\n" +
+            "[WhiteElo \"1341\"]\n" +
+            "[BlackElo \"1816\"]\n" +
+            "[ECO \"A80\"]\n" +
+            "[Opening \"Dutch Defense\"]\n" +
+            "[TimeControl \"300+3\"]\n\n" +
+            "1. d4 f5 2. e3 Nf6 { The main line. } 3. Be2 g6 4. Nf3 d5 5. O-O Bg7 6. c4 c6 7. Bd2 O-O $1 " +
+            "8. Qb3 (8. Qc2 Ne4) 8... Qb6 9. Qa3 Bd7 10. Bb4 Na6 11. Ba5 { White has the initiative. } 1-0\n\n";
+    private static final int SIZE = 16 << 20;
+
+    @Param({"stream", "mapped", "tape", "parallel"})
+    public String mode;
+
+    private Path file;
+    private Configuration config;
+
+    static Path generate(final int size) throws IOException {
+        final Path file = Files.createTempFile("benchmark", ".pgn");
+
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int written = 0; written < size; written += GAME.length()) {
+                writer.write(GAME);
+            }
+        }
+
+        return file;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        file = generate(SIZE);
+        config = Configuration.defaultBuilder()
+                .memoryMapped("mapped".equals(mode) || "parallel".equals(mode))
+                .tokenTape("tape".equals(mode))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long parse() {
+        try (final Stream<Game> games = GameFactory.stream(file.toFile(), config)) {
+            final Stream<Game> source = "parallel".equals(mode) ? games.parallel() : games;
+            // The filter prevents count() from taking a shortcut over the sized stream.
+            return source.filter(Objects::nonNull).count();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.nstdio.libpgn.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFactory;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+/**
+ * Keeps the tag pair sections of the generated database with and without the tag pair cache. The players and events
+ * are drawn from bounded pools as in the real databases. The heap used by the kept sections after the full collection
+ * is reported as the {@code retainedMegabytes} secondary result of the last invocation of the iteration. The auxiliary
+ * counters are not reported in single shot mode, so the average time is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TagPairCacheBenchmark {
+    private static final int PLAYERS = 20_000;
+    private static final int EVENTS = 500;
+
+    @Param("1000000")
+    public int games;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("benchmark", ".pgn");
+
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < games; i++) {
+                writer.write(String.format("[Event \"Rated Blitz game %d\"]%n[Site \"https://lichess.org\"]%n" +
+                                "[White \"player%d\"]%n[Black \"player%d\"]%n[Result \"1-0\"]%n" +
+                                "[TimeControl \"300+3\"]%n[ECO \"A%02d\"]%n%n1. d4 f5 2. e3 Nf6 1-0%n%n",
+                        i % EVENTS, (i * 7919) % PLAYERS, (i * 104729 + 1) % PLAYERS, i % 100));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public List<List<TagPair>> keepTagPairs(final Retained retained) {
+        final long before = usedHeap();
+        final Configuration config = Configuration.defaultBuilder()
+                .skipMovetext(true)
+                .cacheTagPair(cache)
+                .tagPairCacheSize(64 * 1024)
+                .build();
+
+        try (final Stream<List<TagPair>> sections = GameFactory.stream(file.toFile(), config).map(Game::tagPairSection)) {
+            final List<List<TagPair>> kept = sections.collect(Collectors.toList());
+
+            retained.retainedMegabytes = (usedHeap() - before) >> 20;
+
+            return kept;
+        }
+    }
+
+    /**
+     * The heap retained by the kept sections.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Retained {
+        public long retainedMegabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedMegabytes = 0;
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package com.github.nstdio.libpgn.collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import javax.annotation.Nullable;
+
+import com.github.nstdio.libpgn.entity.CompactGame;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.Move;
+import com.github.nstdio.libpgn.entity.MoveText;
+import com.github.nstdio.libpgn.entity.Result;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+/**
+ * The columnar in-memory copy of the games for the statistics scans. Every game is the row of the primitive columns:
+ * the common tags are dictionary-encoded, the ratings are {@code short}, the dates are packed {@code int} and the
+ * results are {@code byte}. The mainline is kept as the dictionary-encoded moves of the row, the comments, NAGs and
+ * variations are dropped. So the scan is the loop over the arrays instead of chasing the pointers through the game
+ * objects, see {@link #scan(Supplier, RowScanner, BinaryOperator, ForkJoinPool)} and {@link TableCollectors}.
+ * <p>
+ * The table is immutable and thread safe, it is built by {@link Builder} or {@link #toGameTable()}.
+ */
+public final class GameTable {
+    /**
+     * The id of the missing tag value and the value of the missing rating or date.
+     */
+    public static final int NONE = -1;
+
+    private static final int SCAN_THRESHOLD = 1 << 14;
+    private static final Result[] RESULTS = Result.values();
+    private static final byte[][] TAG_NAMES = Arrays.stream(Tag.values()).map(tag -> tag.name.getBytes()).toArray(byte[][]::new);
+    private static final byte[] WHITE_ELO = "WhiteElo".getBytes();
+    private static final byte[] BLACK_ELO = "BlackElo".getBytes();
+    private static final byte[] DATE = "Date".getBytes();
+
+    private final int size;
+    private final int[][] tags;
+    private final String[][] tagValues;
+    private final List<Map<String, Integer>> tagIds;
+    private final short[] whiteElo;
+    private final short[] blackElo;
+    private final int[] dates;
+    private final byte[] results;
+    private final int[] moveOffsets;
+    private final int[] moves;
+    private final String[] moveValues;
+    private final Map<String, Integer> moveIds;
+
+    private GameTable(final Builder builder) {
+        size = builder.size;
+        tags = new int[Tag.COUNT][];
+        tagValues = new String[Tag.COUNT][];
+        tagIds = new ArrayList<>(Tag.COUNT);
+
+        for (int i = 0; i < Tag.COUNT; i++) {
+            tags[i] = Arrays.copyOf(builder.tags[i], size);
+            tagValues[i] = builder.tagValues[i].values.toArray(new String[0]);
+            tagIds.add(new HashMap<>(builder.tagValues[i].ids));
+        }
+
+        whiteElo = Arrays.copyOf(builder.whiteElo, size);
+        blackElo = Arrays.copyOf(builder.blackElo, size);
+        dates = Arrays.copyOf(builder.dates, size);
+        results = Arrays.copyOf(builder.results, size);
+        moveOffsets = Arrays.copyOf(builder.moveOffsets, size + 1);
+        moves = Arrays.copyOf(builder.moves, builder.moveOffsets[size]);
+        moveValues = builder.moveValues.values.toArray(new String[0]);
+        moveIds = new HashMap<>(builder.moveValues.ids);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a {@code Collector} that builds the table from the games, the parallel stream builds the parts of the
+     * table concurrently.
+     *
+     * @return The collector.
+     */
+    public static Collector<Game, ?, GameTable> toGameTable() {
+        return Collector.of(Builder::new, Builder::add, Builder::addAll, Builder::build);
+    }
+
+    /**
+     * Packs the PGN date, e.g. {@code 1992.11.04}, as the {@code yyyymmdd} number. The unknown parts, e.g. {@code
+     * 1992.??.??}, are packed as zeros.
+     *
+     * @param date The date or {@code null}.
+     *
+     * @return The packed date or {@link #NONE} if the date is absent or malformed.
+     */
+    public static int packDate(@Nullable final String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '.' || date.charAt(7) != '.') {
+            return NONE;
+        }
+
+        final int year = datePart(date, 0, 4);
+        final int month = datePart(date, 5, 7);
+        final int day = datePart(date, 8, 10);
+
+        return year == NONE || month == NONE || day == NONE ? NONE : year * 10000 + month * 100 + day;
+    }
+
+    private static int datePart(final String date, final int from, final int to) {
+        int part = 0;
+        boolean unknown = true;
+
+        for (int i = from; i < to; i++) {
+            final char c = date.charAt(i);
+
+            if (c == '?') {
+                continue;
+            }
+
+            if (c < '0' || c > '9') {
+                return NONE;
+            }
+
+            part = part * 10 + (c - '0');
+            unknown = false;
+        }
+
+        return unknown ? 0 : part;
+    }
+
+    private static short elo(final byte[] value) {
+        if (value.length == 0 || value.length > 4) {
+            return NONE;
+        }
+
+        int elo = 0;
+
+        for (final byte b : value) {
+            if (b < '0' || b > '9') {
+                return NONE;
+            }
+
+            elo = elo * 10 + (b - '0');
+        }
+
+        return (short) elo;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param tag The tag.
+     * @param row The row.
+     *
+     * @return The id of the tag value or {@link #NONE} if the game has no such tag.
+     */
+    public int tagId(final Tag tag, final int row) {
+        return tags[tag.ordinal()][row];
+    }
+
+    /**
+     * @param tag   The tag.
+     * @param value The tag value.
+     *
+     * @return The id of the value or {@link #NONE} if no game has such value.
+     */
+    public int tagId(final Tag tag, final String value) {
+        return tagIds.get(tag.ordinal()).getOrDefault(value, NONE);
+    }
+
+    /**
+     * @param tag The tag.
+     * @param id  The id of the value.
+     *
+     * @return The value.
+     */
+    public String tagValue(final Tag tag, final int id) {
+        return tagValues[tag.ordinal()][id];
+    }
+
+    /**
+     * @param tag The tag.
+     *
+     * @return The number of the distinct values of the tag.
+     */
+    public int tagCardinality(final Tag tag) {
+        return tagValues[tag.ordinal()].length;
+    }
+
+    /**
+     * @param tag The tag.
+     * @param row The row.
+     *
+     * @return The tag value or {@code null} if the game has no such tag.
+     */
+    @Nullable
+    public String tag(final Tag tag, final int row) {
+        final int id = tagId(tag, row);
+
+        return id == NONE ? null : tagValue(tag, id);
+    }
+
+    /**
+     * @return The rating or {@link #NONE} if it is absent or malformed.
+     */
+    public int whiteElo(final int row) {
+        return whiteElo[row];
+    }
+
+    /**
+     * @return The rating or {@link #NONE} if it is absent or malformed.
+     */
+    public int blackElo(final int row) {
+        return blackElo[row];
+    }
+
+    /**
+     * @return The date packed by {@link #packDate(String)}.
+     */
+    public int date(final int row) {
+        return dates[row];
+    }
+
+    public Result result(final int row) {
+        return RESULTS[results[row]];
+    }
+
+    /**
+     * @return The number of plies in the mainline.
+     */
+    public int moveCount(final int row) {
+        return moveOffsets[row + 1] - moveOffsets[row];
+    }
+
+    /**
+     * @param row The row.
+     * @param ply The ply index in the mainline.
+     *
+     * @return The id of the move.
+     */
+    public int moveId(final int row, final int ply) {
+        return moves[moveOffsets[row] + ply];
+    }
+
+    /**
+     * @param move The move in SAN, e.g. {@code Nf3}.
+     *
+     * @return The id of the move or {@link #NONE} if no game has such move.
+     */
+    public int moveId(final String move) {
+        return moveIds.getOrDefault(move, NONE);
+    }
+
+    /**
+     * @param id The id of the move.
+     *
+     * @return The move in SAN.
+     */
+    public String moveValue(final int id) {
+        return moveValues[id];
+    }
+
+    /**
+     * Scans the rows. The rows are split into the ranges scanned by the tasks of the {@code pool}, every task has its
+     * own accumulator, the accumulators are combined at the end.
+     *
+     * @param supplier The accumulator supplier.
+     * @param scanner  Scans the range of rows into the accumulator.
+     * @param combiner Combines two accumulators.
+     * @param pool     The pool or {@code null} to scan in the calling thread.
+     * @param <A>      The accumulator type.
+     *
+     * @return The accumulator holding the result of the whole scan.
+     */
+    public <A> A scan(final Supplier<A> supplier, final RowScanner<A> scanner, final BinaryOperator<A> combiner,
+                      @Nullable final ForkJoinPool pool) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(scanner);
+        Objects.requireNonNull(combiner);
+
+        if (pool == null || size <= SCAN_THRESHOLD) {
+            final A accumulator = supplier.get();
+            scanner.scan(accumulator, 0, size);
+
+            return accumulator;
+        }
+
+        return pool.invoke(new Scan<>(supplier, scanner, combiner, 0, size));
+    }
+
+    /**
+     * Scans the range of rows.
+     *
+     * @param <A> The accumulator type.
+     */
+    @FunctionalInterface
+    public interface RowScanner<A> {
+        /**
+         * @param accumulator The accumulator.
+         * @param from        The first row, inclusive.
+         * @param to          The last row, exclusive.
+         */
+        void scan(A accumulator, int from, int to);
+    }
+
+    /**
+     * The dictionary-encoded tags.
+     */
+    public enum Tag {
+        EVENT("Event"),
+        SITE("Site"),
+        ROUND("Round"),
+        WHITE("White"),
+        BLACK("Black"),
+        ECO("ECO");
+
+        private static final int COUNT = values().length;
+
+        private final String name;
+
+        Tag(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return The tag name as in the tag pair section.
+         */
+        public String tagName() {
+            return name;
+        }
+    }
+
+    private static final class Scan<A> extends RecursiveTask<A> {
+        private final Supplier<A> supplier;
+        private final RowScanner<A> scanner;
+        private final BinaryOperator<A> combiner;
+        private final int from;
+        private final int to;
+
+        private Scan(final Supplier<A> supplier, final RowScanner<A> scanner, final BinaryOperator<A> combiner,
+                     final int from, final int to) {
+            this.supplier = supplier;
+            this.scanner = scanner;
+            this.combiner = combiner;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= SCAN_THRESHOLD) {
+                final A accumulator = supplier.get();
+                scanner.scan(accumulator, from, to);
+
+                return accumulator;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final Scan<A> left = new Scan<>(supplier, scanner, combiner, from, middle);
+            left.fork();
+            final A right = new Scan<>(supplier, scanner, combiner, middle, to).compute();
+
+            return combiner.apply(left.join(), right);
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(final String value) {
+            final Integer id = ids.get(value);
+
+            if (id != null) {
+                return id;
+            }
+
+            ids.put(value, values.size());
+            values.add(value);
+
+            return values.size() - 1;
+        }
+    }
+
+    /**
+     * Collects the games row by row. Not thread safe.
+     */
+    public static final class Builder {
+        private final int[][] tags = new int[Tag.COUNT][16];
+        private final Dictionary[] tagValues = new Dictionary[Tag.COUNT];
+        private final Dictionary moveValues = new Dictionary();
+        private short[] whiteElo = new short[16];
+        private short[] blackElo = new short[16];
+        private int[] dates = new int[16];
+        private byte[] results = new byte[16];
+        private int[] moveOffsets = new int[17];
+        private int[] moves = new int[256];
+        private int size;
+
+        private Builder() {
+            for (int i = 0; i < Tag.COUNT; i++) {
+                tagValues[i] = new Dictionary();
+            }
+        }
+
+        /**
+         * Adds the game as the next row.
+         *
+         * @param game The game.
+         *
+         * @return Builder itself.
+         */
+        public Builder add(final Game game) {
+            ensureRow();
+
+            for (int i = 0; i < Tag.COUNT; i++) {
+                tags[i][size] = NONE;
+            }
+
+            whiteElo[size] = blackElo[size] = NONE;
+            dates[size] = NONE;
+
+            final List<TagPair> tagPairs = game.tagPairSection();
+
+            if (tagPairs != null) {
+                for (final TagPair tagPair : tagPairs) {
+                    addTagPair(tagPair);
+                }
+            }
+
+            results[size] = (byte) (game.gameResult() == null ? Result.UNKNOWN : game.gameResult()).ordinal();
+            moveOffsets[size + 1] = moveOffsets[size];
+
+            if (game instanceof CompactGame) {
+                final CompactGame compact = (CompactGame) game;
+
+                for (int i = 0; i < compact.plyCount(); i++) {
+                    addMove(compact.ply(i));
+                }
+            } else if (game.moves() != null) {
+                for (final MoveText movetext : game.moves()) {
+                    movetext.white().ifPresent(this::addMove);
+                    movetext.black().ifPresent(this::addMove);
+                }
+            }
+
+            size++;
+
+            return this;
+        }
+
+        private void addTagPair(final TagPair tagPair) {
+            final byte[] name = tagPair.getTag();
+
+            for (int i = 0; i < Tag.COUNT; i++) {
+                if (Arrays.equals(name, TAG_NAMES[i])) {
+                    tags[i][size] = tagValues[i].id(tagPair.getValueAsString());
+                    return;
+                }
+            }
+
+            if (Arrays.equals(name, WHITE_ELO)) {
+                whiteElo[size] = elo(tagPair.getValue());
+            } else if (Arrays.equals(name, BLACK_ELO)) {
+                blackElo[size] = elo(tagPair.getValue());
+            } else if (Arrays.equals(name, DATE)) {
+                dates[size] = packDate(tagPair.getValueAsString());
+            }
+        }
+
+        private void addMove(final Move move) {
+            addMove(moveValues.id(new String(move.move())));
+        }
+
+        private void addMove(final int id) {
+            final int offset = moveOffsets[size + 1];
+
+            if (offset == moves.length) {
+                moves = Arrays.copyOf(moves, offset << 1);
+            }
+
+            moves[offset] = id;
+            moveOffsets[size + 1] = offset + 1;
+        }
+
+        private void ensureRow() {
+            if (size == results.length) {
+                final int capacity = size << 1;
+
+                for (int i = 0; i < Tag.COUNT; i++) {
+                    tags[i] = Arrays.copyOf(tags[i], capacity);
+                }
+
+                whiteElo = Arrays.copyOf(whiteElo, capacity);
+                blackElo = Arrays.copyOf(blackElo, capacity);
+                dates = Arrays.copyOf(dates, capacity);
+                results = Arrays.copyOf(results, capacity);
+                moveOffsets = Arrays.copyOf(moveOffsets, capacity + 1);
+            }
+        }
+
+        /**
+         * Adds the rows of the other builder, the dictionaries are merged.
+         *
+         * @param other The other builder.
+         *
+         * @return Builder itself.
+         */
+        public Builder addAll(final Builder other) {
+            for (int row = 0; row < other.size; row++) {
+                ensureRow();
+
+                for (int i = 0; i < Tag.COUNT; i++) {
+                    final int id = other.tags[i][row];
+                    tags[i][size] = id == NONE ? NONE : tagValues[i].id(other.tagValues[i].values.get(id));
+                }
+
+                whiteElo[size] = other.whiteElo[row];
+                blackElo[size] = other.blackElo[row];
+                dates[size] = other.dates[row];
+                results[size] = other.results[row];
+                moveOffsets[size + 1] = moveOffsets[size];
+
+                for (int ply = other.moveOffsets[row]; ply < other.moveOffsets[row + 1]; ply++) {
+                    addMove(moveValues.id(other.moveValues.values.get(other.moves[ply])));
+                }
+
+                size++;
+            }
+
+            return this;
+        }
+
+        public GameTable build() {
+            return new GameTable(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.nstdio.libpgn.collector;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+
+import com.github.nstdio.libpgn.collector.GameTable.Tag;
+import com.github.nstdio.libpgn.common.IntPair;
+import com.github.nstdio.libpgn.entity.Result;
+
+/**
+ * The {@link PgnCollectors} aggregations over {@link GameTable}. The tags are compared once per distinct value, the
+ * rows are scanned by the primitive loops split across the {@code pool} if one is given.
+ */
+public final class TableCollectors {
+    private static final int WHITE_GAMES = 0;
+    private static final int WHITE_WINS = 1;
+    private static final int WHITE_DRAWS = 2;
+    private static final int BLACK_GAMES = 3;
+    private static final int BLACK_WINS = 4;
+    private static final int BLACK_DRAWS = 5;
+    private static final int COUNTERS = 6;
+
+    private TableCollectors() {
+    }
+
+    /**
+     * The game result statistics according the last name of the player, the same as {@link
+     * PgnCollectors#toResultStatistics(String)}.
+     *
+     * @param table    The table.
+     * @param lastName The last name of the player.
+     * @param pool     The pool or {@code null} to scan in the calling thread.
+     *
+     * @return The statistics.
+     */
+    public static ResultStatistic toResultStatistics(final GameTable table, final String lastName,
+                                                     @Nullable final ForkJoinPool pool) {
+        final boolean[] white = lastNameMatches(table, Tag.WHITE, lastName);
+        final boolean[] black = lastNameMatches(table, Tag.BLACK, lastName);
+
+        final int[] counters = table.scan(() -> new int[COUNTERS], (acc, from, to) -> {
+            for (int row = from; row < to; row++) {
+                accept(table, white, black, row, acc, 0);
+            }
+        }, TableCollectors::sum, pool);
+
+        return statistic(counters, 0);
+    }
+
+    public static ResultStatistic toResultStatistics(final GameTable table, final String lastName) {
+        return toResultStatistics(table, lastName, null);
+    }
+
+    /**
+     * The game result statistics of the player for every opening, the same as {@link
+     * PgnCollectors#toOpeningResultStatisticsMap(String)}. The games without ECO are skipped.
+     *
+     * @param table    The table.
+     * @param lastName The last name of the player.
+     * @param pool     The pool or {@code null} to scan in the calling thread.
+     *
+     * @return The statistics sorted by ECO.
+     */
+    public static Map<String, OpeningStatistics> toOpeningResultStatisticsMap(final GameTable table,
+                                                                               final String lastName,
+                                                                               @Nullable final ForkJoinPool pool) {
+        final boolean[] white = lastNameMatches(table, Tag.WHITE, lastName);
+        final boolean[] black = lastNameMatches(table, Tag.BLACK, lastName);
+        final int ecos = table.tagCardinality(Tag.ECO);
+
+        final int[] counters = table.scan(() -> new int[ecos * COUNTERS], (acc, from, to) -> {
+            for (int row = from; row < to; row++) {
+                final int eco = table.tagId(Tag.ECO, row);
+
+                if (eco != GameTable.NONE) {
+                    accept(table, white, black, row, acc, eco * COUNTERS);
+                }
+            }
+        }, TableCollectors::sum, pool);
+
+        final Map<String, OpeningStatistics> map = new TreeMap<>();
+
+        for (int eco = 0; eco < ecos; eco++) {
+            final String value = table.tagValue(Tag.ECO, eco);
+            map.put(value, new OpeningStatistics(value, statistic(counters, eco * COUNTERS)));
+        }
+
+        return map;
+    }
+
+    public static Map<String, OpeningStatistics> toOpeningResultStatisticsMap(final GameTable table,
+                                                                               final String lastName) {
+        return toOpeningResultStatisticsMap(table, lastName, null);
+    }
+
+    /**
+     * Counts the games by the tag value, the table-native version of {@link PgnCollectors#groupingByTag(String)}. The
+     * games without the tag are counted under {@code null} key.
+     *
+     * @param table The table.
+     * @param tag   The tag.
+     * @param pool  The pool or {@code null} to scan in the calling thread.
+     *
+     * @return The number of games by the tag value.
+     */
+    public static Map<String, Integer> countingByTag(final GameTable table, final Tag tag,
+                                                     @Nullable final ForkJoinPool pool) {
+        final int values = table.tagCardinality(tag);
+
+        final int[] counters = table.scan(() -> new int[values + 1], (acc, from, to) -> {
+            for (int row = from; row < to; row++) {
+                acc[table.tagId(tag, row) + 1]++;
+            }
+        }, TableCollectors::sum, pool);
+
+        final Map<String, Integer> map = new HashMap<>();
+
+        for (int id = GameTable.NONE; id < values; id++) {
+            if (counters[id + 1] != 0) {
+                map.put(id == GameTable.NONE ? null : table.tagValue(tag, id), counters[id + 1]);
+            }
+        }
+
+        return map;
+    }
+
+    public static Map<String, Integer> countingByTag(final GameTable table, final Tag tag) {
+        return countingByTag(table, tag, null);
+    }
+
+    /**
+     * The rows of the games by the tag value, the table-native version of {@link PgnCollectors#groupingByTag(String)}.
+     * The games without the tag are skipped.
+     *
+     * @param table The table.
+     * @param tag   The tag.
+     *
+     * @return The ascending rows by the tag value.
+     */
+    public static Map<String, int[]> groupingByTag(final GameTable table, final Tag tag) {
+        final int values = table.tagCardinality(tag);
+        final int[] counts = new int[values];
+
+        for (int row = 0; row < table.size(); row++) {
+            final int id = table.tagId(tag, row);
+
+            if (id != GameTable.NONE) {
+                counts[id]++;
+            }
+        }
+
+        final int[][] rows = new int[values][];
+
+        for (int id = 0; id < values; id++) {
+            rows[id] = new int[counts[id]];
+        }
+
+        Arrays.fill(counts, 0);
+
+        for (int row = 0; row < table.size(); row++) {
+            final int id = table.tagId(tag, row);
+
+            if (id != GameTable.NONE) {
+                rows[id][counts[id]++] = row;
+            }
+        }
+
+        final Map<String, int[]> map = new HashMap<>();
+
+        for (int id = 0; id < values; id++) {
+            map.put(table.tagValue(tag, id), rows[id]);
+        }
+
+        return map;
+    }
+
+    private static void accept(final GameTable table, final boolean[] white, final boolean[] black, final int row,
+                               final int[] counters, final int offset) {
+        final int whiteId = table.tagId(Tag.WHITE, row);
+        final int blackId = table.tagId(Tag.BLACK, row);
+        final Result result = table.result(row);
+
+        if (whiteId != GameTable.NONE && white[whiteId]) {
+            counters[offset + WHITE_GAMES]++;
+
+            if (result == Result.WHITE) {
+                counters[offset + WHITE_WINS]++;
+            } else if (result == Result.DRAW) {
+                counters[offset + WHITE_DRAWS]++;
+            }
+        } else if (blackId != GameTable.NONE && black[blackId]) {
+            counters[offset + BLACK_GAMES]++;
+
+            if (result == Result.BLACK) {
+                counters[offset + BLACK_WINS]++;
+            } else if (result == Result.DRAW) {
+                counters[offset + BLACK_DRAWS]++;
+            }
+        }
+    }
+
+    private static boolean[] lastNameMatches(final GameTable table, final Tag tag, final String lastName) {
+        Objects.requireNonNull(lastName);
+
+        final boolean[] matches = new boolean[table.tagCardinality(tag)];
+
+        for (int id = 0; id < matches.length; id++) {
+            final String value = table.tagValue(tag, id);
+            final int commaIdx = value.indexOf(',');
+
+            matches[id] = lastName.equals(commaIdx == -1 ? value : value.substring(0, commaIdx));
+        }
+
+        return matches;
+    }
+
+    private static ResultStatistic statistic(final int[] counters, final int offset) {
+        return new ResultStatistic(
+                IntPair.of(counters[offset + WHITE_GAMES], counters[offset + BLACK_GAMES]),
+                IntPair.of(counters[offset + WHITE_WINS], counters[offset + BLACK_WINS]),
+                IntPair.of(counters[offset + WHITE_DRAWS], counters[offset + BLACK_DRAWS])
+        );
+    }
+
+    private static int[] sum(final int[] a, final int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+
+        return a;
+    }
+}
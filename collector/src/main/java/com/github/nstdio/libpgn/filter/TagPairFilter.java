@@ -56,16 +56,19 @@ class TagPairFilter implements Predicate<List<TagPair>> {
         @Override
         public boolean test(final List<TagPair> input) {
             final TagPair tagPair = named(input);
-            if (tagPair != null) {
-                final String tagPairValue = tagPair.getValueAsString();
-                final int commaIdx = tagPairValue.indexOf(',');
 
-                if (value.equals(commaIdx == -1 ? tagPairValue : tagPairValue.substring(0, commaIdx))) {
-                    return true;
-                }
+            if (tagPair == null) {
+                return false;
             }
 
-            return false;
+            final byte[] tagPairValue = tagPair.getValue();
+            int lastNameEnd = 0;
+
+            while (lastNameEnd < tagPairValue.length && tagPairValue[lastNameEnd] != ',') {
+                lastNameEnd++;
+            }
+
+            return Arrays.equals(tagPairValue, 0, lastNameEnd, value, 0, value.length);
         }
     }
 
@@ -0,0 +1,111 @@
+package com.github.nstdio.libpgn.collector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.collector.GameTable.Tag;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.MoveText;
+import com.github.nstdio.libpgn.entity.Result;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+class GameTableTest {
+    private static final String[] PLAYERS = {"Kasparov, Garry", "Karpov, Anatoly", "Carlsen, Magnus", "Kasparov"};
+    private static final Result[] RESULTS = {Result.WHITE, Result.BLACK, Result.DRAW, Result.UNKNOWN};
+
+    private static List<Game> games(final int count) {
+        final List<Game> games = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            final List<TagPair> tagPairs = new ArrayList<>(Arrays.asList(
+                    TagPair.of("White", PLAYERS[i % PLAYERS.length]),
+                    TagPair.of("Black", PLAYERS[(i / 3 + 1) % PLAYERS.length]),
+                    TagPair.of("Date", i % 5 == 0 ? "1985.??.??" : "1985.11.0" + (i % 9 + 1)),
+                    TagPair.of("WhiteElo", String.valueOf(2600 + i % 100))
+            ));
+
+            if (i % 7 != 0) {
+                tagPairs.add(TagPair.of("ECO", "B" + (i % 13)));
+            }
+
+            games.add(new Game(tagPairs, MoveText.moves("e4", i % 2 == 0 ? "c5" : "e5", "Nf3"), RESULTS[i % RESULTS.length]));
+        }
+
+        return games;
+    }
+
+    @Test
+    void keepsColumns() {
+        final List<Game> games = games(20);
+        final GameTable table = games.stream().collect(GameTable.toGameTable());
+
+        assertThat(table.size()).isEqualTo(20);
+        assertThat(table.tag(Tag.WHITE, 2)).isEqualTo("Carlsen, Magnus");
+        assertThat(table.tag(Tag.ECO, 7)).isNull();
+        assertThat(table.tagId(Tag.EVENT, 0)).isEqualTo(GameTable.NONE);
+        assertThat(table.tagCardinality(Tag.WHITE)).isEqualTo(PLAYERS.length);
+        assertThat(table.whiteElo(3)).isEqualTo(2603);
+        assertThat(table.blackElo(3)).isEqualTo(GameTable.NONE);
+        assertThat(table.date(0)).isEqualTo(19850000);
+        assertThat(table.date(1)).isEqualTo(19851102);
+        assertThat(table.result(2)).isEqualTo(Result.DRAW);
+        assertThat(table.moveCount(1)).isEqualTo(3);
+        assertThat(table.moveValue(table.moveId(1, 1))).isEqualTo("e5");
+        assertThat(table.moveId(0, 2)).isEqualTo(table.moveId("Nf3"));
+        assertThat(table.moveId("d4")).isEqualTo(GameTable.NONE);
+    }
+
+    @Test
+    void packsDates() {
+        assertThat(GameTable.packDate("1992.11.04")).isEqualTo(19921104);
+        assertThat(GameTable.packDate("1992.??.04")).isEqualTo(19920004);
+        assertThat(GameTable.packDate("????.??.??")).isEqualTo(0);
+        assertThat(GameTable.packDate("1992.1.04")).isEqualTo(GameTable.NONE);
+        assertThat(GameTable.packDate(null)).isEqualTo(GameTable.NONE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aggregatesAsPgnCollectors() {
+        final List<Game> games = games(50_000);
+        final GameTable table = games.parallelStream().collect(GameTable.toGameTable());
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (String lastName : Arrays.asList("Kasparov", "Carlsen", "Nobody")) {
+                final ResultStatistic expected = games.stream()
+                        .collect((Collector<Game, ?, ResultStatistic>) PgnCollectors.toResultStatistics(lastName));
+                final Map<String, OpeningStatistics> expectedOpenings = games.stream()
+                        .filter(game -> game.eco() != null)
+                        .collect(PgnCollectors.toOpeningResultStatisticsMap(lastName));
+
+                assertThat(TableCollectors.toResultStatistics(table, lastName))
+                        .hasToString(expected.toString());
+                assertThat(TableCollectors.toResultStatistics(table, lastName, pool))
+                        .hasToString(expected.toString());
+                assertThat(TableCollectors.toOpeningResultStatisticsMap(table, lastName, pool))
+                        .hasToString(expectedOpenings.toString());
+            }
+
+            final Map<String, Integer> ecos = new HashMap<>();
+            games.forEach(game -> ecos.merge(game.eco(), 1, Integer::sum));
+
+            assertThat(TableCollectors.countingByTag(table, Tag.ECO, pool)).isEqualTo(ecos);
+            assertThat(TableCollectors.groupingByTag(table, Tag.WHITE).get("Carlsen, Magnus"))
+                    .hasSize(games.size() / PLAYERS.length)
+                    .startsWith(2, 6, 10);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.nstdio.libpgn.filter;
+
+import com.github.nstdio.libpgn.entity.TagPair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LastNameEqualsTest {
+    private static List<TagPair> players(final String white, final String black) {
+        return Arrays.asList(TagPair.of("Event", "Casual"), TagPair.of("White", white), TagPair.of("Black", black));
+    }
+
+    @Test
+    public void matchesLastNameBeforeComma() {
+        final List<TagPair> tagPairs = players("Carlsen, Magnus", "Caruana, Fabiano");
+
+        assertThat(Filters.whiteLastNameEquals("Carlsen").test(tagPairs)).isTrue();
+        assertThat(Filters.blackLastNameEquals("Caruana").test(tagPairs)).isTrue();
+        assertThat(Filters.blackLastNameEquals("Carlsen").test(tagPairs)).isFalse();
+    }
+
+    @Test
+    public void matchesWholeValueWithoutComma() {
+        final List<TagPair> tagPairs = players("DrNykterstein", "Anonymous");
+
+        assertThat(Filters.whiteLastNameEquals("DrNykterstein").test(tagPairs)).isTrue();
+        assertThat(Filters.blackLastNameEquals("Anonymous").test(tagPairs)).isTrue();
+    }
+
+    @Test
+    public void prefixIsNotMatched() {
+        final List<TagPair> tagPairs = players("Carlsen, Magnus", "So,Wesley");
+
+        assertThat(Filters.whiteLastNameEquals("Carl").test(tagPairs)).isFalse();
+        assertThat(Filters.whiteLastNameEquals("Carlsen, Magnus").test(tagPairs)).isFalse();
+        assertThat(Filters.blackLastNameEquals("So").test(tagPairs)).isTrue();
+        assertThat(Filters.whiteLastNameEquals("").test(players(", Magnus", "So"))).isTrue();
+    }
+
+    @Test
+    public void missingTag() {
+        assertThat(Filters.whiteLastNameEquals("Carlsen").test(Collections.singletonList(TagPair.of("Black", "Carlsen")))).isFalse();
+    }
+}
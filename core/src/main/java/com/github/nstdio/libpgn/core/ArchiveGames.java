@@ -0,0 +1,90 @@
+package com.github.nstdio.libpgn.core;
+
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
+
+import java.io.InputStream;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.PgnArchive;
+
+/**
+ * Parses the archive entries concurrently, one parser per entry. At most {@code parallelism} entries are parsed or
+ * kept parsed ahead of the consumer, the entries are produced in the archive order.
+ */
+final class ArchiveGames implements Iterator<Map.Entry<String, List<Game>>>, AutoCloseable {
+    private final PgnArchive archive;
+    private final Configuration config;
+    private final int parallelism;
+    private final Deque<CompletableFuture<Map.Entry<String, List<Game>>>> pending;
+
+    ArchiveGames(final PgnArchive archive, final Configuration config, final int parallelism) {
+        this.archive = Objects.requireNonNull(archive);
+        this.config = Objects.requireNonNull(config);
+        this.parallelism = parallelism;
+        this.pending = new ArrayDeque<>(parallelism);
+    }
+
+    private void fillPending() {
+        while (pending.size() < parallelism && archive.hasNext()) {
+            final PgnArchive.Entry entry = archive.next();
+            pending.add(CompletableFuture.supplyAsync(() -> parse(entry)));
+        }
+    }
+
+    private Map.Entry<String, List<Game>> parse(final PgnArchive.Entry entry) {
+        final InputStream in = entry.open();
+
+        try (final Stream<Game> games = GameFactory.stream(in, config)) {
+            return new SimpleImmutableEntry<>(entry.name(), games.collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        fillPending();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<String, List<Game>> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final Map.Entry<String, List<Game>> entry = await(pending.poll());
+        fillPending();
+
+        return entry;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        wrapChecked(archive::close);
+    }
+}
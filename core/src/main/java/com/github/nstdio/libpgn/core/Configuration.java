@@ -1,6 +1,7 @@
 package com.github.nstdio.libpgn.core;
 
 import com.github.nstdio.libpgn.core.GameFilter.GameFilterBuilder;
+import com.github.nstdio.libpgn.entity.Move;
 import com.github.nstdio.libpgn.entity.MoveText;
 import com.github.nstdio.libpgn.entity.TagPair;
 
@@ -18,6 +19,7 @@ public class Configuration {
     public static final int DEFAULT_GAME_LIMIT = Integer.MAX_VALUE;
 
     private final Set<TagPair> predefinedCache;
+    private final GameFilter gameFilter;
     private final boolean skipTagPairSection;
     private final boolean skipMovetext;
     private final boolean skipComment;
@@ -36,12 +38,25 @@ public class Configuration {
     private final int commentMaxLength;
     private final int tagPairCacheSize;
     private final int gameLimit;
+    private final boolean memoryMapped;
+    private final boolean tokenTape;
+    private final boolean readAhead;
+    private final int decompressionBlocks;
+    private final Set<String> tagProjection;
+    private final boolean internMoves;
+    private final boolean compactGames;
+    private final TagPairCache tagPairCache;
+    private final MovePool movePool;
 
     private Configuration(Set<TagPair> predefinedCache, GameFilter gameFilter, boolean skipTagPairSection, boolean skipMovetext, boolean skipComment, boolean skipVariations,
                           boolean stopOnError, String threatNagAsComment, boolean strict, boolean allowDuplicationsInNags,
                           boolean useNullOnInvalidNag, boolean sortNags,
-                          boolean trimComment, boolean extractLiteralNags, boolean cacheTagPair, int nagLimit, int tagPairValueMaxLength, int commentMaxLength, int tagPairCacheSize, final int gameLimit) {
+                          boolean trimComment, boolean extractLiteralNags, boolean cacheTagPair, int nagLimit, int tagPairValueMaxLength, int commentMaxLength, int tagPairCacheSize, final int gameLimit,
+                          final boolean memoryMapped, final boolean tokenTape, final boolean readAhead,
+                          final int decompressionBlocks, final Set<String> tagProjection, final boolean internMoves,
+                          final boolean compactGames) {
         this.predefinedCache = predefinedCache;
+        this.gameFilter = gameFilter;
         this.skipTagPairSection = skipTagPairSection;
         this.skipMovetext = skipMovetext;
         this.skipComment = skipComment;
@@ -60,6 +75,15 @@ public class Configuration {
         this.commentMaxLength = commentMaxLength;
         this.tagPairCacheSize = tagPairCacheSize;
         this.gameLimit = gameLimit;
+        this.memoryMapped = memoryMapped;
+        this.tokenTape = tokenTape;
+        this.readAhead = readAhead;
+        this.decompressionBlocks = decompressionBlocks;
+        this.tagProjection = tagProjection;
+        this.internMoves = internMoves;
+        this.compactGames = compactGames;
+        this.tagPairCache = cacheTagPair ? new TagPairCache(tagPairCacheSize, predefinedCache) : null;
+        this.movePool = internMoves || compactGames ? new MovePool() : null;
     }
 
     public static Configuration defaultConfiguration() {
@@ -85,6 +109,17 @@ public class Configuration {
         return predefinedCache;
     }
 
+    /**
+     * The filter evaluated by the parser, the tag pair predicates are tested right after the tag pair section and the
+     * movetext of the rejected game is skipped.
+     *
+     * @see Configuration.ConfigurationBuilder#gameFilter()
+     */
+    @Nullable
+    public GameFilter gameFilter() {
+        return gameFilter;
+    }
+
     /**
      * @see Configuration.ConfigurationBuilder#extractLiteralNags(boolean)
      */
@@ -176,6 +211,49 @@ public class Configuration {
         return cacheTagPair;
     }
 
+    /**
+     * @see Configuration.ConfigurationBuilder#tagProjection(String...)
+     */
+    @Nullable
+    public Set<String> tagProjection() {
+        return tagProjection;
+    }
+
+    /**
+     * The cache shared by all parsers using this configuration, e.g. the parsers of the directory files parsed in
+     * parallel. Its statistics show the efficiency of the caching.
+     *
+     * @return The cache or {@code null} if {@link #cacheTagPair()} is {@code false}.
+     */
+    @Nullable
+    public TagPairCache tagPairCache() {
+        return tagPairCache;
+    }
+
+    /**
+     * @see Configuration.ConfigurationBuilder#internMoves(boolean)
+     */
+    public boolean internMoves() {
+        return internMoves;
+    }
+
+    /**
+     * @see Configuration.ConfigurationBuilder#compactGames(boolean)
+     */
+    public boolean compactGames() {
+        return compactGames;
+    }
+
+    /**
+     * The move pool shared by all parsers using this configuration, it is the dictionary of the compact games as well.
+     *
+     * @return The pool or {@code null} if both {@link #internMoves()} and {@link #compactGames()} are {@code false}.
+     */
+    @Nullable
+    public MovePool movePool() {
+        return movePool;
+    }
+
     /**
      * @see Configuration.ConfigurationBuilder#tagPairCacheSize(int)
      */
@@ -190,6 +268,34 @@ public class Configuration {
         return gameLimit;
     }
 
+    /**
+     * @see Configuration.ConfigurationBuilder#memoryMapped(boolean)
+     */
+    public boolean memoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * @see Configuration.ConfigurationBuilder#tokenTape(boolean)
+     */
+    public boolean tokenTape() {
+        return tokenTape;
+    }
+
+    /**
+     * @see Configuration.ConfigurationBuilder#readAhead(boolean)
+     */
+    public boolean readAhead() {
+        return readAhead;
+    }
+
+    /**
+     * @see Configuration.ConfigurationBuilder#decompressionBlocks(int)
+     */
+    public int decompressionBlocks() {
+        return decompressionBlocks;
+    }
+
     public static final class ConfigurationBuilder {
         private Set<TagPair> predefinedCache;
         private GameFilterBuilder gameFilterBuilder;
@@ -211,6 +317,13 @@ public class Configuration {
         private int commentMaxLength = COMMENT_LENGTH_UNLIMITED;
         private int tagPairCacheSize = DEFAULT_TAG_PAIR_CACHE_SIZE;
         private int gameLimit = DEFAULT_GAME_LIMIT;
+        private boolean memoryMapped;
+        private boolean tokenTape;
+        private boolean readAhead;
+        private int decompressionBlocks;
+        private Set<String> tagProjection;
+        private boolean internMoves;
+        private boolean compactGames;
 
         private ConfigurationBuilder() {
         }
@@ -253,6 +366,15 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Adds the predicate over the tag pair section. The games rejected by it are never materialized, their
+         * movetext is skipped by the lexer. The predicates are combined by logical AND. Not applied when the tag pair
+         * section is skipped.
+         *
+         * @param filter The tag pair section predicate.
+         *
+         * @return ConfigurationBuilder itself.
+         */
         public ConfigurationBuilder tagPairFilter(final Predicate<List<TagPair>> filter) {
             Objects.requireNonNull(gameFilterBuilder, "First call gameFilter() method.");
             gameFilterBuilder.tagPairFilter(filter);
@@ -260,6 +382,14 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Adds the predicate over the parsed movetext. The games rejected by it are dropped before they are
+         * materialized. The predicates are combined by logical AND. Not applied when the movetext is skipped.
+         *
+         * @param movetextFilter The movetext predicate.
+         *
+         * @return ConfigurationBuilder itself.
+         */
         public ConfigurationBuilder moveTextFilter(final Predicate<List<MoveText>> movetextFilter) {
             Objects.requireNonNull(gameFilterBuilder, "First call gameFilter() method.");
             gameFilterBuilder.movetextFilter(movetextFilter);
@@ -290,7 +420,9 @@ public class Configuration {
         }
 
         /**
-         * @param skipMovetext Whether parser should parse moves or not. Anyway syntax errors will be reported.
+         * @param skipMovetext Whether parser should parse moves or not. The skipped movetext is not tokenized, the
+         *                     lexer jumps to the game termination marker tracking only the comments and the
+         *                     variations, so the syntax errors inside of it are not reported.
          *
          * @return ConfigurationBuilder itself.
          */
@@ -300,7 +432,8 @@ public class Configuration {
         }
 
         /**
-         * @param skipComment Whether parser should parse comments or not. Anyway syntax errors will be reported.
+         * @param skipComment Whether parser should parse comments or not. The skipped comment is not tokenized, the
+         *                    lexer jumps to the closing brace.
          *
          * @return ConfigurationBuilder itself.
          */
@@ -310,7 +443,9 @@ public class Configuration {
         }
 
         /**
-         * @param skipVariations Whether parser should parse variation or not. Anyway syntax errors will be reported.
+         * @param skipVariations Whether parser should parse variation or not. The skipped variation is not tokenized,
+         *                       the lexer jumps to the balanced closing parenthesis, so the syntax errors inside of
+         *                       it are not reported.
          *
          * @return ConfigurationBuilder itself.
          */
@@ -491,7 +626,9 @@ public class Configuration {
         }
 
         /**
-         * {@code TagPair} is immutable so we can perform caching on same tag pairs to prevent memory allocation.
+         * {@code TagPair} is immutable so we can perform caching on same tag pairs to prevent memory allocation. The
+         * cache is created by {@link #build()} and shared by all parsers using the built configuration, see {@link
+         * Configuration#tagPairCache()}.
          *
          * @param cacheTagPair Whether use cache for {@link TagPair} instances or not.
          *
@@ -504,6 +641,49 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * The names of the tag pairs to keep, the other tag pairs are skipped by the lexer without being read. The
+         * names are compared with the raw bytes of the source, so the rejected tag pairs cost no allocation. Note that
+         * the tag pair filters see only the kept tag pairs. Default is {@code null}, all tag pairs are kept.
+         *
+         * @param tags The case sensitive tag names or {@code null} to keep all tag pairs.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder tagProjection(final String... tags) {
+            this.tagProjection = tags == null ? null : Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(tags)));
+            return this;
+        }
+
+        /**
+         * The moves without comment, NAG and variation are resolved from the flyweight pool instead of being
+         * allocated for every ply, so the same moves of all games are the same {@link Move} instances. The pool is
+         * created by {@link #build()} and shared by all parsers using the built configuration, see {@link
+         * Configuration#movePool()}. The bytes of such moves must never be modified. Default is {@code false}.
+         *
+         * @param internMoves Whether to pool the moves or not.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder internMoves(final boolean internMoves) {
+            this.internMoves = internMoves;
+            return this;
+        }
+
+        /**
+         * The parser produces {@link com.github.nstdio.libpgn.entity.CompactGame} keeping the mainline as the array of
+         * the move ids of {@link Configuration#movePool()}, so the movetext costs about two bytes per ply. The moves
+         * are pooled as if {@link #internMoves(boolean)} is {@code true}. Default is {@code false}.
+         *
+         * @param compactGames Whether to produce the compact games or not.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder compactGames(final boolean compactGames) {
+            this.compactGames = compactGames;
+            return this;
+        }
+
         /**
          * The maximum capacity of cache. When parsing a large amount of data its recommended to set this value above
          * default. As a result same tag pairs will be referenced to the same {@link TagPair}.
@@ -526,7 +706,8 @@ public class Configuration {
         }
 
         /**
-         * Tells the parser that it'll not continue its work when the number of games exceeds the limit. Default limit
+         * Tells the parser that it'll not continue its work when the number of games exceeds the limit. The lexer is
+         * closed right after the last game is parsed, the games rejected by the filter are not counted. Default limit
          * is {@link Configuration#DEFAULT_GAME_LIMIT}
          *
          * @param gameLimit The maximum number of games that should be parsed.
@@ -542,6 +723,68 @@ public class Configuration {
             return this;
         }
 
+        /**
+         * Whether plain {@code .pgn} files should be mapped into memory instead of being read through the input
+         * stream. Compressed files are always read as a stream. Default is {@code false}.
+         *
+         * @param memoryMapped Whether to use memory mapped files.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder memoryMapped(final boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
+        /**
+         * Whether plain {@code .pgn} files should be tokenized in two stages: the file is mapped into memory, split
+         * into chunks at game boundaries and the chunks are tokenized concurrently into the token tapes which are then
+         * consumed by the parser. Compressed files are always read as a stream. Default is {@code false}.
+         *
+         * @param tokenTape Whether to use token tapes.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder tokenTape(final boolean tokenTape) {
+            this.tokenTape = tokenTape;
+            return this;
+        }
+
+        /**
+         * Whether files read through the input stream should be read and decompressed by the dedicated thread while
+         * the parser works on the already read data. Useful when the files are on slow or network storage. Memory
+         * mapped files are not affected. Default is {@code false}.
+         *
+         * @param readAhead Whether to read files in the background.
+         *
+         * @return ConfigurationBuilder itself.
+         */
+        public ConfigurationBuilder readAhead(final boolean readAhead) {
+            this.readAhead = readAhead;
+            return this;
+        }
+
+        /**
+         * The maximum number of compressed blocks of {@code .bz2} and {@code .xz} files or frames of {@code .zst} files
+         * decompressed concurrently ahead of the parser. The memory use is bounded by this number of decompressed
+         * blocks, which is about 1 MB for bzip2 and depends on the compressor settings for xz and zstd. Default is
+         * {@code 0}, the files are decompressed sequentially.
+         *
+         * @param decompressionBlocks The number of blocks in flight or {@code 0} to disable concurrent decompression.
+         *
+         * @return ConfigurationBuilder itself.
+         *
+         * @throws IllegalArgumentException When {@code decompressionBlocks} is negative.
+         */
+        public ConfigurationBuilder decompressionBlocks(final int decompressionBlocks) {
+            if (decompressionBlocks < 0) {
+                throw new IllegalArgumentException("decompressionBlocks must be greater or equal to 0");
+            }
+
+            this.decompressionBlocks = decompressionBlocks;
+            return this;
+        }
+
         public Configuration build() {
             return new Configuration(
                     predefinedCache,
@@ -562,7 +805,14 @@ public class Configuration {
                     tagPairValueMaxLength,
                     commentMaxLength,
                     tagPairCacheSize,
-                    gameLimit);
+                    gameLimit,
+                    memoryMapped,
+                    tokenTape,
+                    readAhead,
+                    decompressionBlocks,
+                    tagProjection,
+                    internMoves,
+                    compactGames);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.github.nstdio.libpgn.core;
 
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
 import static com.github.nstdio.libpgn.core.Configuration.defaultConfiguration;
 
 import java.io.File;
@@ -8,10 +9,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -20,9 +24,18 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
+import com.github.nstdio.libpgn.core.parser.MappedPgnLexer;
 import com.github.nstdio.libpgn.core.parser.PageablePgnParser;
+import com.github.nstdio.libpgn.core.parser.PgnLexer;
+import com.github.nstdio.libpgn.core.parser.PgnFileSpliterator;
 import com.github.nstdio.libpgn.core.parser.PgnParser;
+import com.github.nstdio.libpgn.core.parser.TapePgnLexer;
 import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.GameIndex;
+import com.github.nstdio.libpgn.io.MappedFile;
+import com.github.nstdio.libpgn.io.PgnArchive;
+import com.github.nstdio.libpgn.io.PgnInputStream;
+import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
 
 public class GameFactory {
 
@@ -44,7 +57,7 @@ public class GameFactory {
 
     public static Stream<List<Game>> pageableStream(File file, Configuration config, final Supplier<List<Game>> listSupplier,
                                                     final int size) {
-        final InputStreamPgnLexer lexer = InputStreamPgnLexer.of(file);
+        final PgnLexer lexer = lexer(file, config);
         return StreamSupport.stream(new PageablePgnParser(lexer, config, listSupplier, size).spliterator(), false)
                 .onClose(lexer::close);
     }
@@ -56,6 +69,156 @@ public class GameFactory {
                 .onClose(lexer::close);
     }
 
+    /**
+     * Creates the pages stream starting from the page {@code fromPage}. The preceding games are not parsed, the lexer
+     * is positioned using the {@link GameIndex} stored next to the file.
+     * <p>
+     * WARNING: The caller must perform {@link Stream#close()} to free up resources.
+     *
+     * @param file     The plain PGN file.
+     * @param config   The parser configuration.
+     * @param size     The maximum size of each page.
+     * @param fromPage The zero based number of the first page.
+     *
+     * @return The stream of pages.
+     *
+     * @throws IllegalArgumentException if the file cannot be indexed.
+     * @see GameIndex#of(java.nio.file.Path)
+     */
+    public static Stream<List<Game>> pageableStream(File file, Configuration config, final int size, final int fromPage) {
+        return pageableStream(indexedLexer(file, (long) fromPage * size, Long.MAX_VALUE), config, size);
+    }
+
+    /**
+     * Creates the pages stream starting from the page {@code fromPage} using the index loaded by the caller, so the
+     * repeated lookups of the paging UI neither read the index nor map the file again.
+     * <p>
+     * WARNING: The caller must perform {@link Stream#close()} to free up resources.
+     *
+     * @param file     The mapped plain PGN file.
+     * @param index    The index of {@code file}.
+     * @param config   The parser configuration.
+     * @param size     The maximum size of each page.
+     * @param fromPage The zero based number of the first page.
+     *
+     * @return The stream of pages.
+     *
+     * @throws IllegalArgumentException if the index is not the index of {@code file}.
+     */
+    public static Stream<List<Game>> pageableStream(MappedFile file, GameIndex index, Configuration config,
+                                                    final int size, final int fromPage) {
+        return pageableStream(indexedLexer(file, index, (long) fromPage * size, Long.MAX_VALUE), config, size);
+    }
+
+    private static Stream<List<Game>> pageableStream(final PgnLexer lexer, final Configuration config, final int size) {
+        return StreamSupport.stream(new PageablePgnParser(lexer, config, () -> listImpl(false), size).spliterator(), false)
+                .onClose(lexer::close);
+    }
+
+    /**
+     * Parses the single page of games. The preceding games are not parsed, the lexer is positioned using the {@link
+     * GameIndex} stored next to the file.
+     *
+     * @param file   The plain PGN file.
+     * @param config The parser configuration.
+     * @param page   The zero based page number.
+     * @param size   The maximum size of the page.
+     *
+     * @return The games of the page, empty if the file has fewer pages.
+     *
+     * @throws IllegalArgumentException if the file cannot be indexed.
+     */
+    public static List<Game> page(File file, Configuration config, final int page, final int size) {
+        checkPageSize(size);
+
+        final long from = (long) page * size;
+
+        return page(indexedLexer(file, from, from + size), config);
+    }
+
+    /**
+     * Parses the single page of games using the index loaded by the caller, so the page lookup costs the same
+     * regardless of the number of games in the file.
+     *
+     * @param file   The mapped plain PGN file.
+     * @param index  The index of {@code file}.
+     * @param config The parser configuration.
+     * @param page   The zero based page number.
+     * @param size   The maximum size of the page.
+     *
+     * @return The games of the page, empty if the file has fewer pages.
+     *
+     * @throws IllegalArgumentException if the index is not the index of {@code file}.
+     */
+    public static List<Game> page(MappedFile file, GameIndex index, Configuration config, final int page,
+                                  final int size) {
+        checkPageSize(size);
+
+        final long from = (long) page * size;
+
+        return page(indexedLexer(file, index, from, from + size), config);
+    }
+
+    private static void checkPageSize(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive.");
+        }
+    }
+
+    private static List<Game> page(final PgnLexer lexer, final Configuration config) {
+        try (final Stream<Game> games = gameStream(lexer, config)) {
+            return games.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Creates the games stream starting from the game {@code fromGame}. The preceding games are not parsed, the lexer
+     * is positioned using the {@link GameIndex} stored next to the file. Combined with {@link
+     * Configuration#gameLimit()} it reads only the sampled range of the file.
+     * <p>
+     * WARNING: The caller must perform {@link Stream#close()} to free up resources.
+     *
+     * @param file     The plain PGN file.
+     * @param config   The parser configuration.
+     * @param fromGame The zero based number of the first game.
+     *
+     * @return The stream of games.
+     *
+     * @throws IllegalArgumentException if the file cannot be indexed.
+     */
+    public static Stream<Game> stream(File file, Configuration config, final int fromGame) {
+        return gameStream(indexedLexer(file, fromGame, toGame(config, fromGame)), config);
+    }
+
+    /**
+     * Creates the games stream starting from the game {@code fromGame} using the index loaded by the caller.
+     * <p>
+     * WARNING: The caller must perform {@link Stream#close()} to free up resources.
+     *
+     * @param file     The mapped plain PGN file.
+     * @param index    The index of {@code file}.
+     * @param config   The parser configuration.
+     * @param fromGame The zero based number of the first game.
+     *
+     * @return The stream of games.
+     *
+     * @throws IllegalArgumentException if the index is not the index of {@code file}.
+     * @see #stream(File, Configuration, int)
+     */
+    public static Stream<Game> stream(MappedFile file, GameIndex index, Configuration config, final int fromGame) {
+        return gameStream(indexedLexer(file, index, fromGame, toGame(config, fromGame)), config);
+    }
+
+    private static long toGame(final Configuration config, final int fromGame) {
+        // The filtered games do not count towards the limit, so the range is bounded only without the filter.
+        return config.gameFilter() == null ? (long) fromGame + config.gameLimit() : Long.MAX_VALUE;
+    }
+
+    private static Stream<Game> gameStream(final PgnLexer lexer, final Configuration config) {
+        return StreamSupport.stream(new PgnParser(lexer, config).spliterator(), false)
+                .onClose(lexer::close);
+    }
+
     /**
      * Creates the games stream.
      * <p>
@@ -77,13 +240,23 @@ public class GameFactory {
      * <p>
      * WARNING: The caller must perform {@link Stream#close()} to free up resources.
      *
-     * @param file   The PGN database file.
+     * @param file   The PGN database file. Plain PGN files are mapped into memory when {@link
+     *               Configuration#memoryMapped()} or {@link Configuration#tokenTape()} is enabled. The stream over
+     *               the memory-mapped file can be efficiently parallelized, the file is split at the game boundaries.
      * @param config The parser configuration.
      *
      * @return The stream of games.
      */
     public static Stream<Game> stream(File file, Configuration config) {
-        final InputStreamPgnLexer lexer = InputStreamPgnLexer.of(file);
+        if (config.memoryMapped() && !config.tokenTape() && MappedPgnLexer.canMap(file)) {
+            final MappedFile mapped = wrapChecked(() -> MappedFile.map(file.toPath()));
+            final Stream<Game> games = StreamSupport.stream(new PgnFileSpliterator(mapped, config), false);
+
+            // Every split is limited by its own parser, the stream keeps the overall limit.
+            return config.gameLimit() == Configuration.DEFAULT_GAME_LIMIT ? games : games.limit(config.gameLimit());
+        }
+
+        final PgnLexer lexer = lexer(file, config);
         return StreamSupport.stream(new PgnParser(lexer, config).spliterator(), false)
                 .onClose(lexer::close);
     }
@@ -166,6 +339,65 @@ public class GameFactory {
         return map;
     }
 
+    /**
+     * Parses the entries of the archive concurrently and merges their games into one stream. Every entry is parsed by
+     * its own parser, the games are produced in the archive order.
+     * <p>
+     * WARNING: The caller must perform {@link Stream#close()} to free up resources.
+     *
+     * @param archive     The {@code .zip}, {@code .tar}, {@code .tar.gz} or {@code .tar.xz} file.
+     * @param config      The parser configuration.
+     * @param parallelism The maximum number of entries parsed at the same time. Since the parsed entries are kept in
+     *                    memory until consumed, it also bounds the memory use.
+     *
+     * @return The stream of games.
+     *
+     * @throws IllegalArgumentException if the file is not supported archive or {@code parallelism} is not positive.
+     * @see PgnArchive
+     */
+    public static Stream<Game> streamArchive(final File archive, final Configuration config, final int parallelism) {
+        final ArchiveGames entries = archiveGames(archive, config, parallelism);
+
+        final Stream<Game> games = StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(entry -> entry.getValue().stream())
+                .onClose(entries::close);
+
+        // Every entry is limited by its own parser, the stream keeps the overall limit.
+        return config.gameLimit() == Configuration.DEFAULT_GAME_LIMIT ? games : games.limit(config.gameLimit());
+    }
+
+    /**
+     * Parses the entries of the archive concurrently, see {@link #streamArchive(File, Configuration, int)}.
+     *
+     * @param archive     The {@code .zip}, {@code .tar}, {@code .tar.gz} or {@code .tar.xz} file.
+     * @param config      The parser configuration.
+     * @param parallelism The maximum number of entries parsed at the same time.
+     *
+     * @return The map where the keys are the entry names in the archive order, and the value is the list of games
+     * contained in this entry.
+     *
+     * @throws IllegalArgumentException if the file is not supported archive or {@code parallelism} is not positive.
+     */
+    public static Map<String, List<Game>> fromArchive(final File archive, final Configuration config, final int parallelism) {
+        final Map<String, List<Game>> map = new LinkedHashMap<>();
+
+        try (final ArchiveGames entries = archiveGames(archive, config, parallelism)) {
+            entries.forEachRemaining(entry -> map.put(entry.getKey(), entry.getValue()));
+        }
+
+        return map;
+    }
+
+    private static ArchiveGames archiveGames(final File archive, final Configuration config, final int parallelism) {
+        Objects.requireNonNull(config);
+
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive.");
+        }
+
+        return new ArchiveGames(PgnArchive.open(archive), config, parallelism);
+    }
+
     /**
      * @see #flatFromDir(File, Configuration, boolean, List)
      */
@@ -242,6 +474,57 @@ public class GameFactory {
                 });
     }
 
+    /**
+     * Creates the lexer over the games {@code [fromGame, toGame)} of the file.
+     */
+    private static PgnLexer indexedLexer(final File file, final long fromGame, final long toGame) {
+        Objects.requireNonNull(file);
+
+        if (!MappedPgnLexer.canMap(file)) {
+            throw new IllegalArgumentException("Only plain PGN files can be indexed: " + file);
+        }
+
+        final MappedFile mapped = wrapChecked(() -> MappedFile.map(file.toPath()));
+
+        return indexedLexer(mapped, wrapChecked(() -> GameIndex.of(file.toPath(), mapped)), fromGame, toGame);
+    }
+
+    private static PgnLexer indexedLexer(final MappedFile file, final GameIndex index, final long fromGame,
+                                         final long toGame) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(index);
+
+        if (fromGame < 0) {
+            throw new IllegalArgumentException("fromGame must not be negative.");
+        }
+
+        if (index.fileSize() != file.size()) {
+            throw new IllegalArgumentException(String.format("The index of %d bytes does not match the file of %d bytes.",
+                    index.fileSize(), file.size()));
+        }
+
+        if (fromGame >= index.size()) {
+            return new MappedPgnLexer(file, file.size(), file.size());
+        }
+
+        final long end = toGame >= index.size() ? file.size() : index.offset((int) toGame);
+
+        return new MappedPgnLexer(file, index.offset((int) fromGame), end);
+    }
+
+    private static PgnLexer lexer(final File file, final Configuration config) {
+        if (config.tokenTape() && MappedPgnLexer.canMap(file)) {
+            return TapePgnLexer.of(file);
+        }
+
+        if (config.memoryMapped() && MappedPgnLexer.canMap(file)) {
+            return MappedPgnLexer.of(file);
+        }
+
+        return InputStreamPgnLexer.of(PgnInputStreamFactory.of(file, PgnInputStream.DEFAULT_BUFFER_SIZE,
+                config.readAhead(), config.decompressionBlocks()));
+    }
+
     /**
      * Chooses {@code Map} implementation according to {@code parallel}.
      *
@@ -28,6 +28,13 @@ public final class GameFilter {
         return testImpl(movetextFilter, Objects.requireNonNull(moveTextList));
     }
 
+    /**
+     * @return Whether the filter has any predicate over the movetext.
+     */
+    public boolean filtersMoveText() {
+        return movetextFilter != null;
+    }
+
     private <T> boolean testImpl(final Predicate<T> filters, final T input) {
         return filters == null || filters.test(input);
     }
@@ -0,0 +1,239 @@
+package com.github.nstdio.libpgn.core;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+
+import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
+import com.github.nstdio.libpgn.core.parser.MappedPgnLexer;
+import com.github.nstdio.libpgn.core.parser.PgnParser;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
+
+/**
+ * Copies the original bytes of the games accepted by the filter, the games are parsed only to be tested and never
+ * serialized back. So the output keeps the source formatting byte for byte and the copying costs nothing besides the
+ * parsing itself. The parsing can be made cheaper by the configuration, e.g. the movetext can be skipped when the
+ * filter looks at tags only.
+ * <p>
+ * Every game owns the source bytes following the termination marker of the previous game up to its own termination
+ * marker, the last game owns the rest of the source as well. So the output consists of the exact source segments and
+ * the consecutive accepted games are copied as the single segment. The games rejected by {@link
+ * Configuration#gameFilter()} are never materialized and not copied. The copying stops at
+ * {@link Configuration#gameLimit()} parsed games.
+ */
+public final class GamePassThrough {
+    private GamePassThrough() {
+    }
+
+    /**
+     * Copies the accepted games of the file. The plain file is mapped for parsing and the accepted games are copied by
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, the compressed file is copied as the stream.
+     *
+     * @param file   The source file.
+     * @param config The parser configuration.
+     * @param filter The filter.
+     * @param out    The output. Not closed by this method.
+     *
+     * @return The number of games copied.
+     *
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public static long copy(final File file, final Configuration config, final Predicate<? super Game> filter,
+                            final WritableByteChannel out) {
+        Objects.requireNonNull(filter);
+        Objects.requireNonNull(out);
+
+        if (PgnInputStreamFactory.format(file).isPresent()) {
+            return copy(PgnInputStreamFactory.of(file), config, filter, Channels.newOutputStream(out));
+        }
+
+        try (final MappedPgnLexer lexer = MappedPgnLexer.of(file);
+             final FileChannel source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final PgnParser parser = new PgnParser(lexer, config);
+            long copied = 0;
+            long runStart = -1;
+            long runEnd = -1;
+            Game game;
+
+            while ((game = parser.next()) != null) {
+                if (filter.test(game)) {
+                    if (runEnd != parser.precedingEnd()) {
+                        transfer(source, runStart, runEnd, out);
+                        runStart = parser.precedingEnd();
+                    }
+
+                    runEnd = parser.gameEnd();
+                    copied++;
+                }
+            }
+
+            if (runEnd != -1 && runEnd == parser.precedingEnd() && !parser.limitReached()) {
+                runEnd = source.size();
+            }
+
+            transfer(source, runStart, runEnd, out);
+
+            return copied;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void transfer(final FileChannel source, final long from, final long to,
+                                 final WritableByteChannel out) throws IOException {
+        long position = from;
+
+        while (position < to) {
+            final long n = source.transferTo(position, to - position, out);
+
+            if (n <= 0) {
+                throw new EOFException(String.format("The transfer stalled at %d of [%d, %d).", position, from, to));
+            }
+
+            position += n;
+        }
+    }
+
+    /**
+     * Copies the accepted games of the stream. The stream is decoded if needed, see {@link
+     * PgnInputStreamFactory#of(InputStream)}.
+     *
+     * @param in     The source stream. Closed by this method.
+     * @param config The parser configuration.
+     * @param filter The filter.
+     * @param out    The output. Not closed by this method.
+     *
+     * @return The number of games copied.
+     *
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public static long copy(final InputStream in, final Configuration config, final Predicate<? super Game> filter,
+                            final OutputStream out) {
+        Objects.requireNonNull(filter);
+        Objects.requireNonNull(out);
+
+        final Recorder recorder = new Recorder(PgnInputStreamFactory.of(in));
+
+        try (final InputStreamPgnLexer lexer = InputStreamPgnLexer.of(recorder)) {
+            final PgnParser parser = new PgnParser(lexer, config);
+            long copied = 0;
+            long acceptedEnd = -1;
+            Game game;
+
+            while ((game = parser.next()) != null) {
+                if (filter.test(game)) {
+                    recorder.writeTo(parser.precedingEnd(), parser.gameEnd(), out);
+                    acceptedEnd = parser.gameEnd();
+                    copied++;
+                }
+
+                recorder.discard(parser.gameEnd());
+            }
+
+            if (acceptedEnd != -1 && acceptedEnd == parser.precedingEnd() && !parser.limitReached()) {
+                recorder.writeTo(parser.precedingEnd(), recorder.end(), out);
+            }
+
+            return copied;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keeps the bytes read from the stream until they are discarded. The lexer reads ahead, so the bytes of the game
+     * are still here when the game is parsed.
+     */
+    private static final class Recorder extends FilterInputStream {
+        private byte[] buf = new byte[8192];
+
+        /**
+         * The stream offset of {@code buf[0]}.
+         */
+        private long base;
+        private int size;
+
+        /**
+         * The stream offset of the first byte still needed. The bytes before it are dropped when the buffer is full.
+         */
+        private long kept;
+
+        private Recorder(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+            final int n = in.read(b, off, len);
+
+            if (n > 0) {
+                if (size + n > buf.length) {
+                    compact();
+                }
+
+                if (size + n > buf.length) {
+                    buf = Arrays.copyOf(buf, Math.max(size + n, buf.length << 1));
+                }
+
+                System.arraycopy(b, off, buf, size, n);
+                size += n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final byte[] skipped = new byte[(int) Math.min(n, 8192)];
+            final int read = read(skipped, 0, skipped.length);
+
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        long end() {
+            return base + size;
+        }
+
+        void writeTo(final long from, final long to, final OutputStream out) throws IOException {
+            out.write(buf, (int) (from - base), (int) (to - from));
+        }
+
+        void discard(final long to) {
+            kept = to;
+        }
+
+        private void compact() {
+            final int n = (int) (kept - base);
+
+            System.arraycopy(buf, n, buf, 0, size - n);
+            size -= n;
+            base = kept;
+        }
+    }
+}
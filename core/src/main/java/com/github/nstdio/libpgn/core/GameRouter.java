@@ -0,0 +1,365 @@
+package com.github.nstdio.libpgn.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.PgnOutputStreamImpl;
+
+/**
+ * Splits the games into many outputs in one pass, e.g. by ECO, by year or by player. Every game is asked for its
+ * routes, the names of output files relative to the output directory, and appended to each of them. The names may
+ * contain subdirectories, e.g. {@code 2020/B90.pgn}, which are created as needed, but must not lead outside of the
+ * output directory.
+ * <p>
+ * The games are written into per-output memory buffers on the caller thread. The full buffers are appended to the
+ * files by the dedicated writer thread, so the disk writes overlap with parsing. The writer keeps at most
+ * {@code maxOpenFiles} files open, the least recently written file is closed first and reopened in append mode when
+ * needed again. The files existing before routing are overwritten.
+ * <p>
+ * Note that this class is not thread safe.
+ */
+public final class GameRouter implements Closeable {
+    /**
+     * The default maximum number of files kept open.
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSHES_IN_FLIGHT = 4;
+    private static final byte[] GAME_SEPARATOR = {'\n', '\n'};
+
+    private final Path directory;
+    private final Function<Game, ? extends Collection<String>> routes;
+    private final Map<String, ByteArrayOutputStream> buffers = new HashMap<>();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream();
+    private final Outputs outputs;
+    private final ExecutorService writer;
+    private final Deque<CompletableFuture<Void>> pending = new ArrayDeque<>(FLUSHES_IN_FLIGHT);
+
+    GameRouter(final Path directory, final Function<Game, ? extends Collection<String>> routes, final int maxOpenFiles) {
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("maxOpenFiles must be positive.");
+        }
+
+        this.directory = Objects.requireNonNull(directory).toAbsolutePath().normalize();
+        this.routes = Objects.requireNonNull(routes);
+        this.outputs = new Outputs(maxOpenFiles);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "pgn-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the router writing every game into the single output named by {@code key}.
+     *
+     * @param directory The output directory.
+     * @param key       The function returning the output file name or {@code null} to skip the game.
+     *
+     * @return The router.
+     */
+    public static GameRouter byKey(final Path directory, final Function<Game, String> key) {
+        return byKey(directory, key, DEFAULT_MAX_OPEN_FILES);
+    }
+
+    /**
+     * Creates the router writing every game into the single output named by {@code key}.
+     *
+     * @param directory    The output directory.
+     * @param key          The function returning the output file name or {@code null} to skip the game.
+     * @param maxOpenFiles The maximum number of files kept open.
+     *
+     * @return The router.
+     *
+     * @throws IllegalArgumentException When {@code maxOpenFiles} is not positive.
+     */
+    public static GameRouter byKey(final Path directory, final Function<Game, String> key, final int maxOpenFiles) {
+        Objects.requireNonNull(key);
+
+        return new GameRouter(directory, game -> {
+            final String route = key.apply(game);
+            return route == null ? List.of() : List.of(route);
+        }, maxOpenFiles);
+    }
+
+    /**
+     * Creates the router writing every game into each output whose predicate accepts it. The predicates built by
+     * tag filters can be adapted as {@code game -> filter.test(game.tagPairSection())}.
+     *
+     * @param directory    The output directory.
+     * @param outputs      The output file names with their predicates.
+     * @param maxOpenFiles The maximum number of files kept open.
+     *
+     * @return The router.
+     *
+     * @throws IllegalArgumentException When {@code maxOpenFiles} is not positive.
+     */
+    public static GameRouter byPredicates(final Path directory, final Map<String, ? extends Predicate<? super Game>> outputs,
+                                          final int maxOpenFiles) {
+        final Map<String, Predicate<? super Game>> predicates = new LinkedHashMap<>(outputs);
+
+        return new GameRouter(directory, game -> {
+            final List<String> routes = new ArrayList<>(1);
+
+            predicates.forEach((route, predicate) -> {
+                if (predicate.test(game)) {
+                    routes.add(route);
+                }
+            });
+
+            return routes;
+        }, maxOpenFiles);
+    }
+
+    /**
+     * Parses the file once and routes all of its games.
+     *
+     * @param file   The input file.
+     * @param config The parser configuration.
+     *
+     * @return The number of games written at least to one output.
+     *
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public long route(final File file, final Configuration config) {
+        try (final Stream<Game> games = GameFactory.stream(file, config)) {
+            return route(games);
+        }
+    }
+
+    /**
+     * Routes all games of the stream.
+     *
+     * @param games The games.
+     *
+     * @return The number of games written at least to one output.
+     *
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public long route(final Stream<Game> games) {
+        return games.filter(this::route).count();
+    }
+
+    /**
+     * Routes the single game.
+     *
+     * @param game The game.
+     *
+     * @return Whether the game is written at least to one output.
+     *
+     * @throws UncheckedIOException    if an I/O error occurs.
+     * @throws IllegalArgumentException When the route leads outside of the output directory.
+     */
+    public boolean route(final Game game) {
+        final Collection<String> names = routes.apply(game);
+
+        if (names.isEmpty()) {
+            return false;
+        }
+
+        scratch.reset();
+        new PgnOutputStreamImpl(scratch).write(game);
+        scratch.writeBytes(GAME_SEPARATOR);
+        final byte[] bytes = scratch.toByteArray();
+
+        for (final String name : names) {
+            final ByteArrayOutputStream buffer = buffers.computeIfAbsent(name, key -> {
+                resolve(key);
+                return new ByteArrayOutputStream();
+            });
+            buffer.writeBytes(bytes);
+
+            if (buffer.size() >= BUFFER_SIZE) {
+                flush(name, buffer);
+            }
+        }
+
+        return true;
+    }
+
+    private Path resolve(final String name) {
+        final Path path = directory.resolve(name).normalize();
+
+        if (!path.startsWith(directory) || path.equals(directory)) {
+            throw new IllegalArgumentException("The route is outside of the output directory: " + name);
+        }
+
+        return path;
+    }
+
+    private void flush(final String name, final ByteArrayOutputStream buffer) {
+        final byte[] bytes = buffer.toByteArray();
+        buffer.reset();
+
+        if (pending.size() == FLUSHES_IN_FLIGHT) {
+            await(pending.poll());
+        }
+
+        pending.add(CompletableFuture.runAsync(() -> outputs.append(name, bytes), writer));
+    }
+
+    private static void await(final CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the remaining buffers and closes all files. The files are closed even if the writing fails.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        RuntimeException failure = null;
+
+        try {
+            buffers.forEach((name, buffer) -> {
+                if (buffer.size() > 0) {
+                    flush(name, buffer);
+                }
+            });
+
+            while (!pending.isEmpty()) {
+                await(pending.poll());
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            buffers.clear();
+            // The writer runs the remaining flushes before the files are closed.
+            pending.clear();
+        }
+
+        try {
+            await(CompletableFuture.runAsync(outputs::close, writer));
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        } finally {
+            writer.shutdown();
+        }
+
+        if (failure instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failure).getCause();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The open files in access order. Used by the writer thread only.
+     */
+    private final class Outputs extends LinkedHashMap<String, OutputStream> {
+        private final int maxOpenFiles;
+        private final Set<String> created = new HashSet<>();
+
+        private Outputs(final int maxOpenFiles) {
+            super(16, 0.75f, true);
+            this.maxOpenFiles = maxOpenFiles;
+        }
+
+        void append(final String name, final byte[] bytes) {
+            try {
+                OutputStream out = get(name);
+
+                if (out == null) {
+                    final Path path = resolve(name);
+                    final boolean create = created.add(name);
+
+                    if (create) {
+                        Files.createDirectories(path.getParent());
+                    }
+
+                    final StandardOpenOption mode = create ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND;
+                    out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+                    put(name, out);
+                }
+
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, OutputStream> eldest) {
+            if (size() <= maxOpenFiles) {
+                return false;
+            }
+
+            close(eldest.getValue());
+            return true;
+        }
+
+        /**
+         * Closes every file, the first failure is thrown after all files are closed.
+         */
+        void close() {
+            UncheckedIOException failure = null;
+
+            for (final OutputStream out : values()) {
+                try {
+                    close(out);
+                } catch (UncheckedIOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+
+            clear();
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void close(final OutputStream out) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
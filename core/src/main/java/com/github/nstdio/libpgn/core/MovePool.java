@@ -0,0 +1,232 @@
+package com.github.nstdio.libpgn.core;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.github.nstdio.libpgn.entity.Move;
+import com.github.nstdio.libpgn.entity.MoveDictionary;
+
+/**
+ * The flyweight table of the moves without comment, NAG and variation. The same few thousand SAN moves make up almost
+ * the whole movetext of any database, so the parsers sharing the pool share the {@link Move} instances and their bytes
+ * instead of allocating them for every ply.
+ * <p>
+ * The table is seeded with the piece, pawn and castling moves with and without check and grows up to {@link
+ * #MAXIMUM_SIZE} moves as the rare ones, e.g. disambiguations and promotions, are met. The moves are keyed by the hashes
+ * of the raw bytes computed by the lexer, see {@link TagPairCache#hash(byte[])}. The candidate is compared with the
+ * source bytes by the caller, so the token is read only on a miss. The pooled moves are numbered in the order of
+ * pooling, so the pool is the dictionary of {@link com.github.nstdio.libpgn.entity.CompactGame}.
+ * <p>
+ * The pooled moves are shared, so their bytes must never be modified. This class is thread safe, the lookups take no
+ * lock and a single instance is shared by all parsers of the {@link Configuration}.
+ */
+public final class MovePool implements MoveDictionary {
+    private static final String PIECES = "NBRQK";
+    private static final String[] CHECKS = {"", "+"};
+
+    private volatile Entry[] table = new Entry[8192];
+    private volatile Move[] moves = new Move[4096];
+    private int size;
+
+    /**
+     * Constructs the new pool seeded with the common moves.
+     */
+    public MovePool() {
+        for (final String check : CHECKS) {
+            intern(("O-O" + check).getBytes());
+            intern(("O-O-O" + check).getBytes());
+
+            for (char file = 'a'; file <= 'h'; file++) {
+                for (char rank = '1'; rank <= '8'; rank++) {
+                    final String square = "" + file + rank + check;
+
+                    intern(square.getBytes());
+
+                    if (file > 'a') {
+                        intern(((char) (file - 1) + "x" + square).getBytes());
+                    }
+
+                    if (file < 'h') {
+                        intern(((char) (file + 1) + "x" + square).getBytes());
+                    }
+
+                    for (int i = 0; i < PIECES.length(); i++) {
+                        intern((PIECES.charAt(i) + square).getBytes());
+                        intern((PIECES.charAt(i) + "x" + square).getBytes());
+                    }
+                }
+            }
+        }
+    }
+
+    private static int index(final int hash, final int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the pooled move accepted by {@code matches}.
+     *
+     * @param hash    The hash of the move bytes.
+     * @param matches Whether the bytes of the pooled move equal the source bytes.
+     *
+     * @return The pooled move or {@code null} if there is no such move.
+     */
+    @Nullable
+    public Move find(final int hash, final Predicate<byte[]> matches) {
+        final Entry entry = entry(hash, matches);
+
+        return entry == null ? null : entry.move;
+    }
+
+    @Nullable
+    private Entry entry(final int hash, final Predicate<byte[]> matches) {
+        final Entry[] table = this.table;
+        final int mask = table.length - 1;
+
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            final Entry entry = table[i];
+
+            if (entry == null || matches.test(entry.move.move())) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Returns the pooled move with the same bytes as {@code move}, the move is pooled if there is no such move.
+     *
+     * @param move The move bytes. Must not be modified after this call.
+     *
+     * @return The pooled move or the new one if the pool is full.
+     */
+    public Move intern(final byte[] move) {
+        final Entry entry = intern(move, null);
+
+        return entry == null ? Move.of(move) : entry.move;
+    }
+
+    /**
+     * @param move The move. Only the move bytes are considered, they must not be modified after this call.
+     *
+     * @return The id of the pooled move or {@code -1} if the pool is full.
+     */
+    @Override
+    public int id(final Move move) {
+        final Entry entry = intern(move.move(), move);
+
+        return entry == null ? -1 : entry.id;
+    }
+
+    @Override
+    public Move move(final int id) {
+        final Move[] moves = this.moves;
+        final Move move = id >= 0 && id < moves.length ? moves[id] : null;
+
+        return move != null ? move : pooled(id);
+    }
+
+    private synchronized Move pooled(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("There is no move with id " + id);
+        }
+
+        return moves[id];
+    }
+
+    @Nullable
+    private Entry intern(final byte[] move, @Nullable final Move candidate) {
+        final int hash = TagPairCache.hash(move);
+        final Entry entry = entry(table, hash, move);
+
+        return entry != null ? entry : add(hash, move, candidate);
+    }
+
+    @Nullable
+    private static Entry entry(final Entry[] table, final int hash, final byte[] move) {
+        final int mask = table.length - 1;
+
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            final Entry entry = table[i];
+
+            if (entry == null || Arrays.equals(entry.move.move(), move)) {
+                return entry;
+            }
+        }
+    }
+
+    @Nullable
+    private synchronized Entry add(final int hash, final byte[] move, @Nullable final Move candidate) {
+        final Entry pooled = entry(table, hash, move);
+
+        if (pooled != null || size == MAXIMUM_SIZE) {
+            return pooled;
+        }
+
+        final Entry created = new Entry(isPlain(candidate) ? candidate : Move.of(move), size);
+
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size << 1);
+        }
+
+        moves[size] = created.move;
+
+        if (++size > table.length >> 1) {
+            final Entry[] grown = new Entry[table.length << 1];
+
+            for (final Entry e : table) {
+                if (e != null) {
+                    put(grown, TagPairCache.hash(e.move.move()), e);
+                }
+            }
+
+            put(grown, hash, created);
+            table = grown;
+        } else {
+            put(table, hash, created);
+        }
+
+        return created;
+    }
+
+    private static boolean isPlain(@Nullable final Move move) {
+        return move != null && move.comment().length == 0 && move.nag().length == 0 && move.variations().isEmpty();
+    }
+
+    private static void put(final Entry[] table, final int hash, final Entry entry) {
+        final int mask = table.length - 1;
+        int i = index(hash, mask);
+
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+
+        table[i] = entry;
+    }
+
+    /**
+     * @return The number of pooled moves.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "MovePool{size=" + size() + '}';
+    }
+
+    /**
+     * The final fields make the entry safely published to the readers probing the table without lock.
+     */
+    private static final class Entry {
+        private final Move move;
+        private final int id;
+
+        private Entry(final Move move, final int id) {
+            this.move = move;
+            this.id = id;
+        }
+    }
+}
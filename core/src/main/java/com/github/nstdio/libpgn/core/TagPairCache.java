@@ -0,0 +1,176 @@
+package com.github.nstdio.libpgn.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import com.github.nstdio.libpgn.entity.TagPair;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * The bounded interning cache of tag pairs. The same events, sites and players occur in many games, so the parsers
+ * sharing the cache share the {@link TagPair} instances instead of allocating them for every game.
+ * <p>
+ * The entries are keyed by the hashes of the raw bytes computed by the lexer, see {@link #hash(byte[])}. The cached
+ * candidate is compared with the source bytes by the caller, so the token is read only on a miss. The least recently
+ * used tag pairs are evicted when the cache is full, the tag names are few and cached separately. The predefined tag
+ * pairs are never evicted.
+ * <p>
+ * This class is thread safe, a single instance is shared by all parsers of the {@link Configuration}.
+ */
+public final class TagPairCache {
+    private final Map<Long, TagPair> predefined;
+    private final ConcurrentLinkedHashMap<Integer, byte[]> tags;
+    private final ConcurrentLinkedHashMap<Long, TagPair> tagPairs;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs the new cache.
+     *
+     * @param maximumSize The maximum number of tag pairs.
+     * @param predefined  The tag pairs kept regardless of the maximum size or {@code null}.
+     *
+     * @throws IllegalArgumentException When {@code maximumSize} is not positive.
+     */
+    public TagPairCache(final int maximumSize, @Nullable final Collection<? extends TagPair> predefined) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive.");
+        }
+
+        tags = new ConcurrentLinkedHashMap.Builder<Integer, byte[]>()
+                .maximumWeightedCapacity(maximumSize)
+                .build();
+        tagPairs = new ConcurrentLinkedHashMap.Builder<Long, TagPair>()
+                .maximumWeightedCapacity(maximumSize)
+                .listener((key, value) -> evictions.increment())
+                .build();
+
+        if (predefined == null || predefined.isEmpty()) {
+            this.predefined = Collections.emptyMap();
+        } else {
+            final Map<Long, TagPair> map = new HashMap<>();
+
+            for (final TagPair tagPair : predefined) {
+                map.put(key(hash(tagPair.getTag()), hash(tagPair.getValue())), tagPair);
+            }
+
+            this.predefined = map;
+        }
+    }
+
+    /**
+     * The hash of the raw bytes, the same as {@link Arrays#hashCode(byte[])}.
+     *
+     * @param bytes The bytes.
+     *
+     * @return The hash.
+     */
+    public static int hash(final byte[] bytes) {
+        return Arrays.hashCode(bytes);
+    }
+
+    private static long key(final int tagHash, final int valueHash) {
+        return ((long) tagHash << 32) | (valueHash & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the cached tag name accepted by {@code matches} or the one produced by {@code reader}.
+     *
+     * @param hash    The hash of the tag name.
+     * @param matches Whether the cached name equals the source bytes.
+     * @param reader  Reads the name from the source on a miss.
+     *
+     * @return The tag name.
+     */
+    public byte[] tag(final int hash, final Predicate<byte[]> matches, final Supplier<byte[]> reader) {
+        final byte[] cached = tags.get(hash);
+
+        if (cached != null && matches.test(cached)) {
+            return cached;
+        }
+
+        final byte[] tag = reader.get();
+        tags.put(hash, tag);
+
+        return tag;
+    }
+
+    /**
+     * Returns the cached tag pair accepted by {@code matches} or the one produced by {@code reader}.
+     *
+     * @param tagHash   The hash of the tag name.
+     * @param valueHash The hash of the tag value.
+     * @param matches   Whether the cached tag pair equals the source bytes.
+     * @param reader    Reads the tag pair from the source on a miss.
+     *
+     * @return The tag pair.
+     */
+    public TagPair tagPair(final int tagHash, final int valueHash, final Predicate<TagPair> matches,
+                           final Supplier<TagPair> reader) {
+        final Long key = key(tagHash, valueHash);
+        TagPair cached = predefined.get(key);
+
+        if (cached == null) {
+            cached = tagPairs.get(key);
+        }
+
+        if (cached != null && matches.test(cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+
+        final TagPair tagPair = reader.get();
+        tagPairs.put(key, tagPair);
+
+        return tagPair;
+    }
+
+    /**
+     * @return The number of tag pairs found in the cache.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of tag pairs read from the source.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of tag pairs evicted from the cache.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of cached tag pairs excluding the predefined ones.
+     */
+    public int size() {
+        return tagPairs.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TagPairCache{" +
+                "size=" + size() + ", " +
+                "hits=" + hits() + ", " +
+                "misses=" + misses() + ", " +
+                "evictions=" + evictions() +
+                '}';
+    }
+}
@@ -0,0 +1,619 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
+import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT;
+import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT_END;
+import static com.github.nstdio.libpgn.core.TokenTypes.DOT;
+import static com.github.nstdio.libpgn.core.TokenTypes.GAMETERM;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_NUMBER;
+import static com.github.nstdio.libpgn.core.TokenTypes.NAG;
+import static com.github.nstdio.libpgn.core.TokenTypes.ROL_COMMENT;
+import static com.github.nstdio.libpgn.core.TokenTypes.SKIP_PREV_MOVE;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_END;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME_VALUE_SEP;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_END;
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+import static com.github.nstdio.libpgn.core.TokenTypes.VARIATION_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.VARIATION_END;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_GAMETERM;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_MOVE_TEXT;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_TAG_PAIR;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_UNDEFINED;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.CLASSES;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_ASTERISK;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_BRACE_CLOSE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_BRACE_OPEN;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_BRACKET_CLOSE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_BRACKET_OPEN;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_DIGIT;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_DOLLAR;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_DOT;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_LETTER;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_NEWLINE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_PAREN_CLOSE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_PAREN_OPEN;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_QUOTE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_SEMICOLON;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_SPACE;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_TAB;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.MOVE_TRANSITIONS;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.SCOPES;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.SCOPE_SKIP;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.TAG_QUOTE_TRANSITIONS;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.TAG_WORD_TRANSITIONS;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import com.github.nstdio.libpgn.core.TokenTypes;
+import com.github.nstdio.libpgn.io.DelimiterScanner;
+
+/**
+ * The lexer state machine. The concrete implementations only provide the primitive operations over the data source,
+ * so the tokenization rules are the same regardless of where the bytes are coming from.
+ * <p>
+ * The decisions are made by the lookup tables from {@link LexerTables}, the whitespace between tokens is handled by
+ * the loop rather than the recursive calls.
+ */
+public abstract class AbstractPgnLexer implements PgnLexer {
+    private static final DelimiterScanner MOVE_END = DelimiterScanner.of(' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*');
+    private static final DelimiterScanner MOVE_NUMBER_END = DelimiterScanner.of(' ', '\r', '\n', '\t', '.', '\0');
+    private static final DelimiterScanner NAG_END = DelimiterScanner.of(' ', '\r', '\n', '\t', '$', '{', '(', ')', '*', '\0');
+    private static final DelimiterScanner CLOSING_BRACE = DelimiterScanner.of('}');
+    private static final DelimiterScanner LINE_FEED = DelimiterScanner.of('\n');
+    private static final DelimiterScanner SPACE = DelimiterScanner.of(' ');
+    private static final DelimiterScanner QUOTE = DelimiterScanner.of('"');
+    private static final DelimiterScanner VARIATION_SKIP = DelimiterScanner.of('{', ';', '(', ')');
+    private static final DelimiterScanner MOVE_TEXT_SKIP = DelimiterScanner.of('{', '}', ';', '(', ')', '*', '-', '/');
+
+    byte scope = SCOPE_UNDEFINED;
+    byte lastToken = UNDEFINED;
+    int tokenLength;
+    int lastRead;
+    int line = 1;
+
+    /**
+     * Reads the next byte from the source.
+     *
+     * @return The next byte.
+     *
+     * @throws EOFException if the source is exhausted.
+     */
+    abstract int readByte() throws IOException;
+
+    /**
+     * Looks at the byte at {@code offset} position from the current without consuming it.
+     *
+     * @param offset The positive offset. {@code 1} means the next byte.
+     *
+     * @return The byte at {@code offset}.
+     *
+     * @throws EOFException if the source is exhausted before the {@code offset}.
+     */
+    abstract int readAhead(int offset) throws IOException;
+
+    /**
+     * Counts the bytes until the first occurrence of any delimiter known to {@code scanner} inclusively without
+     * consuming them.
+     *
+     * @return The number of bytes up to and including the delimiter.
+     *
+     * @throws EOFException if the delimiter was not found.
+     */
+    abstract int until(DelimiterScanner scanner) throws IOException;
+
+    /**
+     * Consumes all the whitespace characters from the current position.
+     */
+    abstract void skipWhiteSpace() throws IOException;
+
+    /**
+     * Consumes the {@code n} bytes. Non positive {@code n} has no effect.
+     */
+    abstract void skipBytes(int n) throws IOException;
+
+    /**
+     * Reads exactly {@code len} bytes into {@code dst}.
+     */
+    abstract void readBytes(byte[] dst, int off, int len) throws IOException;
+
+    /**
+     * Releases the underlying data source.
+     */
+    abstract void closeSource() throws IOException;
+
+    /**
+     * The line number is incremented only when {@literal \n} occurred.
+     *
+     * @return The current line.
+     */
+    public int line() {
+        return line;
+    }
+
+    @Override
+    public byte[] read() {
+        if (tokenLength == -1) {
+            return null;
+        }
+
+        if (tokenLength == 1) {
+            return new byte[]{(byte) lastRead};
+        }
+
+        final byte[] value = new byte[tokenLength];
+        value[0] = (byte) lastRead;
+
+        try {
+            readBytes(value, 1, tokenLength - 1);
+
+            return value;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public byte next() {
+        try {
+            lex();
+        } catch (IOException e) {
+            // If pointer exceeds array length that means that some thing unexpected happens.
+            // We need to set internal state of object "Done".
+            try {
+                terminate();
+            } catch (IOException ignore) {
+
+            }
+        }
+
+        return lastToken;
+    }
+
+    /**
+     * Runs until the token is determined or the lexer is terminated.
+     */
+    private void lex() throws IOException {
+        while (true) {
+            if (scope == SCOPE_UNDEFINED) {
+                determineScope();
+            }
+
+            switch (scope) {
+                case SCOPE_TAG_PAIR:
+                    if (tagPair()) {
+                        return;
+                    }
+                    break;
+                case SCOPE_MOVE_TEXT:
+                    if (moveText()) {
+                        return;
+                    }
+                    break;
+                case SCOPE_GAMETERM:
+                    skipWhiteSpace();
+                    determineScope();
+                    break;
+                default:
+                    terminate();
+                    return;
+            }
+        }
+    }
+
+    private void terminate() throws IOException {
+        lastToken = UNDEFINED;
+        scope = SCOPE_UNDEFINED;
+        tokenLength = -1;
+        closeSource();
+    }
+
+    /**
+     * Determines in witch part of PGN data lexer currently working.
+     *
+     * @see LexicalScope
+     */
+    private void determineScope() throws IOException {
+        determineScope(readAhead(1));
+    }
+
+    private void determineScope(int read) throws IOException {
+        byte next;
+
+        while ((next = SCOPES[read]) == SCOPE_SKIP) {
+            skipWhiteSpace();
+            read = readAhead(1);
+        }
+
+        scope = next;
+    }
+
+    /**
+     * @return {@code false} if the lexing should be continued.
+     */
+    private boolean moveText() throws IOException {
+        lastRead = readByte();
+        final int current = lastRead;
+        final byte byteClass = CLASSES[current];
+
+        if (byteClass == C_ASTERISK) {
+            lastToken = GAMETERM;
+            scope = SCOPE_GAMETERM;
+            tokenLength = 1;
+
+            return true;
+        }
+
+        if ((current == '1' || current == '0') && isResultSeparator(readAhead(1))) {
+            lastToken = GAMETERM;
+            scope = SCOPE_GAMETERM;
+            tokenLength = readAhead(1) != '/' ? 3 : 7;
+
+            return true;
+        }
+
+        if (lastToken == COMMENT_BEGIN && current < 0x80) {
+            lastToken = COMMENT;
+            tokenLength = until(CLOSING_BRACE);
+
+            return true;
+        }
+
+        switch (byteClass) {
+            case C_LETTER:
+                final byte move = MOVE_TRANSITIONS[lastToken];
+
+                if (move != UNDEFINED) {
+                    lastToken = move;
+                    tokenLength = until(MOVE_END);
+                }
+                break;
+            case C_DIGIT:
+                lastToken = MOVE_NUMBER;
+                final int whiteSpace = until(MOVE_NUMBER_END) + 1;
+
+                tokenLength = whiteSpace == 1 ? 1 : whiteSpace - 1;
+                break;
+            case C_DOT:
+                if (readAhead(1) == '.' && readAhead(2) == '.') {
+                    lastToken = SKIP_PREV_MOVE;
+                    tokenLength = 3;
+                } else {
+                    lastToken = DOT;
+                    tokenLength = 1;
+                }
+                break;
+            case C_SPACE:
+            case C_NEWLINE:
+                return false;
+            case C_BRACE_OPEN:
+                lastToken = COMMENT_BEGIN;
+                tokenLength = 1;
+                break;
+            case C_BRACE_CLOSE:
+                lastToken = COMMENT_END;
+                tokenLength = 1;
+                break;
+            case C_SEMICOLON:
+                lastToken = ROL_COMMENT;
+                tokenLength = until(LINE_FEED);
+                break;
+            case C_PAREN_OPEN:
+                lastToken = VARIATION_BEGIN;
+                tokenLength = 1;
+                break;
+            case C_PAREN_CLOSE:
+                lastToken = VARIATION_END;
+                tokenLength = 1;
+                break;
+            case C_DOLLAR:
+                lastToken = NAG;
+                tokenLength = until(NAG_END);
+                break;
+        }
+
+        return true;
+    }
+
+    private static boolean isResultSeparator(final int b) {
+        return b == '-' || b == '/';
+    }
+
+    /**
+     * @return {@code false} if the lexing should be continued.
+     */
+    private boolean tagPair() throws IOException {
+        lastRead = readByte();
+        final int current = lastRead;
+        final byte byteClass = CLASSES[current];
+
+        switch (byteClass) {
+            case C_BRACKET_OPEN:
+                lastToken = TP_BEGIN;
+                tokenLength = 1;
+                break;
+            case C_QUOTE:
+                lastToken = TAG_QUOTE_TRANSITIONS[lastToken];
+                tokenLength = 1;
+                break;
+            case C_BRACKET_CLOSE:
+                lastToken = TP_END;
+                tokenLength = 1;
+                break;
+            case C_SPACE:
+                if (lastToken == TP_NAME) {
+                    lastToken = TP_NAME_VALUE_SEP;
+                    tokenLength = 1;
+                    break;
+                }
+            case C_TAB:
+            case C_NEWLINE:
+                determineScope();
+                return false;
+            default:
+                if (byteClass != C_LETTER && lastToken != TP_VALUE_BEGIN) {
+                    determineScope(current);
+                    return false;
+                }
+
+                lastToken = TAG_WORD_TRANSITIONS[lastToken];
+
+                if (lastToken == TP_NAME) {
+                    determineTokenLength(SPACE, TP_NAME_VALUE_SEP);
+                } else if (lastToken == TP_VALUE) {
+                    determineTokenLength(QUOTE, TP_VALUE_BEGIN, TP_VALUE_END);
+                }
+                break;
+        }
+
+        return true;
+    }
+
+    private void determineTokenLength(DelimiterScanner terminal, byte... expectedTokens) throws IOException {
+        try {
+            tokenLength = until(terminal);
+        } catch (EOFException e) {
+            terminate();
+            throw ExceptionBuilder.unexpectedEOF(this, e, expectedTokens);
+        }
+    }
+
+    @Override
+    public byte last() {
+        return lastToken;
+    }
+
+    @Override
+    public void skip() {
+        wrapChecked(() -> skipBytes(tokenLength - 1));
+    }
+
+    @Override
+    public void close() {
+        wrapChecked(this::terminate);
+    }
+
+    @Override
+    public void poll(final byte terminationToken) {
+        while (lastToken != terminationToken && lastToken != UNDEFINED) {
+            skip();
+            next();
+        }
+    }
+
+    @Override
+    public boolean tokenEquals(final byte[] bytes) {
+        if (tokenLength != bytes.length || tokenLength < 1 || lastRead != (bytes[0] & 0xFF)) {
+            return false;
+        }
+
+        try {
+            for (int i = 1; i < bytes.length; i++) {
+                if (readAhead(i) != (bytes[i] & 0xFF)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int tokenHash() {
+        if (tokenLength < 1) {
+            return 1;
+        }
+
+        int hash = 31 + (byte) lastRead;
+
+        try {
+            for (int i = 1; i < tokenLength; i++) {
+                hash = 31 * hash + (byte) readAhead(i);
+            }
+        } catch (IOException e) {
+            return hash;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Scans the raw bytes up to the game termination marker. Only the comments and the variations are tracked, so the
+     * markers inside of them are not taken, the scan is done by {@link #until(DelimiterScanner)} and does not produce
+     * any tokens. The lexer is left in the same state as if the marker was determined by {@link #next()}.
+     */
+    @Override
+    public void skipMovetext() {
+        if (lastToken == GAMETERM || lastToken == UNDEFINED) {
+            return;
+        }
+
+        try {
+            skipBytes(tokenLength - 1);
+
+            if (lastToken == COMMENT_BEGIN) {
+                skipBytes(until(CLOSING_BRACE));
+            }
+
+            int depth = lastToken == VARIATION_BEGIN ? 1 : 0;
+
+            while (true) {
+                final int n = until(MOVE_TEXT_SKIP);
+                final int delimiter = readAhead(n);
+
+                switch (delimiter) {
+                    case '{':
+                        skipBytes(n);
+                        skipBytes(until(CLOSING_BRACE));
+                        continue;
+                    case ';':
+                        skipBytes(n);
+                        skipBytes(until(LINE_FEED));
+                        continue;
+                    case '(':
+                        depth++;
+                        break;
+                    case ')':
+                        depth = Math.max(depth - 1, 0);
+                        break;
+                    case '*':
+                        if (depth == 0) {
+                            gameTerm(n, 1);
+                            return;
+                        }
+                        break;
+                    case '-':
+                    case '/':
+                        if (depth == 0 && isResult(n, delimiter)) {
+                            gameTerm(n - 1, delimiter == '/' ? 7 : 3);
+                            return;
+                        }
+                        break;
+                }
+
+                skipBytes(n);
+            }
+        } catch (IOException e) {
+            try {
+                terminate();
+            } catch (IOException ignore) {
+
+            }
+        }
+    }
+
+    /**
+     * Scans the raw bytes up to the closing brace.
+     */
+    @Override
+    public void skipComment() {
+        if (lastToken != COMMENT_BEGIN) {
+            return;
+        }
+
+        try {
+            skipBytes(until(CLOSING_BRACE));
+            lastRead = '}';
+            lastToken = COMMENT_END;
+            tokenLength = 1;
+        } catch (IOException e) {
+            try {
+                terminate();
+            } catch (IOException ignore) {
+
+            }
+        }
+    }
+
+    /**
+     * Scans the raw bytes up to the balanced closing parenthesis, the parentheses inside of the comments are not
+     * counted.
+     */
+    @Override
+    public void skipVariation() {
+        if (lastToken != VARIATION_BEGIN) {
+            return;
+        }
+
+        try {
+            int depth = 1;
+
+            while (depth > 0) {
+                final int n = until(VARIATION_SKIP);
+                final int delimiter = readAhead(n);
+                skipBytes(n);
+
+                if (delimiter == '{') {
+                    skipBytes(until(CLOSING_BRACE));
+                } else if (delimiter == ';') {
+                    skipBytes(until(LINE_FEED));
+                } else if (delimiter == '(') {
+                    depth++;
+                } else {
+                    depth--;
+                }
+            }
+
+            lastRead = ')';
+            lastToken = VARIATION_END;
+            tokenLength = 1;
+        } catch (IOException e) {
+            try {
+                terminate();
+            } catch (IOException ignore) {
+
+            }
+        }
+    }
+
+    /**
+     * Whether the separator at {@code offset} is the part of {@code 1-0}, {@code 0-1} or {@code 1/2-1/2} standing as
+     * the separate token.
+     */
+    private boolean isResult(final int offset, final int separator) throws IOException {
+        if (offset < 2) {
+            return false;
+        }
+
+        final int before = readAhead(offset - 1);
+        final int after = readAhead(offset + 1);
+        final boolean result = separator == '/'
+                ? before == '1' && after == '2'
+                : (before == '1' && after == '0') || (before == '0' && after == '1');
+
+        if (!result || offset == 2) {
+            return result;
+        }
+
+        final byte byteClass = CLASSES[readAhead(offset - 2)];
+
+        return byteClass != C_DIGIT && byteClass != C_LETTER;
+    }
+
+    /**
+     * Consumes the first byte of the game termination marker starting at {@code offset}.
+     */
+    private void gameTerm(final int offset, final int length) throws IOException {
+        skipBytes(offset - 1);
+        lastRead = readByte();
+        lastToken = GAMETERM;
+        scope = SCOPE_GAMETERM;
+        tokenLength = length;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "lastToken=" + TokenTypes.descOf(lastToken) + ", " +
+                "scope=" + LexicalScope.descOf(scope) + ", " +
+                "lastRead=" + (char) lastRead +
+                '}';
+    }
+}
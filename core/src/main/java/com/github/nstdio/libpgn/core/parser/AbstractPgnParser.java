@@ -1,6 +1,8 @@
 package com.github.nstdio.libpgn.core.parser;
 
 import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFilter;
+import com.github.nstdio.libpgn.entity.CompactGame;
 import com.github.nstdio.libpgn.entity.Game;
 import com.github.nstdio.libpgn.core.exception.PgnException;
 import com.github.nstdio.libpgn.entity.Move;
@@ -10,6 +12,7 @@ import com.github.nstdio.libpgn.entity.TagPair;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.github.nstdio.libpgn.core.TokenTypes.*;
@@ -20,6 +23,7 @@ public abstract class AbstractPgnParser extends AbstractParser {
     private final Parser<Result> resultParser;
     private final InputParser<List<MoveText>, Byte> moveTextSequenceParser;
     private final Parser<byte[]> commentParser;
+    private final CompactMovetextParser compactMovetextParser;
 
     /**
      * Exception bag.
@@ -37,9 +41,10 @@ public abstract class AbstractPgnParser extends AbstractParser {
 
         final VariationParser variation = new VariationParser(lexer, config);
         final InputParser<Move, Byte> moveParser = new MoveParser(lexer, config, nagParser, commentParser, variation);
-        final Parser<MoveText> movetextParser = new MovetextParser(lexer, config, moveParser);
+        final MovetextParser movetextParser = new MovetextParser(lexer, config, moveParser);
         moveTextSequenceParser = new MoveTextSequenceParser(lexer, config, movetextParser);
         variation.setMovetextSequenceParser(moveTextSequenceParser);
+        compactMovetextParser = config.compactGames() ? new CompactMovetextParser(lexer, config, movetextParser) : null;
     }
 
     AbstractPgnParser(final PgnLexer lexer, final Configuration config,
@@ -52,44 +57,160 @@ public abstract class AbstractPgnParser extends AbstractParser {
         this.resultParser = resultParser;
         this.moveTextSequenceParser = moveTextSequenceParser;
         this.commentParser = commentParser;
+        this.compactMovetextParser = null;
     }
 
+    /**
+     * The source range of the last game returned by {@link #next()}, see {@link PgnLexer#position()}.
+     */
+    private long gameStart = -1;
+    private long gameEnd = -1;
+    private long precedingEnd;
+    private long parsedEnd;
+    private int returned;
+
+    /**
+     * Parses the next game accepted by {@link Configuration#gameFilter()}, the rejected games are skipped. The lexer
+     * is closed as soon as the {@link Configuration#gameLimit()} game is parsed, so the source and the decompression
+     * threads are released without waiting for the stream to be closed.
+     *
+     * @return The game or {@code null} if there are no more games or the limit is reached.
+     */
     public Game next() {
-        if (lexer.next() == UNDEFINED) {
-            return null;
+        Game game;
+
+        do {
+            precedingEnd = parsedEnd;
+
+            if (limitReached() || lexer.next() == UNDEFINED) {
+                gameStart = gameEnd = -1;
+                return null;
+            }
+
+            final long position = lexer.position();
+            gameStart = position == -1 ? -1 : position - 1;
+
+            game = parseGame();
+            gameEnd = parsedEnd = lexer.position();
+        } while (game == null);
+
+        if (++returned == config.gameLimit()) {
+            lexer.close();
         }
 
+        return game;
+    }
+
+    /**
+     * @return Whether {@link Configuration#gameLimit()} games are returned by {@link #next()}, the rest of the source
+     * is not parsed.
+     */
+    public boolean limitReached() {
+        return returned >= config.gameLimit();
+    }
+
+    /**
+     * @return The game or {@code null} if it is rejected by the filter.
+     */
+    private Game parseGame() {
         switch (lexer.last()) {
             case TP_BEGIN:
-                return new Game(
-                        tagPairParser.parse(),
-                        moveTextSequenceParser.parse(GAMETERM),
-                        resultParser.parse()
-                );
+                final List<TagPair> tagPairs = tagPairParser.parse();
+
+                if (tagPairs != null && !testTagPairs(tagPairs)) {
+                    lexer.skipMovetext();
+                    resultParser.parse();
+
+                    return null;
+                }
+
+                return game(tagPairs, null);
 
             case MOVE_NUMBER:
-                return new Game(
-                        null,
-                        moveTextSequenceParser.parse(GAMETERM),
-                        resultParser.parse()
-                );
+                return testTagPairs(Collections.emptyList()) ? game(null, null) : skipGame();
             case COMMENT_BEGIN:
+                if (!testTagPairs(Collections.emptyList())) {
+                    return skipGame();
+                }
+
                 final byte[] comment = commentParser.parse();
 
                 // preparation for move parser
                 lexer.next();
 
-                return new Game(
-                        null,
-                        comment,
-                        moveTextSequenceParser.parse(GAMETERM),
-                        resultParser.parse()
-                );
+                return game(null, comment);
             default:
                 throw syntaxException(lexer, lexer.last(), TP_BEGIN, MOVE_NUMBER, COMMENT_BEGIN);
         }
     }
 
+    private Game game(final List<TagPair> tagPairs, final byte[] comment) {
+        if (compactMovetextParser != null) {
+            return compactGame(tagPairs, comment);
+        }
+
+        final List<MoveText> moves = moveTextSequenceParser.parse(GAMETERM);
+        final GameFilter filter = config.gameFilter();
+
+        if (filter != null && !config.skipMovetext() && !filter.testMoveText(moves)) {
+            resultParser.parse();
+
+            return null;
+        }
+
+        return new Game(tagPairs, comment, moves, resultParser.parse());
+    }
+
+    private Game compactGame(final List<TagPair> tagPairs, final byte[] comment) {
+        final CompactGame.Builder builder = compactMovetextParser.parse(GAMETERM);
+        final List<MoveText> moves = compactMovetextParser.moves();
+
+        if (moves != null && !config.skipMovetext() && !config.gameFilter().testMoveText(moves)) {
+            resultParser.parse();
+            return null;
+        }
+
+        return builder.build(tagPairs, comment, resultParser.parse());
+    }
+
+    private Game skipGame() {
+        lexer.skipMovetext();
+        resultParser.parse();
+
+        return null;
+    }
+
+    private boolean testTagPairs(final List<TagPair> tagPairs) {
+        final GameFilter filter = config.gameFilter();
+
+        return filter == null || config.skipTagPairSection() || filter.test(tagPairs);
+    }
+
+    /**
+     * @return The source offset of the first byte of the last game returned by {@link #next()} or {@code -1} if the
+     * lexer does not track positions.
+     */
+    public long gameStart() {
+        return gameStart;
+    }
+
+    /**
+     * @return The source offset following the game termination marker of the last game returned by {@link #next()} or
+     * {@code -1} if the lexer does not track positions.
+     */
+    public long gameEnd() {
+        return gameEnd;
+    }
+
+    /**
+     * @return The source offset following the game termination marker of the game parsed right before the last game
+     * returned by {@link #next()}, the games rejected by the filter are counted as well. {@code 0} for the first game,
+     * meaningless if the lexer does not track positions.
+     */
+    public long precedingEnd() {
+        return precedingEnd;
+    }
+
     public boolean hasExceptions() {
         return !exceptions.isEmpty();
     }
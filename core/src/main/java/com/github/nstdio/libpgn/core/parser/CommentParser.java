@@ -31,6 +31,15 @@ class CommentParser extends AbstractParser implements Parser<byte[]> {
 
     @Override
     public byte[] tryParse() {
+        if (config.skipComment()) {
+            while (lexer.last() == COMMENT_BEGIN) {
+                lexer.skipComment();
+                lexer.next();
+            }
+
+            return null;
+        }
+
         byte[] comment = null;
         if (lexer.last() == COMMENT_BEGIN) {
             comment = parse();
@@ -45,6 +54,6 @@ class CommentParser extends AbstractParser implements Parser<byte[]> {
             return Arrays.copyOf(comment, config.commentMaxLength());
         }
 
-        return config.skipComment() ? null : comment;
+        return comment;
     }
 }
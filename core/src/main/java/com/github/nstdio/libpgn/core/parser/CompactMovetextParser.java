@@ -0,0 +1,69 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFilter;
+import com.github.nstdio.libpgn.entity.CompactGame;
+import com.github.nstdio.libpgn.entity.MoveText;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parses the mainline right into {@link CompactGame.Builder}, the {@link com.github.nstdio.libpgn.entity.MoveText}
+ * objects are never created unless the configured {@link GameFilter} has to test the movetext. The builder is
+ * reused for every game of the parser.
+ */
+class CompactMovetextParser extends AbstractParser implements InputParser<CompactGame.Builder, Byte> {
+    private final MovetextParser movetextParser;
+    private final CompactGame.Builder builder;
+    private final MovetextParser.Sink<CompactGame.Builder> sink;
+    private final List<MoveText> moves;
+
+    CompactMovetextParser(final PgnLexer lexer, final Configuration config, final MovetextParser movetextParser) {
+        super(lexer, config);
+        this.movetextParser = Objects.requireNonNull(movetextParser);
+        this.builder = CompactGame.builder(Objects.requireNonNull(config.movePool()));
+
+        final GameFilter filter = config.gameFilter();
+
+        if (filter != null && filter.filtersMoveText()) {
+            moves = new ArrayList<>();
+            sink = (moveNo, white, black) -> {
+                moves.add(MoveText.of(moveNo, white, black));
+                return builder.add(moveNo, white, black);
+            };
+        } else {
+            moves = null;
+            sink = builder::add;
+        }
+    }
+
+    /**
+     * @return The mainline of the last parsed game, {@code null} when the movetext filter is not configured.
+     */
+    List<MoveText> moves() {
+        return moves;
+    }
+
+    @Override
+    public CompactGame.Builder parse(Byte termToken) {
+        builder.clear();
+
+        if (moves != null) {
+            moves.clear();
+        }
+
+        if (config.skipMovetext()) {
+            lexer.skipMovetext();
+
+            return builder;
+        }
+
+        while (lexer.last() != termToken) {
+            movetextParser.parse(sink);
+        }
+
+        return builder;
+    }
+}
@@ -1,32 +1,5 @@
 package com.github.nstdio.libpgn.core.parser;
 
-import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
-import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT;
-import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT_BEGIN;
-import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT_END;
-import static com.github.nstdio.libpgn.core.TokenTypes.DOT;
-import static com.github.nstdio.libpgn.core.TokenTypes.GAMETERM;
-import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_BLACK;
-import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_NUMBER;
-import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_WHITE;
-import static com.github.nstdio.libpgn.core.TokenTypes.NAG;
-import static com.github.nstdio.libpgn.core.TokenTypes.ROL_COMMENT;
-import static com.github.nstdio.libpgn.core.TokenTypes.SKIP_PREV_MOVE;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_BEGIN;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_END;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME_VALUE_SEP;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_BEGIN;
-import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_END;
-import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
-import static com.github.nstdio.libpgn.core.TokenTypes.VARIATION_BEGIN;
-import static com.github.nstdio.libpgn.core.TokenTypes.VARIATION_END;
-import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_GAMETERM;
-import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_MOVE_TEXT;
-import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_TAG_PAIR;
-import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_UNDEFINED;
-
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.File;
@@ -35,17 +8,12 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.util.Objects;
 
-import com.github.nstdio.libpgn.core.TokenTypes;
+import com.github.nstdio.libpgn.io.DelimiterScanner;
 import com.github.nstdio.libpgn.io.PgnInputStream;
 import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
 
-public class InputStreamPgnLexer implements PgnLexer {
+public class InputStreamPgnLexer extends AbstractPgnLexer {
     private final PgnInputStream in;
-    private byte scope = SCOPE_UNDEFINED;
-    private byte lastToken = UNDEFINED;
-    private int tokenLength;
-    private int lastRead;
-    private int line;
 
     /**
      * Constructs the new lexer instance with provided input stream.
@@ -54,7 +22,6 @@ public class InputStreamPgnLexer implements PgnLexer {
      */
     public InputStreamPgnLexer(final PgnInputStream in) {
         this.in = Objects.requireNonNull(in);
-        line = 1;
     }
 
     /**
@@ -72,6 +39,28 @@ public class InputStreamPgnLexer implements PgnLexer {
         return new InputStreamPgnLexer(PgnInputStreamFactory.of(file));
     }
 
+    /**
+     * Constructs the new lexer with file as data source. When {@code memoryMapped} is {@code true} and the file is a
+     * plain {@code .pgn} file the {@link MappedPgnLexer} will be used, so the stream stack is avoided completely.
+     *
+     * @param file         The data source.
+     * @param memoryMapped Whether plain PGN files should be mapped into memory.
+     *
+     * @return The newly created lexer instance.
+     *
+     * @throws NullPointerException if {@code file} is null.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public static PgnLexer of(final File file, final boolean memoryMapped) {
+        Objects.requireNonNull(file);
+
+        if (memoryMapped && MappedPgnLexer.canMap(file)) {
+            return MappedPgnLexer.of(file);
+        }
+
+        return of(file);
+    }
+
     /**
      * Constructs new lexer with input stream as data source.
      *
@@ -101,314 +90,56 @@ public class InputStreamPgnLexer implements PgnLexer {
     }
 
     /**
-     * The line number is incremented only when {@literal \n} occurred.
-     *
-     * @return The current line.
+     * @return The number of bytes consumed from the input stream.
      */
-    public int line() {
-        return line;
-    }
-
     @Override
-    public byte[] read() {
-        if (tokenLength == -1) {
-            return null;
-        }
-
-        if (tokenLength == 1) {
-            return new byte[]{(byte) lastRead};
-        }
-
-        final byte[] value = new byte[tokenLength];
-        value[0] = (byte) lastRead;
-
-        try {
-            in.read(value, 1, tokenLength - 1);
-
-            return value;
-        } catch (IOException e) {
-            return null;
-        }
+    public long position() {
+        return in.position();
     }
 
     @Override
-    public byte next() {
-        try {
-            if (scope == SCOPE_UNDEFINED) {
-                determineScope();
-            }
-
-            switch (scope) {
-                case SCOPE_TAG_PAIR:
-                    tagPair();
-                    break;
-                case SCOPE_MOVE_TEXT:
-                    moveText();
-                    break;
-                case SCOPE_GAMETERM:
-                    in.skipWhiteSpace();
-                    determineScope();
-                    next();
-                    break;
-                case SCOPE_UNDEFINED:
-                    terminate();
-                    break;
-            }
-        } catch (IOException e) {
-            // If pointer exceeds array length that means that some thing unexpected happens.
-            // We need to set internal state of object "Done".
-            try {
-                terminate();
-            } catch (IOException ignore) {
-
-            }
-        }
-
-        return lastToken;
+    int readByte() throws IOException {
+        return in.read();
     }
 
-    private void terminate() throws IOException {
-        lastToken = UNDEFINED;
-        scope = SCOPE_UNDEFINED;
-        tokenLength = -1;
-        in.close();
-    }
-
-    /**
-     * Determines in witch part of PGN data lexer currently working.
-     *
-     * @see LexicalScope
-     */
-    private void determineScope() throws IOException {
-        determineScope(in.readAhead(1));
-    }
-
-    private void determineScope(final int read) throws IOException {
-        switch (read) {
-            case ' ':
-            case '\n':
-            case '\t':
-            case '\r':
-                in.skipWhiteSpace();
-                determineScope();
-                break;
-            case '[':
-                scope = SCOPE_TAG_PAIR;
-                break;
-            case '{': // the game comment
-                scope = SCOPE_MOVE_TEXT;
-                break;
-            default:
-                scope = Character.isLetterOrDigit(read) ? SCOPE_MOVE_TEXT : SCOPE_UNDEFINED;
-                break;
-        }
-    }
-
-    private void moveText() throws IOException {
-        lastRead = in.read();
-        final int current = lastRead;
-
-        if (((current == '1' || current == '0') && (in.readAhead(1) == '-' || in.readAhead(1) == '/'))
-                || current == '*') {
-            lastToken = GAMETERM;
-            scope = SCOPE_GAMETERM;
-
-            if (current == '*') {
-                tokenLength = 1;
-            } else if (in.readAhead(1) != '/') {
-                tokenLength = 3;
-            } else {
-                tokenLength = 7;
-            }
-        } else if (lastToken == COMMENT_BEGIN && Character.isDefined((int) (byte) current)) {
-            lastToken = COMMENT;
-            tokenLength = in.until('}');
-        } else if (Character.isLetter((byte) current)) {
-            switch (lastToken) {
-                case DOT:
-                case UNDEFINED:
-                case MOVE_BLACK:
-                    lastToken = MOVE_WHITE;
-                    tokenLength = in.until(' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*');
-                    break;
-                case MOVE_WHITE:
-                case COMMENT_END:
-                case VARIATION_END:
-                case NAG:
-                case SKIP_PREV_MOVE:
-                case ROL_COMMENT:
-                    lastToken = MOVE_BLACK;
-                    tokenLength = in.until(' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*');
-                    break;
-            }
-        } else {
-            switch (current) {
-                case '0':
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                    lastToken = MOVE_NUMBER;
-                    final int whiteSpace = in.until(' ', '\r', '\n', '\t', '.', '\0', '\0', '\0', '\0', '\0') + 1;
-
-                    tokenLength = whiteSpace == 1 ? 1 : whiteSpace - 1;
-                    break;
-                case '.':
-                    if (in.readAhead(1) == '.' && in.readAhead(2) == '.') {
-                        lastToken = SKIP_PREV_MOVE;
-                        tokenLength = 3;
-                    } else {
-                        lastToken = DOT;
-                        tokenLength = 1;
-                    }
-
-                    break;
-                case ' ':
-                    next();
-                    break;
-                case '{':
-                    lastToken = COMMENT_BEGIN;
-                    tokenLength = 1;
-                    break;
-                case '}':
-                    lastToken = COMMENT_END;
-                    tokenLength = 1;
-                    break;
-                case ';':
-                    lastToken = ROL_COMMENT;
-                    tokenLength = in.until('\n');
-                    break;
-                case '(':
-                    lastToken = VARIATION_BEGIN;
-                    tokenLength = 1;
-                    break;
-                case ')':
-                    lastToken = VARIATION_END;
-                    tokenLength = 1;
-                    break;
-                case '$':
-                    lastToken = NAG;
-                    tokenLength = in.until(' ', '\r', '\n', '\t', '$', '{', '(', ')', '*', '\0');
-                    break;
-                case '\n':
-                    next();
-                    break;
-                case '\r':
-                    next();
-                    break;
-            }
-        }
-    }
-
-    private void tagPair() throws IOException {
-        lastRead = in.read();
-        final int current = lastRead;
-
-        switch (current) {
-            case '[':
-                lastToken = TP_BEGIN;
-                tokenLength = 1;
-                break;
-            case '"':
-                switch (lastToken) {
-                    case TP_VALUE:
-                    case TP_VALUE_BEGIN:
-                        lastToken = TP_VALUE_END;
-                        tokenLength = 1;
-                        break;
-                    default:
-                        lastToken = TP_VALUE_BEGIN;
-                        tokenLength = 1;
-                        break;
-                }
-                break;
-            case ']':
-                lastToken = TP_END;
-                tokenLength = 1;
-                break;
-            case ' ':
-                if (lastToken == TP_NAME) {
-                    lastToken = TP_NAME_VALUE_SEP;
-                    tokenLength = 1;
-                    break;
-                }
-            case '\t':
-            case '\n':
-            case '\r':
-                determineScope();
-                next();
-                break;
-            default:
-                if (Character.isLetter((byte) lastRead) || (Character.isDefined(lastRead) && lastToken == TP_VALUE_BEGIN)) {
-                    switch (lastToken) {
-                        case TP_BEGIN:
-                            lastToken = TP_NAME;
-                            determineTokenLength(' ', TP_NAME_VALUE_SEP);
-                            break;
-                        case TP_VALUE_BEGIN:
-                        case TP_NAME_VALUE_SEP: // The opening quote is missing.
-                            lastToken = TP_VALUE;
-                            determineTokenLength('"', TP_VALUE_BEGIN, TP_VALUE_END);
-                            break;
-                        default:
-                            lastToken = UNDEFINED;
-                            break;
-                    }
-                } else {
-                    determineScope(lastRead);
-                    next();
-                }
-                break;
-        }
+    @Override
+    int readAhead(final int offset) throws IOException {
+        return in.readAhead(offset);
     }
 
-    private void determineTokenLength(int terminal, byte... expectedTokens) throws IOException {
-        try {
-            tokenLength = in.until(terminal);
-        } catch (EOFException e) {
-            terminate();
-            throw ExceptionBuilder.unexpectedEOF(this, e, expectedTokens);
-        }
+    @Override
+    int until(final DelimiterScanner scanner) throws IOException {
+        return in.until(scanner);
     }
 
     @Override
-    public byte last() {
-        return lastToken;
+    void skipWhiteSpace() throws IOException {
+        in.skipWhiteSpace();
     }
 
     @Override
     @SuppressWarnings("ResultOfMethodCallIgnored")
-    public void skip() {
-        wrapChecked(() -> {
-            // to avoid boxing
-            in.skip(tokenLength - 1);
-        });
+    void skipBytes(final int n) throws IOException {
+        // to avoid boxing
+        in.skip(n);
     }
 
     @Override
-    public void close() {
-        wrapChecked(this::terminate);
-    }
+    void readBytes(final byte[] dst, int off, int len) throws IOException {
+        while (len > 0) {
+            final int n = in.read(dst, off, len);
 
-    @Override
-    public void poll(final byte terminationToken) {
-        while (lastToken != terminationToken && lastToken != UNDEFINED) {
-            skip();
-            next();
+            if (n == -1) {
+                throw new EOFException();
+            }
+
+            off += n;
+            len -= n;
         }
     }
 
     @Override
-    public String toString() {
-        return "InputStreamPgnLexer{" +
-                "lastToken=" + TokenTypes.descOf(lastToken) + ", " +
-                "scope=" + LexicalScope.descOf(scope) + ", " +
-                "lastRead=" + (char) lastRead +
-                '}';
+    void closeSource() throws IOException {
+        in.close();
     }
 }
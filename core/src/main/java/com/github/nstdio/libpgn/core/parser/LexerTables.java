@@ -0,0 +1,143 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.core.TokenTypes.COMMENT_END;
+import static com.github.nstdio.libpgn.core.TokenTypes.DOT;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_BLACK;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_WHITE;
+import static com.github.nstdio.libpgn.core.TokenTypes.NAG;
+import static com.github.nstdio.libpgn.core.TokenTypes.NAG_LITERAL;
+import static com.github.nstdio.libpgn.core.TokenTypes.ROL_COMMENT;
+import static com.github.nstdio.libpgn.core.TokenTypes.SKIP_PREV_MOVE;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_NAME_VALUE_SEP;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_BEGIN;
+import static com.github.nstdio.libpgn.core.TokenTypes.TP_VALUE_END;
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+import static com.github.nstdio.libpgn.core.TokenTypes.VARIATION_END;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_MOVE_TEXT;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_TAG_PAIR;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_UNDEFINED;
+
+import java.util.Arrays;
+
+/**
+ * The lookup tables driving the lexer. Every input byte is mapped to its class once, and the next token is chosen by the
+ * class, the current scope and the last token, so there are no {@code Character} lookups during lexing.
+ */
+final class LexerTables {
+    static final byte C_OTHER = 0;
+    static final byte C_SPACE = 1;
+    static final byte C_TAB = 2;
+    static final byte C_NEWLINE = 3;
+    static final byte C_LETTER = 4;
+    static final byte C_DIGIT = 5;
+    static final byte C_DOT = 6;
+    static final byte C_ASTERISK = 7;
+    static final byte C_BRACE_OPEN = 8;
+    static final byte C_BRACE_CLOSE = 9;
+    static final byte C_PAREN_OPEN = 10;
+    static final byte C_PAREN_CLOSE = 11;
+    static final byte C_DOLLAR = 12;
+    static final byte C_SEMICOLON = 13;
+    static final byte C_BRACKET_OPEN = 14;
+    static final byte C_BRACKET_CLOSE = 15;
+    static final byte C_QUOTE = 16;
+
+    /**
+     * The number of token types, all of them are in {@code [0, NAG_LITERAL]} range.
+     */
+    private static final int TOKEN_TYPES = NAG_LITERAL + 1;
+
+    /**
+     * The pseudo scope meaning that whitespace should be skipped before the scope can be determined.
+     */
+    static final byte SCOPE_SKIP = Byte.MIN_VALUE;
+
+    /**
+     * The class of every byte.
+     */
+    static final byte[] CLASSES = new byte[256];
+
+    /**
+     * The scope that begins with the byte.
+     */
+    static final byte[] SCOPES = new byte[256];
+
+    /**
+     * The move token following the last token in movetext scope. {@link com.github.nstdio.libpgn.core.TokenTypes#UNDEFINED}
+     * means that the letter is not expected and the last token stays as is.
+     */
+    static final byte[] MOVE_TRANSITIONS = new byte[TOKEN_TYPES];
+
+    /**
+     * The token following the last token when word begins in tag pair scope.
+     */
+    static final byte[] TAG_WORD_TRANSITIONS = new byte[TOKEN_TYPES];
+
+    /**
+     * The token following the last token when the quote occurred in tag pair scope.
+     */
+    static final byte[] TAG_QUOTE_TRANSITIONS = new byte[TOKEN_TYPES];
+
+    static {
+        for (int b = 'a'; b <= 'z'; b++) {
+            CLASSES[b] = C_LETTER;
+            CLASSES[Character.toUpperCase(b)] = C_LETTER;
+        }
+
+        for (int b = '0'; b <= '9'; b++) {
+            CLASSES[b] = C_DIGIT;
+        }
+
+        CLASSES[' '] = C_SPACE;
+        CLASSES['\t'] = C_TAB;
+        CLASSES['\n'] = C_NEWLINE;
+        CLASSES['\r'] = C_NEWLINE;
+        CLASSES['.'] = C_DOT;
+        CLASSES['*'] = C_ASTERISK;
+        CLASSES['{'] = C_BRACE_OPEN;
+        CLASSES['}'] = C_BRACE_CLOSE;
+        CLASSES['('] = C_PAREN_OPEN;
+        CLASSES[')'] = C_PAREN_CLOSE;
+        CLASSES['$'] = C_DOLLAR;
+        CLASSES[';'] = C_SEMICOLON;
+        CLASSES['['] = C_BRACKET_OPEN;
+        CLASSES[']'] = C_BRACKET_CLOSE;
+        CLASSES['"'] = C_QUOTE;
+
+        // The movetext can begin with Latin-1 letter as well.
+        for (int b = 0; b < SCOPES.length; b++) {
+            SCOPES[b] = Character.isLetterOrDigit(b) ? SCOPE_MOVE_TEXT : SCOPE_UNDEFINED;
+        }
+
+        SCOPES[' '] = SCOPE_SKIP;
+        SCOPES['\n'] = SCOPE_SKIP;
+        SCOPES['\t'] = SCOPE_SKIP;
+        SCOPES['\r'] = SCOPE_SKIP;
+        SCOPES['['] = SCOPE_TAG_PAIR;
+        SCOPES['{'] = SCOPE_MOVE_TEXT;
+
+        MOVE_TRANSITIONS[DOT] = MOVE_WHITE;
+        MOVE_TRANSITIONS[UNDEFINED] = MOVE_WHITE;
+        MOVE_TRANSITIONS[MOVE_BLACK] = MOVE_WHITE;
+        MOVE_TRANSITIONS[MOVE_WHITE] = MOVE_BLACK;
+        MOVE_TRANSITIONS[COMMENT_END] = MOVE_BLACK;
+        MOVE_TRANSITIONS[VARIATION_END] = MOVE_BLACK;
+        MOVE_TRANSITIONS[NAG] = MOVE_BLACK;
+        MOVE_TRANSITIONS[SKIP_PREV_MOVE] = MOVE_BLACK;
+        MOVE_TRANSITIONS[ROL_COMMENT] = MOVE_BLACK;
+
+        TAG_WORD_TRANSITIONS[TP_BEGIN] = TP_NAME;
+        TAG_WORD_TRANSITIONS[TP_VALUE_BEGIN] = TP_VALUE;
+        TAG_WORD_TRANSITIONS[TP_NAME_VALUE_SEP] = TP_VALUE; // The opening quote is missing.
+
+        Arrays.fill(TAG_QUOTE_TRANSITIONS, TP_VALUE_BEGIN);
+        TAG_QUOTE_TRANSITIONS[TP_VALUE] = TP_VALUE_END;
+        TAG_QUOTE_TRANSITIONS[TP_VALUE_BEGIN] = TP_VALUE_END;
+    }
+
+    private LexerTables() {
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import com.github.nstdio.libpgn.io.DelimiterScanner;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+/**
+ * The lexer working directly on memory mapped file. In contrast to {@link InputStreamPgnLexer} there are no
+ * intermediate streams, every lookahead is just an index access and {@link #readView()} returns the slice of the
+ * mapped file instead of copying the token.
+ * <p>
+ * The lexer can be restricted to the byte range of the file, this way several lexers can work on different parts of
+ * the same file.
+ */
+public class MappedPgnLexer extends AbstractPgnLexer {
+    private final MappedFile file;
+    private final long limit;
+    private long position;
+
+    /**
+     * Constructs the new lexer working on {@code [start, end)} range of the {@code file}.
+     *
+     * @param file  The mapped file.
+     * @param start The position of the first byte (inclusive).
+     * @param end   The position of the last byte (exclusive).
+     *
+     * @throws IllegalArgumentException if the range is not within the file.
+     */
+    public MappedPgnLexer(final MappedFile file, final long start, final long end) {
+        this.file = Objects.requireNonNull(file);
+
+        if (start < 0 || start > end || end > file.size()) {
+            throw new IllegalArgumentException(String.format("Invalid range [%d, %d) for file of size %d.", start, end, file.size()));
+        }
+
+        this.position = start;
+        this.limit = end;
+    }
+
+    /**
+     * Constructs the new lexer working on the whole {@code file}.
+     *
+     * @param file The mapped file.
+     */
+    public MappedPgnLexer(final MappedFile file) {
+        this(file, 0, file.size());
+    }
+
+    /**
+     * Maps the file into memory and constructs the new lexer.
+     *
+     * @param file The plain PGN file.
+     *
+     * @return The newly created lexer instance.
+     *
+     * @throws NullPointerException if {@code file} is null.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public static MappedPgnLexer of(final File file) {
+        Objects.requireNonNull(file);
+        return new MappedPgnLexer(wrapChecked(() -> MappedFile.map(file.toPath())));
+    }
+
+    /**
+     * Only uncompressed PGN files can be mapped.
+     *
+     * @param file The file to check.
+     *
+     * @return Whether the file can be used as the source for this lexer.
+     */
+    public static boolean canMap(final File file) {
+        return file.getName().endsWith(".pgn");
+    }
+
+    /**
+     * @return The absolute position in the file of the next byte to read.
+     */
+    @Override
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Zero-copy version of the {@link #read()}.
+     *
+     * @return The read-only view of the last token in the mapped file or {@code null} if lexer is in "Done" state.
+     */
+    @Override
+    public ByteBuffer readView() {
+        if (tokenLength == -1) {
+            return null;
+        }
+
+        try {
+            final ByteBuffer view = file.slice(position - 1, tokenLength);
+            position += tokenLength - 1;
+
+            return view;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    int readByte() throws IOException {
+        if (position >= limit) {
+            throw new EOFException();
+        }
+
+        return file.get(position++) & 0xFF;
+    }
+
+    @Override
+    int readAhead(final int offset) throws IOException {
+        if (offset <= 0) {
+            throw new IllegalArgumentException("offset must be positive.");
+        }
+
+        final long at = position + offset - 1;
+
+        if (at >= limit) {
+            throw new EOFException();
+        }
+
+        return file.get(at) & 0xFF;
+    }
+
+    @Override
+    int until(final DelimiterScanner scanner) throws IOException {
+        final long index = file.indexOf(scanner, position, limit);
+
+        if (index == -1) {
+            throw new EOFException();
+        }
+
+        return (int) (index - position + 1);
+    }
+
+    @Override
+    void skipWhiteSpace() {
+        while (position < limit) {
+            switch (file.get(position)) {
+                case ' ':
+                case '\r':
+                case '\n':
+                case '\t':
+                case '\0':
+                    position++;
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    @Override
+    void skipBytes(final int n) {
+        if (n > 0) {
+            position = Math.min(position + n, limit);
+        }
+    }
+
+    @Override
+    void readBytes(final byte[] dst, final int off, final int len) throws IOException {
+        if (position + len > limit) {
+            throw new EOFException();
+        }
+
+        file.get(position, dst, off, len);
+        position += len;
+    }
+
+    @Override
+    void closeSource() {
+        position = limit;
+    }
+}
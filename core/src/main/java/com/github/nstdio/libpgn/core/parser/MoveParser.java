@@ -1,14 +1,17 @@
 package com.github.nstdio.libpgn.core.parser;
 
 import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.MovePool;
 import com.github.nstdio.libpgn.core.NAG;
 import com.github.nstdio.libpgn.common.ArrayUtils;
+import com.github.nstdio.libpgn.common.CollectionUtils;
 import com.github.nstdio.libpgn.common.Pair;
 import com.github.nstdio.libpgn.entity.Move;
 import com.github.nstdio.libpgn.entity.MoveText;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 class MoveParser extends AbstractParser implements InputParser<Move, Byte> {
 
@@ -17,6 +20,8 @@ class MoveParser extends AbstractParser implements InputParser<Move, Byte> {
     private final Parser<byte[]> commentParser;
     private final Parser<List<MoveText>> variationParser;
     private final InlineNag inlineNag;
+    private final MovePool movePool;
+    private final Predicate<byte[]> tokenMatches;
 
     MoveParser(final PgnLexer lexer, final Configuration config, final InputParser<short[], short[]> nagParser,
                final Parser<byte[]> comment, final Parser<List<MoveText>> variation) {
@@ -32,13 +37,25 @@ class MoveParser extends AbstractParser implements InputParser<Move, Byte> {
         this.commentParser = Objects.requireNonNull(comment);
         this.variationParser = Objects.requireNonNull(variation);
         this.inlineNag = Objects.requireNonNull(inlineNag);
+        this.movePool = config.movePool();
+        this.tokenMatches = lexer::tokenEquals;
     }
 
     @Override
     public Move parse(Byte input) {
         lastNotEqThrow(input);
         short[] nags = null;
-        byte[] move = readBytes();
+        final Move pooled = movePool != null && !config.extractLiteralNags()
+                ? movePool.find(lexer.tokenHash(), tokenMatches)
+                : null;
+        byte[] move;
+
+        if (pooled != null) {
+            move = pooled.move();
+            lexer.skip();
+        } else {
+            move = readBytes();
+        }
 
         if (config.extractLiteralNags()) {
             final Pair<byte[], short[]> pair = inlineNag.split(move);
@@ -67,6 +84,11 @@ class MoveParser extends AbstractParser implements InputParser<Move, Byte> {
             }
         }
 
+        if (movePool != null && ArrayUtils.isEmptyOrNull(comment) && ArrayUtils.isEmptyOrNull(nags)
+                && CollectionUtils.isEmpty(variation)) {
+            return pooled != null ? pooled : movePool.intern(move);
+        }
+
         return Move.of(move, comment, nags, variation);
     }
 }
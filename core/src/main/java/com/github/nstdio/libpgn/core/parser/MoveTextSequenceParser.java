@@ -21,7 +21,7 @@ class MoveTextSequenceParser extends AbstractParser implements InputParser<List<
     @Override
     public List<MoveText> parse(Byte termToken) {
         if (config.skipMovetext()) {
-            lexer.poll(TokenTypes.GAMETERM);
+            lexer.skipMovetext();
 
             return Collections.emptyList();
         }
@@ -19,6 +19,17 @@ class MovetextParser extends AbstractParser implements Parser<MoveText> {
 
     @Override
     public MoveText parse() {
+        return parse(MoveText::of);
+    }
+
+    /**
+     * Parses the movetext element without creating the {@link MoveText}.
+     *
+     * @param sink Receives the parsed element.
+     *
+     * @return The result of the {@code sink}.
+     */
+    <T> T parse(final Sink<T> sink) {
         lastNotEqThrow(MOVE_NUMBER);
         final String moveNumber = read();
         Move black = null, white = null;
@@ -55,7 +66,7 @@ class MovetextParser extends AbstractParser implements Parser<MoveText> {
             black = moveInputParser.parse(MOVE_BLACK);
         }
 
-        return MoveText.of(Integer.parseInt(moveNumber), white, black);
+        return sink.accept(Integer.parseInt(moveNumber), white, black);
     }
 
     @Nullable
@@ -63,4 +74,9 @@ class MovetextParser extends AbstractParser implements Parser<MoveText> {
     public MoveText tryParse() {
         throw new UnsupportedOperationException();
     }
+
+    @FunctionalInterface
+    interface Sink<T> {
+        T accept(int moveNo, @Nullable Move white, @Nullable Move black);
+    }
 }
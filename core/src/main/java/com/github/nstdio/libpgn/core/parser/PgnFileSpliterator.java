@@ -0,0 +1,109 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.GameBoundaryScanner;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+/**
+ * The spliterator over the byte range of the mapped PGN file. The range is split at the middle moved forward to the
+ * nearest game start, and every part is parsed by its own lexer and parser, so the parallel stream over the single
+ * file scales with the number of cores.
+ * <p>
+ * The splitting is possible only until the traversal is started.
+ */
+public class PgnFileSpliterator implements Spliterator<Game> {
+    /**
+     * The ranges smaller than this are not split.
+     */
+    static final long MIN_SPLIT_SIZE = 1 << 16;
+
+    private final MappedFile file;
+    private final GameBoundaryScanner boundaries;
+    private final Configuration config;
+    private final long minSplitSize;
+    private long start;
+    private final long end;
+    private MappedPgnLexer lexer;
+    private PgnParser parser;
+
+    /**
+     * Constructs the spliterator over the whole file.
+     *
+     * @param file   The mapped file.
+     * @param config The parser configuration.
+     */
+    public PgnFileSpliterator(final MappedFile file, final Configuration config) {
+        this(file, config, 0, file.size(), MIN_SPLIT_SIZE);
+    }
+
+    PgnFileSpliterator(final MappedFile file, final Configuration config, final long start, final long end,
+                       final long minSplitSize) {
+        this(file, new GameBoundaryScanner(file), config, start, end, minSplitSize);
+    }
+
+    private PgnFileSpliterator(final MappedFile file, final GameBoundaryScanner boundaries, final Configuration config,
+                               final long start, final long end, final long minSplitSize) {
+        this.file = Objects.requireNonNull(file);
+        this.boundaries = boundaries;
+        this.config = Objects.requireNonNull(config);
+        this.start = start;
+        this.end = end;
+        this.minSplitSize = minSplitSize;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Game> action) {
+        Objects.requireNonNull(action);
+
+        if (parser == null) {
+            lexer = new MappedPgnLexer(file, start, end);
+            parser = new PgnParser(lexer, config);
+        }
+
+        final Game game = parser.next();
+
+        if (game == null) {
+            return false;
+        }
+
+        action.accept(game);
+
+        return true;
+    }
+
+    @Override
+    public Spliterator<Game> trySplit() {
+        if (parser != null || end - start < minSplitSize) {
+            return null;
+        }
+
+        final long cut = boundaries.next(start + (end - start) / 2, end);
+
+        if (cut >= end) {
+            return null;
+        }
+
+        final PgnFileSpliterator prefix = new PgnFileSpliterator(file, boundaries, config, start, cut, minSplitSize);
+        start = cut;
+
+        return prefix;
+    }
+
+    /**
+     * @return The number of remaining bytes, not games.
+     */
+    @Override
+    public long estimateSize() {
+        return lexer == null ? end - start : end - lexer.position();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.nstdio.libpgn.core.parser;
 
+import java.nio.ByteBuffer;
+
 import com.github.nstdio.libpgn.core.TokenTypes;
 
 /**
@@ -27,6 +29,18 @@ public interface PgnLexer extends AutoCloseable {
      */
     byte[] read();
 
+    /**
+     * Extracts the data as a read-only view. The implementations backed by memory may return the slice of the
+     * underlying storage avoiding any copies, the default implementation wraps the result of {@link #read()}.
+     *
+     * @return The view of the last token or {@code null} if lexer is in "Done" state.
+     */
+    default ByteBuffer readView() {
+        final byte[] read = read();
+
+        return read == null ? null : ByteBuffer.wrap(read).asReadOnlyBuffer();
+    }
+
     /**
      * The last determined token. If lexer not initialized or in "Done" state {@link TokenTypes#UNDEFINED} will be
      * returned.
@@ -50,6 +64,85 @@ public interface PgnLexer extends AutoCloseable {
      */
     void poll(byte terminationToken);
 
+    /**
+     * Compares the last token with {@code bytes} without allocation where possible. The implementations reading the
+     * source sequentially leave the token unconsumed, so it still can be read or skipped. The default implementation
+     * compares {@link #readView()}.
+     *
+     * @param bytes The expected token content.
+     *
+     * @return Whether the last token consists of exactly {@code bytes}.
+     */
+    default boolean tokenEquals(final byte[] bytes) {
+        final ByteBuffer view = readView();
+
+        return view != null && view.equals(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Computes the hash of the last token bytes without allocation where possible, the token is left unconsumed as by
+     * {@link #tokenEquals(byte[])}. The default implementation hashes {@link #readView()}.
+     *
+     * @return The hash equal to {@link java.util.Arrays#hashCode(byte[])} of the token bytes.
+     */
+    default int tokenHash() {
+        final ByteBuffer view = readView();
+        int hash = 1;
+
+        while (view != null && view.hasRemaining()) {
+            hash = 31 * hash + view.get();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Skips the movetext up to the game termination marker. In result of method invocation {@code last() ==
+     * TokenTypes.GAMETERM || last() == TokenTypes.UNDEFINED} condition will be {@code true}. The default
+     * implementation polls the tokens, the implementations may scan the raw bytes instead.
+     */
+    default void skipMovetext() {
+        poll(TokenTypes.GAMETERM);
+    }
+
+    /**
+     * Skips the comment when {@code last() == TokenTypes.COMMENT_BEGIN}. The lexer is left on the closing {@link
+     * TokenTypes#COMMENT_END} as if the comment was read token by token.
+     */
+    default void skipComment() {
+        poll(TokenTypes.COMMENT_END);
+    }
+
+    /**
+     * Skips the variation including the nested ones when {@code last() == TokenTypes.VARIATION_BEGIN}. The lexer is
+     * left on the balanced {@link TokenTypes#VARIATION_END} as if the variation was read token by token.
+     */
+    default void skipVariation() {
+        int depth = 1;
+
+        while (depth > 0 && last() != TokenTypes.UNDEFINED) {
+            skip();
+
+            final byte token = next();
+
+            if (token == TokenTypes.VARIATION_BEGIN) {
+                depth++;
+            } else if (token == TokenTypes.VARIATION_END) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * The offset of the next byte to read from the source. The first byte of the token determined by {@link #next()} is
+     * already consumed, the rest of it is consumed by {@link #read()} or {@link #skip()}.
+     *
+     * @return The offset or {@code -1} if the lexer does not track it.
+     */
+    default long position() {
+        return -1;
+    }
+
     /**
      * Closes all underlying resources. After this method invocation any subsequent interaction with this object may
      * throw an exception.
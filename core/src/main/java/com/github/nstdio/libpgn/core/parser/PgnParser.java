@@ -72,6 +72,6 @@ public class PgnParser extends AbstractPgnParser implements Iterable<Game> {
 
     @Override
     public Spliterator<Game> spliterator() {
-        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.IMMUTABLE & Spliterator.NONNULL);
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED);
     }
 }
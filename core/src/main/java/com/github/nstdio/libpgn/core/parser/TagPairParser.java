@@ -2,18 +2,58 @@ package com.github.nstdio.libpgn.core.parser;
 
 import com.github.nstdio.libpgn.core.Configuration;
 import com.github.nstdio.libpgn.common.ArrayUtils;
+import com.github.nstdio.libpgn.core.TagPairCache;
 import com.github.nstdio.libpgn.entity.TagPair;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static com.github.nstdio.libpgn.core.TokenTypes.*;
 import static com.github.nstdio.libpgn.core.parser.ExceptionBuilder.syntaxException;
 
 class TagPairParser extends AbstractParser implements Parser<List<TagPair>> {
+    /**
+     * The names of the tag pairs to keep or {@code null} to keep all.
+     */
+    private final byte[][] projection;
+
+    /**
+     * The shared cache or {@code null} if tag pairs are not cached.
+     */
+    private final TagPairCache cache;
+
+    /**
+     * The cache callbacks are created once, so the lookups do not allocate. The token is read by the callbacks only
+     * on a cache miss.
+     */
+    private final Predicate<byte[]> tokenMatches;
+    private final Supplier<byte[]> tokenReader;
+    private final Predicate<TagPair> tagPairMatches;
+    private final Supplier<TagPair> tagPairReader;
+    private byte[] currentTag;
+    private boolean tokenRead;
 
     TagPairParser(final PgnLexer lexer, final Configuration config) {
         super(lexer, config);
+
+        final Set<String> tags = config.tagProjection();
+        projection = tags == null ? null : tags.stream()
+                .map(tag -> tag.getBytes(StandardCharsets.US_ASCII))
+                .toArray(byte[][]::new);
+
+        cache = config.tagPairCache();
+        tokenMatches = lexer::tokenEquals;
+        tokenReader = () -> {
+            tokenRead = true;
+            return readBytes();
+        };
+        tagPairMatches = tagPair -> Arrays.equals(tagPair.getTag(), currentTag) && lexer.tokenEquals(tagPair.getValue());
+        tagPairReader = () -> TagPair.of(currentTag, tokenReader.get());
     }
 
     @Override
@@ -27,28 +67,44 @@ class TagPairParser extends AbstractParser implements Parser<List<TagPair>> {
         final List<TagPair> section = new ArrayList<>(10);
 
         while (lexer.last() == TP_BEGIN) {
-            section.add(parseTagPair());
+            final TagPair tagPair = parseTagPair();
+
+            if (tagPair != null) {
+                section.add(tagPair);
+            }
         }
 
         return section;
     }
 
+    /**
+     * @return The tag pair or {@code null} if it is not projected.
+     */
     private TagPair parseTagPair() {
         nextNotEqThrow(TP_NAME);
 
-        final byte[] tag = readBytes();
-        final byte[] value;
+        final boolean keep = isProjected();
+        final int tagHash = keep && cache != null ? lexer.tokenHash() : 0;
+        final byte[] tag = keep ? readTag(tagHash) : skipToken();
+        TagPair tagPair = null;
 
         nextNotEqThrow(TP_NAME_VALUE_SEP);
         nextNotEqThrow(TP_VALUE_BEGIN);
 
         if (lexer.next() == TP_VALUE) {
-            value = readBytes();
+            if (keep) {
+                tagPair = readTagPair(tag, tagHash);
+            } else {
+                lexer.skip();
+            }
 
             nextNotEqThrow(TP_VALUE_END);
             nextNotEqThrow(TP_END);
         } else if (lexer.last() == TP_VALUE_END) {
-            value = ArrayUtils.EMPTY_BYTE_ARRAY;
+            if (keep) {
+                tagPair = TagPair.of(tag, ArrayUtils.EMPTY_BYTE_ARRAY);
+            }
+
             nextNotEqThrow(TP_END);
         } else {
             throw syntaxException(lexer, lexer.last(), TP_VALUE, TP_VALUE_END);
@@ -56,7 +112,64 @@ class TagPairParser extends AbstractParser implements Parser<List<TagPair>> {
 
         lexer.next();
 
-        return TagPair.of(tag, value);
+        return tagPair;
+    }
+
+    private byte[] readTag(final int tagHash) {
+        if (cache == null) {
+            return readBytes();
+        }
+
+        tokenRead = false;
+        final byte[] tag = cache.tag(tagHash, tokenMatches, tokenReader);
+        skipUnread();
+
+        return tag;
+    }
+
+    private TagPair readTagPair(final byte[] tag, final int tagHash) {
+        if (cache == null) {
+            return TagPair.of(tag, readBytes());
+        }
+
+        currentTag = tag;
+        tokenRead = false;
+        final TagPair tagPair = cache.tagPair(tagHash, lexer.tokenHash(), tagPairMatches, tagPairReader);
+        skipUnread();
+
+        return tagPair;
+    }
+
+    /**
+     * Skips the token found in the cache.
+     */
+    private void skipUnread() {
+        if (!tokenRead) {
+            lexer.skip();
+        }
+    }
+
+    private boolean isProjected() {
+        if (projection == null) {
+            return true;
+        }
+
+        for (final byte[] tag : projection) {
+            if (lexer.tokenEquals(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return Always {@code null}, the token is skipped.
+     */
+    private byte[] skipToken() {
+        lexer.skip();
+
+        return null;
     }
 
     @Override
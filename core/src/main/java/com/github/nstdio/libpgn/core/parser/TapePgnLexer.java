@@ -0,0 +1,216 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.nstdio.libpgn.core.TokenTypes;
+import com.github.nstdio.libpgn.io.GameBoundaryScanner;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+/**
+ * The lexer replaying {@link TokenTape}s. The file is cut into chunks at the game boundaries and the tapes for the next
+ * chunks are built in the background while the current one is consumed, so the lexing is spread over several cores
+ * and the parser thread only walks over the arrays.
+ * <p>
+ * Only a bounded number of tapes is kept in memory at any time.
+ */
+public class TapePgnLexer implements PgnLexer {
+    /**
+     * The approximate size of the chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private final MappedFile file;
+    private final GameBoundaryScanner boundaries;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Deque<CompletableFuture<TokenTape>> pending;
+
+    /**
+     * The start of the next chunk to submit.
+     */
+    private long submitted;
+    private TokenTape tape;
+    private int index = -1;
+    private byte last = UNDEFINED;
+
+    /**
+     * Constructs the new lexer.
+     *
+     * @param file        The mapped file.
+     * @param chunkSize   The approximate size of the chunk, the actual chunk ends at the next game start.
+     * @param parallelism The maximum number of tapes built ahead.
+     *
+     * @throws IllegalArgumentException if {@code chunkSize} or {@code parallelism} is not positive.
+     */
+    public TapePgnLexer(final MappedFile file, final int chunkSize, final int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("chunkSize and parallelism must be positive.");
+        }
+
+        this.file = Objects.requireNonNull(file);
+        this.boundaries = new GameBoundaryScanner(file);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.pending = new ArrayDeque<>(parallelism);
+
+        fillPending();
+    }
+
+    /**
+     * Constructs the new lexer with default chunk size and parallelism of the common pool.
+     *
+     * @param file The mapped file.
+     */
+    public TapePgnLexer(final MappedFile file) {
+        this(file, DEFAULT_CHUNK_SIZE, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Maps the file into memory and constructs the new lexer.
+     *
+     * @param file The plain PGN file.
+     *
+     * @return The newly created lexer instance.
+     *
+     * @throws NullPointerException if {@code file} is null.
+     * @throws UncheckedIOException if an I/O error occurs.
+     */
+    public static TapePgnLexer of(final File file) {
+        Objects.requireNonNull(file);
+        return new TapePgnLexer(wrapChecked(() -> MappedFile.map(file.toPath())));
+    }
+
+    private void fillPending() {
+        final long size = file.size();
+
+        while (pending.size() < parallelism && submitted < size) {
+            final long start = submitted;
+            final long end = boundaries.next(Math.min(start + chunkSize, size), size);
+
+            pending.add(CompletableFuture.supplyAsync(() -> TokenTape.build(file, start, end)));
+            submitted = end;
+        }
+    }
+
+    @Override
+    public byte next() {
+        if (tape != null && ++index < tape.size()) {
+            return last = tape.type(index);
+        }
+
+        while (!pending.isEmpty()) {
+            tape = await(pending.poll());
+            index = 0;
+            fillPending();
+
+            if (tape.size() > 0) {
+                return last = tape.type(index);
+            }
+        }
+
+        tape = null;
+        return last = UNDEFINED;
+    }
+
+    private static TokenTape await(final CompletableFuture<TokenTape> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Syntax errors should look the same as when the lexer is used directly.
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public byte[] read() {
+        return last == UNDEFINED ? null : tape.read(index);
+    }
+
+    @Override
+    public ByteBuffer readView() {
+        return last == UNDEFINED ? null : tape.view(index);
+    }
+
+    @Override
+    public boolean tokenEquals(final byte[] bytes) {
+        if (last == UNDEFINED || tape.length(index) != bytes.length) {
+            return false;
+        }
+
+        final long offset = tape.offset(index);
+
+        for (int i = 0; i < bytes.length; i++) {
+            if (file.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int tokenHash() {
+        if (last == UNDEFINED) {
+            return 1;
+        }
+
+        final long offset = tape.offset(index);
+        final int length = tape.length(index);
+        int hash = 1;
+
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + file.get(offset + i);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public byte last() {
+        return last;
+    }
+
+    @Override
+    public void skip() {
+        // The tokens are consumed by the next() call.
+    }
+
+    @Override
+    public void poll(final byte terminationToken) {
+        while (last != terminationToken && last != UNDEFINED) {
+            next();
+        }
+    }
+
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        submitted = file.size();
+        tape = null;
+        last = UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "TapePgnLexer{" +
+                "lastToken=" + TokenTypes.descOf(last) + ", " +
+                "index=" + index +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.github.nstdio.libpgn.io.MappedFile;
+
+/**
+ * The result of the structural pass over the range of the file: every token is stored as its type, offset and length,
+ * so the parsers can walk over the plain arrays instead of running the lexer state machine. The token bytes are not
+ * copied, they are read from the file on demand.
+ * <p>
+ * The tapes for the different ranges are independent and can be built concurrently as long as every range begins at
+ * the game start.
+ */
+public final class TokenTape {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final MappedFile file;
+    private final long start;
+
+    /**
+     * The offset relative to {@link #start} in the high 32 bits and the length in the low 32 bits.
+     */
+    private long[] entries;
+    private byte[] types;
+    private int size;
+
+    private TokenTape(final MappedFile file, final long start, final int capacity) {
+        this.file = file;
+        this.start = start;
+        this.entries = new long[capacity];
+        this.types = new byte[capacity];
+    }
+
+    /**
+     * Tokenizes the {@code [start, end)} range of the file.
+     *
+     * @param file  The file.
+     * @param start The position of the first byte (inclusive). Should be the game start.
+     * @param end   The position of the last byte (exclusive).
+     *
+     * @return The tape.
+     *
+     * @throws IllegalArgumentException if the range is not within the file or is larger than 4 GB.
+     */
+    public static TokenTape build(final MappedFile file, final long start, final long end) {
+        Objects.requireNonNull(file);
+
+        if (end - start > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException(String.format("Range [%d, %d) is too large.", start, end));
+        }
+
+        final MappedPgnLexer lexer = new MappedPgnLexer(file, start, end);
+        // The token is 4 bytes long on average.
+        final int capacity = (int) Math.max(INITIAL_CAPACITY, Math.min((end - start) >>> 2, Integer.MAX_VALUE - 8));
+        final TokenTape tape = new TokenTape(file, start, capacity);
+
+        for (byte token = lexer.next(); token != UNDEFINED; token = lexer.next()) {
+            tape.add(token, lexer.position() - 1 - start, lexer.tokenLength);
+            lexer.skip();
+        }
+
+        return tape;
+    }
+
+    private void add(final byte type, final long offset, final int length) {
+        if (size == types.length) {
+            final int capacity = size + (size >>> 1);
+            entries = Arrays.copyOf(entries, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+
+        entries[size] = offset << 32 | length;
+        types[size] = type;
+        size++;
+    }
+
+    /**
+     * @return The number of tokens.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The token index.
+     *
+     * @return The token type, one of {@link com.github.nstdio.libpgn.core.TokenTypes} constants.
+     */
+    public byte type(final int index) {
+        return types[index];
+    }
+
+    /**
+     * @param index The token index.
+     *
+     * @return The absolute position of the token in the file.
+     */
+    public long offset(final int index) {
+        return start + (entries[index] >>> 32);
+    }
+
+    /**
+     * @param index The token index.
+     *
+     * @return The token length in bytes.
+     */
+    public int length(final int index) {
+        return (int) entries[index];
+    }
+
+    /**
+     * Copies the token bytes.
+     *
+     * @param index The token index.
+     *
+     * @return The token bytes.
+     */
+    public byte[] read(final int index) {
+        final byte[] value = new byte[length(index)];
+
+        try {
+            file.get(offset(index), value, 0, value.length);
+        } catch (EOFException e) {
+            // Cannot happen, the token was read from the same file.
+            throw new IllegalStateException(e);
+        }
+
+        return value;
+    }
+
+    /**
+     * Creates the view of the token bytes without copying.
+     *
+     * @param index The token index.
+     *
+     * @return The read-only view of the token.
+     */
+    public ByteBuffer view(final int index) {
+        try {
+            return file.slice(offset(index), length(index));
+        } catch (EOFException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -37,11 +37,20 @@ class VariationParser extends AbstractParser implements Parser<List<MoveText>> {
     @Nullable
     @Override
     public List<MoveText> tryParse() {
+        if (config.skipVariations()) {
+            if (lexer.last() == VARIATION_BEGIN) {
+                lexer.skipVariation();
+                lexer.next();
+            }
+
+            return null;
+        }
+
         List<MoveText> variation = null;
         if (lexer.last() == VARIATION_BEGIN) {
             variation = parse();
             lexer.next();
         }
-        return config.skipVariations() ? null : variation;
+        return variation;
     }
 }
@@ -5,4 +5,5 @@ module com.github.nstdio.libpgn.parser {
     requires com.github.nstdio.libpgn.entity;
     requires com.github.nstdio.libpgn.common;
     requires com.github.nstdio.libpgn.io;
+    requires concurrentlinkedhashmap.lru;
 }
\ No newline at end of file
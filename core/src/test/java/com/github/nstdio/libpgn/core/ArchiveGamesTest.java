@@ -0,0 +1,91 @@
+package com.github.nstdio.libpgn.core;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.entity.Game;
+
+class ArchiveGamesTest {
+    private Path zip;
+
+    private static File resourceFile(final String resourceName) {
+        return new File(ArchiveGamesTest.class.getResource(resourceName).getFile());
+    }
+
+    private static List<String> games(final Stream<Game> stream) {
+        try (stream) {
+            return stream.map(Game::toString).collect(toList());
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        zip = Files.createTempFile("archive", ".zip");
+
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("2019/"));
+
+            for (int month = 1; month <= 12; month++) {
+                out.putNextEntry(new ZipEntry(String.format("2019/%02d.pgn", month)));
+
+                for (int game = 0; game < month; game++) {
+                    out.write(String.format("[Event \"%d.%d\"]\n\n1. e4 e5 1-0\n\n", month, game).getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(zip);
+    }
+
+    @Test
+    void zipEntriesInOrder() {
+        final Map<String, List<Game>> entries = GameFactory.fromArchive(zip.toFile(), Configuration.defaultConfiguration(), 4);
+
+        assertThat(entries).hasSize(12);
+        assertThat(entries.keySet()).startsWith("2019/01.pgn", "2019/02.pgn").endsWith("2019/12.pgn");
+        assertThat(entries.get("2019/07.pgn")).hasSize(7);
+
+        final List<String> merged = games(GameFactory.streamArchive(zip.toFile(), Configuration.defaultConfiguration(), 3));
+
+        assertThat(merged).hasSize(78);
+        assertThat(merged).isEqualTo(entries.values().stream().flatMap(List::stream).map(Game::toString).collect(toList()));
+    }
+
+    @Test
+    void tarEntries() {
+        final List<String> expected = games(GameFactory.stream(resourceFile("/compress/uncompressed_2.pgn")));
+
+        assertThat(games(GameFactory.streamArchive(resourceFile("/compress/two_games.tar.xz"), Configuration.defaultConfiguration(), 2)))
+                .isEqualTo(expected);
+        assertThat(GameFactory.fromArchive(resourceFile("/compress/single_game.tar.gz"), Configuration.defaultConfiguration(), 2))
+                .hasSize(1);
+    }
+
+    @Test
+    void notAnArchive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> GameFactory.streamArchive(resourceFile("/compress/uncompressed_2.pgn"), Configuration.defaultConfiguration(), 2));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> GameFactory.fromArchive(zip.toFile(), Configuration.defaultConfiguration(), 0));
+    }
+}
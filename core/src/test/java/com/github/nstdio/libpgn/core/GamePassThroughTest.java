@@ -0,0 +1,151 @@
+package com.github.nstdio.libpgn.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.entity.Game;
+
+class GamePassThroughTest {
+    private static final String FIRST = "\n[Event \"A\"]\n[WhiteElo \"2600\"]\n\n1.e4   e5 {kept  as is} 1-0";
+    private static final String SECOND = "\r\n\r\n[Event \"B\"]\n[WhiteElo \"2100\"]\n\n1. d4 d5 0-1";
+    private static final String THIRD = "\n\n[Event \"C\"]\n[WhiteElo \"2700\"]\n\n1. c4 (1. Nf3) 1/2-1/2";
+    private static final String FOURTH = "\n\n[Event \"D\"]\n[WhiteElo \"2800\"]\n\n1. f4 *";
+    private static final String TAIL = "\n\n";
+    private static final String SOURCE = FIRST + SECOND + THIRD + FOURTH + TAIL;
+
+    private static final Predicate<Game> STRONG = game -> game.tagPairSection().stream()
+            .anyMatch(tagPair -> "WhiteElo".equals(tagPair.getTagAsString())
+                    && Integer.parseInt(tagPair.getValueAsString()) > 2500);
+
+    private Path source;
+    private Path target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = Files.createTempFile("pass-through", ".pgn");
+        target = Files.createTempFile("pass-through", ".out");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+    }
+
+    @Test
+    void copiesOriginalBytesOfFile() throws IOException {
+        Files.write(source, SOURCE.getBytes(StandardCharsets.US_ASCII));
+
+        try (final FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            assertThat(GamePassThrough.copy(source.toFile(), Configuration.defaultConfiguration(), STRONG, out))
+                    .isEqualTo(3);
+        }
+
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.US_ASCII))
+                .isEqualTo(FIRST + THIRD + FOURTH + TAIL);
+    }
+
+    @Test
+    void skipsGamesRejectedByParser() throws IOException {
+        Files.write(source, SOURCE.getBytes(StandardCharsets.US_ASCII));
+
+        final Configuration config = Configuration.defaultBuilder()
+                .gameFilter()
+                .tagPairFilter(tagPairs -> STRONG.test(new Game(tagPairs, null, null)))
+                .build();
+        final Predicate<Game> notThird = game -> !"C".equals(game.tagPairSection().get(0).getValueAsString());
+
+        try (final FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            assertThat(GamePassThrough.copy(source.toFile(), config, notThird, out)).isEqualTo(2);
+        }
+
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.US_ASCII)).isEqualTo(FIRST + FOURTH + TAIL);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(GamePassThrough.copy(new ByteArrayInputStream(SOURCE.getBytes(StandardCharsets.US_ASCII)),
+                config, game -> true, out)).isEqualTo(3);
+        assertThat(new String(out.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(FIRST + THIRD + FOURTH + TAIL);
+    }
+
+    @Test
+    void copiesOriginalBytesOfStream() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Predicate<Game> first = game -> "A".equals(game.tagPairSection().get(0).getValueAsString());
+
+        assertThat(GamePassThrough.copy(new ByteArrayInputStream(SOURCE.getBytes(StandardCharsets.US_ASCII)),
+                Configuration.defaultConfiguration(), STRONG.negate().or(first), out)).isEqualTo(2);
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(FIRST + SECOND);
+    }
+
+    @Test
+    void copiesLargeStream() {
+        final String source = (FIRST + SECOND + THIRD + FOURTH).repeat(5000) + TAIL;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(GamePassThrough.copy(new ByteArrayInputStream(source.getBytes(StandardCharsets.US_ASCII)),
+                Configuration.defaultConfiguration(), game -> true, out)).isEqualTo(20000);
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(source);
+    }
+
+    @Test
+    void copiesDecompressedBytes() throws IOException {
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(source))) {
+            out.write(SOURCE.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        try (final FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            assertThat(GamePassThrough.copy(source.toFile(), Configuration.defaultConfiguration(), game -> true, out))
+                    .isEqualTo(4);
+        }
+
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.US_ASCII)).isEqualTo(SOURCE);
+    }
+
+    @Test
+    void stalledTargetIsReported() throws IOException {
+        Files.write(source, SOURCE.getBytes(StandardCharsets.US_ASCII));
+
+        final WritableByteChannel stalled = new WritableByteChannel() {
+            @Override
+            public int write(final ByteBuffer src) {
+                return 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThatExceptionOfType(UncheckedIOException.class)
+                .isThrownBy(() -> GamePassThrough.copy(source.toFile(), Configuration.defaultConfiguration(), STRONG, stalled))
+                .withCauseInstanceOf(EOFException.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.nstdio.libpgn.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+class GameRouterTest {
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2"};
+    private static final int GAMES = 6000;
+
+    private Path dir;
+    private Path source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("router");
+        source = dir.resolve("source.pgn");
+
+        final StringBuilder pgn = new StringBuilder();
+
+        for (int i = 0; i < GAMES; i++) {
+            final String result = RESULTS[i % RESULTS.length];
+            pgn.append(String.format("[Event \"%d\"]%n[Result \"%s\"]%n%n1. e4 e5 2. Nf3 %s%n%n", i, result, result));
+        }
+
+        Files.write(source, pgn.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static String tag(final Game game, final String name) {
+        return game.tagPairSection().stream()
+                .filter(tagPair -> name.equals(tagPair.getTagAsString()))
+                .map(TagPair::getValueAsString)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<Game> games(final String name) {
+        try (final Stream<Game> games = GameFactory.stream(dir.resolve(name).toFile())) {
+            return games.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void routesByKeyWithSingleOpenFile() throws IOException {
+        try (final GameRouter router = GameRouter.byKey(dir, game -> "1-0".equals(tag(game, "Result")) ? null
+                : tag(game, "Result").replace('/', '_') + ".pgn", 1)) {
+            assertThat(router.route(source.toFile(), Configuration.defaultConfiguration())).isEqualTo(GAMES * 2 / 3);
+        }
+
+        assertThat(dir.resolve("1-0.pgn")).doesNotExist();
+
+        final List<Game> blackWins = games("0-1.pgn");
+        final List<Game> draws = games("1_2-1_2.pgn");
+
+        assertThat(blackWins).hasSize(GAMES / 3).allMatch(game -> "0-1".equals(tag(game, "Result")));
+        assertThat(draws).hasSize(GAMES / 3).allMatch(game -> "1/2-1/2".equals(tag(game, "Result")));
+        assertThat(blackWins.stream().map(game -> Integer.parseInt(tag(game, "Event"))))
+                .isSorted()
+                .allMatch(event -> event % 3 == 1);
+    }
+
+    @Test
+    void routesToEveryMatchingOutput() throws IOException {
+        final Map<String, Predicate<Game>> outputs = new LinkedHashMap<>();
+        outputs.put("decisive.pgn", game -> !"1/2-1/2".equals(tag(game, "Result")));
+        outputs.put("all.pgn", game -> true);
+
+        try (final GameRouter router = GameRouter.byPredicates(dir, outputs, GameRouter.DEFAULT_MAX_OPEN_FILES)) {
+            assertThat(router.route(source.toFile(), Configuration.defaultConfiguration())).isEqualTo(GAMES);
+        }
+
+        assertThat(games("decisive.pgn")).hasSize(GAMES * 2 / 3);
+        assertThat(games("all.pgn")).hasSize(GAMES);
+    }
+
+    @Test
+    void createsNestedDirectories() throws IOException {
+        try (final GameRouter router = GameRouter.byKey(dir, game -> tag(game, "Result") + ".pgn")) {
+            assertThat(router.route(source.toFile(), Configuration.defaultConfiguration())).isEqualTo(GAMES);
+        }
+
+        assertThat(games("1/2-1/2.pgn")).hasSize(GAMES / 3);
+        assertThat(games("1-0.pgn")).hasSize(GAMES / 3);
+    }
+
+    @Test
+    void rejectsRoutesOutsideOfDirectory() throws IOException {
+        try (final GameRouter router = GameRouter.byKey(dir.resolve("out"), game -> "../escaped.pgn")) {
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> router.route(source.toFile(), Configuration.defaultConfiguration()));
+        }
+
+        assertThat(dir.resolve("escaped.pgn")).doesNotExist();
+    }
+
+    @Test
+    void closesFilesWhenWritingFails() throws IOException {
+        Files.createDirectory(dir.resolve("taken"));
+
+        final GameRouter router = GameRouter.byKey(dir, game -> "1-0".equals(tag(game, "Result")) ? "taken" : "other.pgn");
+        router.route(source.toFile(), Configuration.defaultConfiguration());
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(router::close);
+        assertThat(games("other.pgn")).hasSize(GAMES * 2 / 3);
+    }
+}
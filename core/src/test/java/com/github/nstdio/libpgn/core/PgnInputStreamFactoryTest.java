@@ -1,19 +1,28 @@
 package com.github.nstdio.libpgn.core;
 
 import static com.github.nstdio.libpgn.core.assertj.Assertions.assertThatLexer;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.zip.ZipException;
 
 import javax.annotation.Nonnull;
 
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
+import com.github.nstdio.libpgn.io.PgnFormatProvider;
 import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
 
 // TODO rewrite in @ParameterizedTest way.
@@ -80,6 +89,78 @@ public class PgnInputStreamFactoryTest {
         assertSameTokenStream("/compress/uncompressed_1.pgn", "/compress/uncompressed_1.pgn");
     }
 
+    @Test
+    void twoGames_TAR_XZ_readAhead() {
+        try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(PgnInputStreamFactory.of(resourceFile("/compress/two_games.tar.xz"), 16, true));
+             final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_2.pgn"))) {
+            assertThatLexer(actual).producesSameTokensAs(expected);
+        }
+    }
+
+    @Test
+    void parallelDecompression() {
+        try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(PgnInputStreamFactory.of(resourceFile("/compress/two_games.tar.xz"), 16, false, 2));
+             final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_2.pgn"))) {
+            assertThatLexer(actual).producesSameTokensAs(expected);
+        }
+
+        try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(PgnInputStreamFactory.of(resourceFile("/compress/single_game.bz2"), 16, true, 2));
+             final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_1.pgn"))) {
+            assertThatLexer(actual).producesSameTokensAs(expected);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gz", "xz", "zstd"})
+    void singleStreamCompressed(final String format) throws Exception {
+        final String extension = "zstd".equals(format) ? "zst" : format;
+        final Path compressed = Files.createTempFile("two_games", ".pgn." + extension);
+
+        try (final InputStream in = resourceInputStream("/compress/uncompressed_2.pgn");
+             final OutputStream out = new CompressorStreamFactory().createCompressorOutputStream(format, Files.newOutputStream(compressed))) {
+            in.transferTo(out);
+        }
+
+        try {
+            for (int blocksInFlight = 0; blocksInFlight <= 2; blocksInFlight += 2) {
+                try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(PgnInputStreamFactory.of(compressed.toFile(), 16, false, blocksInFlight));
+                     final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_2.pgn"))) {
+                    assertThatLexer(actual).producesSameTokensAs(expected);
+                }
+            }
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"single_game.zip", "single_game.tar.gz", "single_game.tar.xz", "single_game.bz2", "single_game.7z"})
+    void detectsFormatOfStream(final String resourceName) {
+        try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(resourceInputStream("/compress/" + resourceName));
+             final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_1.pgn"))) {
+            assertThatLexer(actual).producesSameTokensAs(expected);
+        }
+    }
+
+    @Test
+    void detectsFormatByContentNotName() throws Exception {
+        final Path misnamed = Files.createTempFile("single_game", ".dat");
+
+        try {
+            Files.copy(resourceFile("/compress/single_game.tar.gz").toPath(), misnamed, StandardCopyOption.REPLACE_EXISTING);
+
+            assertThat(PgnInputStreamFactory.format(misnamed.toFile())).map(PgnFormatProvider::name).hasValue("gzip");
+            assertThat(PgnInputStreamFactory.format(resourceFile("/compress/uncompressed_1.pgn"))).isEmpty();
+
+            try (final InputStreamPgnLexer actual = InputStreamPgnLexer.of(PgnInputStreamFactory.of(misnamed.toFile()));
+                 final InputStreamPgnLexer expected = InputStreamPgnLexer.of(resourceInputStream("/compress/uncompressed_1.pgn"))) {
+                assertThatLexer(actual).producesSameTokensAs(expected);
+            }
+        } finally {
+            Files.delete(misnamed);
+        }
+    }
+
     @Test
     void emptyZipFile() {
         assertThatExceptionOfType(UncheckedIOException.class)
@@ -0,0 +1,73 @@
+package com.github.nstdio.libpgn.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
+import com.github.nstdio.libpgn.core.parser.PgnParser;
+import com.github.nstdio.libpgn.core.parser.TapePgnLexer;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.TagPair;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+class TagPairCacheTest {
+    private static final String PGN = "[Event \"Open\"]\n[White \"Carlsen\"]\n[Black \"Caruana\"]\n\n1. e4 1-0\n\n" +
+            "[Event \"Open\"]\n[White \"Caruana\"]\n[Black \"Carlsen\"]\n\n1. d4 0-1\n\n" +
+            "[Event \"Open\"]\n[White \"Carlsen\"]\n[Black \"Firouzja\"]\n\n1. c4 *";
+
+    private static List<Game> parse(final PgnParser parser) {
+        try (final var games = parser.stream()) {
+            return games.collect(Collectors.toList());
+        }
+    }
+
+    private static TagPair tagPair(final Game game, final int index) {
+        return game.tagPairSection().get(index);
+    }
+
+    @Test
+    void sharesTagPairsAcrossParsers() {
+        final Configuration config = Configuration.defaultBuilder().cacheTagPair(true).build();
+        final byte[] bytes = PGN.getBytes(StandardCharsets.US_ASCII);
+
+        final List<Game> first = parse(new PgnParser(InputStreamPgnLexer.of(bytes), config));
+        final List<Game> second = parse(new PgnParser(new TapePgnLexer(MappedFile.wrap(bytes)), config));
+
+        assertThat(tagPair(first.get(1), 0)).isSameAs(tagPair(first.get(0), 0));
+        assertThat(tagPair(first.get(2), 1)).isSameAs(tagPair(first.get(0), 1));
+        assertThat(tagPair(first.get(1), 1)).isNotSameAs(tagPair(first.get(0), 1));
+        assertThat(tagPair(first.get(1), 1).getTag()).isSameAs(tagPair(first.get(0), 1).getTag());
+        assertThat(tagPair(second.get(2), 2)).isSameAs(tagPair(first.get(2), 2));
+
+        assertThat(second).extracting(Game::toString).isEqualTo(first.stream().map(Game::toString).collect(Collectors.toList()));
+
+        final TagPairCache cache = config.tagPairCache();
+
+        assertThat(cache.misses()).isEqualTo(6);
+        assertThat(cache.hits()).isEqualTo(12);
+        assertThat(cache.evictions()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final Configuration config = Configuration.defaultBuilder()
+                .cacheTagPair(true)
+                .tagPairCacheSize(2)
+                .predefinedCache(TagPair.of("Event", "Open"))
+                .build();
+
+        final List<Game> games = parse(new PgnParser(InputStreamPgnLexer.of(PGN.getBytes(StandardCharsets.US_ASCII)), config));
+        final TagPairCache cache = config.tagPairCache();
+
+        assertThat(games).extracting(game -> tagPair(game, 0).getValueAsString()).containsOnly("Open");
+        assertThat(cache.hits()).isEqualTo(3);
+        assertThat(cache.misses()).isEqualTo(6);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(4);
+    }
+}
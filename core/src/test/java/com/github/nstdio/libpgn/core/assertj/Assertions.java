@@ -3,6 +3,7 @@ package com.github.nstdio.libpgn.core.assertj;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import com.github.nstdio.libpgn.core.exception.PgnSyntaxException;
+import com.github.nstdio.libpgn.core.parser.AbstractPgnLexer;
 import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
 import com.github.nstdio.libpgn.io.PgnInputStreamFactory;
 
@@ -15,7 +16,7 @@ public class Assertions {
         return assertThatLexer(new InputStreamPgnLexer(PgnInputStreamFactory.of(new ByteArrayInputStream(input.getBytes()))));
     }
 
-    public static PgnLexerAssert assertThatLexer(final InputStreamPgnLexer lexer) {
+    public static PgnLexerAssert assertThatLexer(final AbstractPgnLexer lexer) {
         return new PgnLexerAssert(lexer);
     }
 
@@ -1,7 +1,7 @@
 package com.github.nstdio.libpgn.core.assertj;
 
 import com.github.nstdio.libpgn.core.TokenTypes;
-import com.github.nstdio.libpgn.core.parser.InputStreamPgnLexer;
+import com.github.nstdio.libpgn.core.parser.AbstractPgnLexer;
 import org.assertj.core.api.AbstractAssert;
 import org.assertj.core.description.Description;
 
@@ -10,8 +10,8 @@ import java.util.stream.IntStream;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SuppressWarnings("UnusedReturnValue")
-public class PgnLexerAssert extends AbstractAssert<PgnLexerAssert, InputStreamPgnLexer> {
-    public PgnLexerAssert(final InputStreamPgnLexer lexer) {
+public class PgnLexerAssert extends AbstractAssert<PgnLexerAssert, AbstractPgnLexer> {
+    public PgnLexerAssert(final AbstractPgnLexer lexer) {
         super(lexer, PgnLexerAssert.class);
     }
 
@@ -96,7 +96,7 @@ public class PgnLexerAssert extends AbstractAssert<PgnLexerAssert, InputStreamPg
         return this;
     }
 
-    public PgnLexerAssert producesSameTokensAs(final InputStreamPgnLexer expected) {
+    public PgnLexerAssert producesSameTokensAs(final AbstractPgnLexer expected) {
         while (true) {
             assertThat(actual.next()).isEqualTo(expected.next());
 
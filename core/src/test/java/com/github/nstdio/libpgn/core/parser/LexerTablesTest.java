@@ -0,0 +1,28 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.core.parser.LexerTables.CLASSES;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.C_LETTER;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.SCOPES;
+import static com.github.nstdio.libpgn.core.parser.LexerTables.SCOPE_SKIP;
+import static com.github.nstdio.libpgn.core.parser.LexicalScope.SCOPE_MOVE_TEXT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class LexerTablesTest {
+    @Test
+    void lettersAreAsciiOnly() {
+        for (int b = 0; b < 256; b++) {
+            assertThat(CLASSES[b] == C_LETTER).as("byte: %d", b).isEqualTo(Character.isLetter((byte) b));
+        }
+    }
+
+    @Test
+    void movetextBeginsWithLetterOrDigit() {
+        for (int b = 0; b < 256; b++) {
+            if (b != '{' && SCOPES[b] != SCOPE_SKIP) {
+                assertThat(SCOPES[b] == SCOPE_MOVE_TEXT).as("byte: %d", b).isEqualTo(Character.isLetterOrDigit(b));
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.core.TokenTypes.DOT;
+import static com.github.nstdio.libpgn.core.TokenTypes.GAMETERM;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_NUMBER;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_WHITE;
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+import static com.github.nstdio.libpgn.core.assertj.Assertions.assertThatLexer;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFactory;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.GameIndex;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+public class MappedPgnLexerTest {
+    private Path file;
+
+    private static File resourceFile(final String resourceName) {
+        return new File(MappedPgnLexerTest.class.getResource(resourceName).getFile());
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".pgn");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(GameIndex.indexPath(file));
+    }
+
+    @Test
+    void sameTokensAsInputStreamLexer() {
+        final File pgn = resourceFile("/compress/uncompressed_2.pgn");
+
+        try (final MappedPgnLexer actual = MappedPgnLexer.of(pgn);
+             final InputStreamPgnLexer expected = InputStreamPgnLexer.of(pgn)) {
+            assertThatLexer(actual).producesSameTokensAs(expected);
+        }
+    }
+
+    @Test
+    void readView() throws IOException {
+        write("1. e4 *");
+
+        final MappedPgnLexer lexer = MappedPgnLexer.of(file.toFile());
+
+        assertThat(lexer.next()).isEqualTo(MOVE_NUMBER);
+        assertThat(asString(lexer.readView())).isEqualTo("1");
+        assertThat(lexer.next()).isEqualTo(DOT);
+        assertThat(asString(lexer.readView())).isEqualTo(".");
+        assertThat(lexer.next()).isEqualTo(MOVE_WHITE);
+
+        final ByteBuffer move = lexer.readView();
+        assertThat(move.isReadOnly()).isTrue();
+        assertThat(asString(move)).isEqualTo("e4");
+
+        assertThat(lexer.next()).isEqualTo(GAMETERM);
+        assertThat(asString(lexer.readView())).isEqualTo("*");
+        assertThat(lexer.next()).isEqualTo(UNDEFINED);
+        assertThat(lexer.readView()).isNull();
+    }
+
+    @Test
+    void range() throws IOException {
+        final String first = "1. d4 *\n\n";
+        write(first + "1. e4 e5 1-0\n");
+
+        final MappedFile mappedFile = MappedFile.map(file);
+
+        assertThatLexer(new MappedPgnLexer(mappedFile, first.length(), mappedFile.size()))
+                .nextTokenIsEqualTo(MOVE_NUMBER).readIsEqualTo("1")
+                .nextTokenIsEqualTo(DOT).readIsEqualTo(".")
+                .nextTokenIsEqualTo(MOVE_WHITE).readIsEqualTo("e4");
+
+        assertThatLexer(new MappedPgnLexer(mappedFile, 0, first.length()))
+                .nextTokenIsEqualTo(MOVE_NUMBER).readIsEqualTo("1")
+                .nextTokenIsEqualTo(DOT).readIsEqualTo(".")
+                .nextTokenIsEqualTo(MOVE_WHITE).readIsEqualTo("d4")
+                .nextTokenIsEqualTo(GAMETERM).readIsEqualTo("*")
+                .nextTokenIsEqualTo(UNDEFINED).readIsNull();
+    }
+
+    @Test
+    void gameFactoryMemoryMapped() {
+        final File pgn = resourceFile("/compress/uncompressed_2.pgn");
+        final Configuration mapped = Configuration.defaultBuilder().memoryMapped(true).build();
+
+        assertThat(games(GameFactory.stream(pgn, mapped)))
+                .hasSize(2)
+                .isEqualTo(games(GameFactory.stream(pgn)));
+    }
+
+    @Test
+    void gameFactorySeeksByIndex() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 10; i++) {
+            sb.append("[Event \"").append(i).append("\"]\n\n1. e4 e5 1-0\n\n");
+        }
+
+        write(sb.toString());
+
+        final Configuration config = Configuration.defaultConfiguration();
+        final List<String> all = games(GameFactory.stream(file.toFile(), config));
+
+        assertThat(games(GameFactory.stream(file.toFile(), config, 7))).isEqualTo(all.subList(7, 10));
+        assertThat(GameFactory.page(file.toFile(), config, 1, 4)).extracting(Game::toString).isEqualTo(all.subList(4, 8));
+        assertThat(GameFactory.page(file.toFile(), config, 2, 4)).extracting(Game::toString).isEqualTo(all.subList(8, 10));
+        assertThat(GameFactory.page(file.toFile(), config, 3, 4)).isEmpty();
+
+        try (final Stream<List<Game>> pages = GameFactory.pageableStream(file.toFile(), config, 3, 2)) {
+            assertThat(pages.mapToInt(List::size).toArray()).containsExactly(3, 1);
+        }
+    }
+
+    @Test
+    void gameFactorySeeksByLoadedIndex() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 10; i++) {
+            sb.append("[Event \"").append(i).append("\"]\n\n1. e4 e5 1-0\n\n");
+        }
+
+        write(sb.toString());
+
+        final Configuration config = Configuration.defaultConfiguration();
+        final List<String> all = games(GameFactory.stream(file.toFile(), config));
+        final MappedFile mapped = MappedFile.map(file);
+        final GameIndex index = GameIndex.of(file, mapped);
+
+        assertThat(games(GameFactory.stream(mapped, index, config, 7))).isEqualTo(all.subList(7, 10));
+        assertThat(GameFactory.page(mapped, index, config, 1, 4)).extracting(Game::toString).isEqualTo(all.subList(4, 8));
+        assertThat(GameFactory.page(mapped, index, config, 3, 4)).isEmpty();
+
+        try (final Stream<List<Game>> pages = GameFactory.pageableStream(mapped, index, config, 3, 2)) {
+            assertThat(pages.mapToInt(List::size).toArray()).containsExactly(3, 1);
+        }
+
+        final GameIndex other = GameIndex.build(MappedFile.wrap("[Event \"A\"]\n\n1. e4 1-0\n".getBytes(StandardCharsets.US_ASCII)));
+
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> GameFactory.page(mapped, other, config, 0, 4));
+    }
+
+    @Test
+    void skipsMovetextUpToGameTermination() throws IOException {
+        write("[Event \"A\"]\n\n{1-0 *} 1. e4 (1. d4 d5 0-1 *) ; 1/2-1/2\n1... e5 {(} 2. O-O 0-0 $1 0-1\n\n" +
+                "[Event \"B\"]\n\n1. a1-a2 ( 1. d4 *) e1-e2 1/2-1/2\n\n" +
+                "[Event \"C\"]\n\n1. e4*\n\n" +
+                "[Event \"D\"]\n\n1. e4 (1. d4 {)} 1-0) 1-0");
+
+        final Configuration.ConfigurationBuilder skip = Configuration.defaultBuilder().skipMovetext(true);
+
+        assertThat(headers(GameFactory.stream(file.toFile(), skip.build())))
+                .containsExactly("A 0-1", "B 1/2-1/2", "C *", "D 1-0");
+        assertThat(headers(GameFactory.stream(file.toFile(), skip.memoryMapped(true).build())))
+                .containsExactly("A 0-1", "B 1/2-1/2", "C *", "D 1-0");
+    }
+
+    @Test
+    void gameFactoryLimitsGames() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 10; i++) {
+            sb.append("[Event \"").append(i).append("\"]\n\n1. e4 e5 1-0\n\n");
+        }
+
+        write(sb.toString());
+
+        final Configuration.ConfigurationBuilder limited = Configuration.defaultBuilder().gameLimit(3);
+        final List<String> all = games(GameFactory.stream(file.toFile()));
+
+        assertThat(games(GameFactory.stream(file.toFile(), limited.build()))).isEqualTo(all.subList(0, 3));
+        assertThat(games(GameFactory.stream(file.toFile(), limited.build(), 6))).isEqualTo(all.subList(6, 9));
+        assertThat(games(GameFactory.stream(file.toFile(), limited.memoryMapped(true).build()).parallel()))
+                .isEqualTo(all.subList(0, 3));
+    }
+
+    private static List<String> headers(final Stream<Game> stream) {
+        try (stream) {
+            return stream.map(game -> game.tagPairSection().get(0).getValueAsString() + " " + game.gameResult().getTerm())
+                    .collect(toList());
+        }
+    }
+
+    private static List<String> games(final Stream<Game> stream) {
+        try (stream) {
+            return stream.map(Game::toString).collect(toList());
+        }
+    }
+
+    private void write(final String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String asString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+class PgnFileSpliteratorTest {
+    private static final String GAMES = "[Event \"A\"]\n[Result \"1-0\"]\n\n1. e4 {comment} e5 (1... c5 2. Nf3) 2. Nf3 $1 Nc6 1-0\n\n"
+            + "[Event \"B\"]\n\n1. d4 d5 1/2-1/2\n\n"
+            + "[Event \"C\"]\n1. f4 e5 0-1\n\n";
+
+    private static MappedFile file(final int copies) {
+        final StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < copies; i++) {
+            sb.append(GAMES);
+        }
+
+        return MappedFile.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static List<String> games(final Spliterator<Game> spliterator, final boolean parallel) {
+        return StreamSupport.stream(spliterator, parallel)
+                .map(Game::toString)
+                .collect(toList());
+    }
+
+    @Test
+    void parallelStreamKeepsOrder() {
+        final MappedFile file = file(200);
+        final Configuration config = Configuration.defaultConfiguration();
+        final List<String> expected = new PgnParser(new MappedPgnLexer(file), config).stream()
+                .map(Game::toString)
+                .collect(toList());
+
+        final List<String> actual = games(new PgnFileSpliterator(file, config, 0, file.size(), 128), true);
+
+        assertThat(actual).hasSize(600).isEqualTo(expected);
+    }
+
+    @Test
+    void splitsAtGameBoundaries() {
+        final MappedFile file = file(2);
+        final Configuration config = Configuration.defaultConfiguration();
+        final PgnFileSpliterator suffix = new PgnFileSpliterator(file, config, 0, file.size(), 1);
+
+        final Spliterator<Game> prefix = suffix.trySplit();
+
+        assertThat(prefix).isNotNull();
+        assertThat(prefix.estimateSize() + suffix.estimateSize()).isEqualTo(file.size());
+        assertThat(games(prefix, false).size() + games(suffix, false).size()).isEqualTo(6);
+    }
+
+    @Test
+    void noSplitAfterTraversalStarted() {
+        final MappedFile file = file(10);
+        final PgnFileSpliterator spliterator = new PgnFileSpliterator(file, Configuration.defaultConfiguration(), 0, file.size(), 1);
+
+        assertThat(spliterator.tryAdvance(game -> {})).isTrue();
+        assertThat(spliterator.trySplit()).isNull();
+    }
+
+    @Test
+    void noSplitOfSmallRange() {
+        final MappedFile file = file(1);
+
+        assertThat(new PgnFileSpliterator(file, Configuration.defaultConfiguration()).trySplit()).isNull();
+    }
+}
@@ -3,11 +3,14 @@ package com.github.nstdio.libpgn.core.parser;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Disabled;
@@ -15,11 +18,13 @@ import org.junit.jupiter.api.Test;
 
 import com.github.nstdio.libpgn.common.ArrayUtils;
 import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.entity.CompactGame;
 import com.github.nstdio.libpgn.entity.Game;
 import com.github.nstdio.libpgn.entity.Move;
 import com.github.nstdio.libpgn.entity.MoveText;
 import com.github.nstdio.libpgn.entity.Result;
 import com.github.nstdio.libpgn.entity.TagPair;
+import com.github.nstdio.libpgn.io.MappedFile;
 
 public class PgnParserTest {
     private PgnParser parser;
@@ -260,7 +265,6 @@ public class PgnParserTest {
     }
 
     @Test
-    @Disabled
     void predefinedTagPairCache() {
         final TagPair tagPair = TagPair.of("White", "Kasparov, Garry");
         final TagPair tagPair2 = TagPair.of("Black", "Karpov, Anatoly");
@@ -308,6 +312,164 @@ public class PgnParserTest {
         }
     }
 
+    @Test
+    void skipVariations() {
+        final String input = "1. e4 (1. d4 {)} (1. c4 ; (\n c5)) {Kept} e5 (1... c5 {(} 2. Nf3) 2. Nf3 *";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .skipVariations(true)
+                .build();
+
+        final List<Game> games = new PgnParser(createLexer(input), config).stream().collect(Collectors.toList());
+
+        assertThat(games.get(0).moves()).containsExactly(
+                MoveText.of(1, Move.of("e4", "Kept"), Move.of("e5")),
+                MoveText.ofWhite(2, "Nf3")
+        );
+        assertThat(games.get(0).gameResult()).isEqualTo(Result.UNKNOWN);
+    }
+
+    @Test
+    void gameFilter() {
+        final String input = "[White \"A\"]\n[WhiteElo \"2650\"]\n\n1. e4 {best} e5 2. Nf3 1-0\n\n" +
+                "[White \"B\"]\n[WhiteElo \"2100\"]\n\n1. d4 (1. c4 0-1) d5 0-1\n\n" +
+                "[White \"C\"]\n[WhiteElo \"2700\"]\n\n1. c4 *\n\n" +
+                "1. f4 *\n\n" +
+                "[White \"D\"]\n[WhiteElo \"2800\"]\n\n1. g3 g6 1/2-1/2";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .gameFilter()
+                .tagPairFilter(tagPairs -> tagPairs.stream()
+                        .anyMatch(tagPair -> "WhiteElo".equals(tagPair.getTagAsString())
+                                && Integer.parseInt(tagPair.getValueAsString()) > 2500))
+                .moveTextFilter(moves -> moves.size() > 1 || moves.get(0).black().isPresent())
+                .build();
+
+        final List<Game> games = new PgnParser(createLexer(input), config).stream().collect(Collectors.toList());
+
+        assertThat(games).extracting(Game::white).containsExactly("A", "D");
+        assertThat(games).extracting(Game::gameResult).containsExactly(Result.WHITE, Result.DRAW);
+    }
+
+    @Test
+    void tagProjection() {
+        final String input = "[Event \"Rapid\"]\n[White \"A\"]\n[WhiteElo \"2650\"]\n[Whit \"B\"]\n[Empty \"\"]\n" +
+                "[Black \"C\"]\n\n1. e4 e5 1-0";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .tagProjection("White", "Black", "Result")
+                .build();
+
+        for (PgnLexer lexer : Arrays.asList(createLexer(input), new TapePgnLexer(MappedFile.wrap(input.getBytes())))) {
+            final List<Game> games = new PgnParser(lexer, config).stream().collect(Collectors.toList());
+
+            assertThat(games).hasSize(1);
+            assertThat(games.get(0).tagPairSection())
+                    .extracting(tagPair -> tagPair.getTagAsString() + "=" + tagPair.getValueAsString())
+                    .containsExactly("White=A", "Black=C");
+            assertThat(games.get(0).moves()).isEqualTo(MoveText.moves(1, "e4", "e5"));
+        }
+    }
+
+    @Test
+    void internMoves() {
+        final String input = "1. e4 e5 2. Nf3 Nc6 {Main} 3. Nbd2 *\n\n1. e4 e5 2. Nf3 Nc6 3. Nbd2 (3. d4) *";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .internMoves(true)
+                .build();
+
+        for (PgnLexer lexer : Arrays.asList(createLexer(input), new TapePgnLexer(MappedFile.wrap(input.getBytes())))) {
+            final List<Game> games = new PgnParser(lexer, config).stream().collect(Collectors.toList());
+            final List<MoveText> first = games.get(0).moves();
+            final List<MoveText> second = games.get(1).moves();
+
+            assertThat(first).containsExactly(
+                    MoveText.of(1, "e4", "e5"),
+                    MoveText.of(2, Move.of("Nf3"), Move.of("Nc6", "Main")),
+                    MoveText.ofWhite(3, "Nbd2")
+            );
+            assertThat(second.get(0).white().get()).isSameAs(first.get(0).white().get());
+            assertThat(second.get(1).white().get()).isSameAs(first.get(1).white().get());
+            assertThat(second.get(1).black().get()).isNotSameAs(first.get(1).black().get());
+            assertThat(second.get(2).white().get()).isNotSameAs(first.get(2).white().get());
+            assertThat(second.get(2).white().get().variations()).hasSize(1);
+            assertThat(config.movePool().intern("Nbd2".getBytes())).isSameAs(first.get(2).white().get());
+        }
+    }
+
+    @Test
+    void compactGames() {
+        final String input = "[White \"A\"]\n\n1. e4 e5 $1 2. Nf3 (2. f4 exf4) Nc6 {Main} 3. Bb5 1-0\n\n" +
+                "{Start} 1... c5 2. Nf3 d6 3. d4 *";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .compactGames(true)
+                .build();
+
+        final List<Game> expected = new PgnParser(createLexer(input)).stream().collect(Collectors.toList());
+        final List<Game> games = new PgnParser(createLexer(input), config).stream().collect(Collectors.toList());
+
+        assertThat(games).hasSize(2).allMatch(game -> game instanceof CompactGame);
+
+        for (int i = 0; i < games.size(); i++) {
+            assertThat(games.get(i).moves()).isEqualTo(expected.get(i).moves());
+            assertThat(games.get(i).tagPairSection()).isEqualTo(expected.get(i).tagPairSection());
+            assertThat(games.get(i).comment()).isEqualTo(expected.get(i).comment());
+            assertThat(games.get(i).gameResult()).isEqualTo(expected.get(i).gameResult());
+        }
+
+        final CompactGame first = (CompactGame) games.get(0);
+        final CompactGame second = (CompactGame) games.get(1);
+
+        assertThat(first.plyCount()).isEqualTo(5);
+        assertThat(first.moveId(2)).isEqualTo(second.moveId(1));
+        assertThat(second.ply(1)).isSameAs(config.movePool().move(first.moveId(2)));
+        assertThat(first.ply(2).variations()).hasSize(1);
+    }
+
+    @Test
+    void compactGamesFiltered() {
+        final String input = "[White \"A\"]\n\n1. e4 e5 2. Nf3 1-0\n\n[White \"B\"]\n\n1. d4 0-1\n\n" +
+                "[White \"C\"]\n\n1. c4 c5 1/2-1/2";
+
+        final Configuration config = Configuration.defaultBuilder()
+                .compactGames(true)
+                .gameFilter()
+                .moveTextFilter(moves -> moves.get(0).black().isPresent())
+                .build();
+
+        final List<Game> games = new PgnParser(createLexer(input), config).stream().collect(Collectors.toList());
+
+        assertThat(games).allMatch(game -> game instanceof CompactGame);
+        assertThat(games).extracting(Game::white).containsExactly("A", "C");
+        assertThat(games).extracting(Game::gameResult).containsExactly(Result.WHITE, Result.DRAW);
+        assertThat(games.get(0).moves()).hasSize(2);
+    }
+
+    @Test
+    void gameLimitClosesLexer() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final InputStream in = new ByteArrayInputStream("1. e4 *\n\n1. d4 *\n\n1. c4 *".getBytes()) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        parser = new PgnParser(InputStreamPgnLexer.of(in), Configuration.defaultBuilder().gameLimit(2).build());
+
+        assertThat(parser.next()).isNotNull();
+        assertThat(parser.limitReached()).isFalse();
+        assertThat(closed).isFalse();
+
+        assertThat(parser.next()).isNotNull();
+        assertThat(parser.limitReached()).isTrue();
+        assertThat(closed).isTrue();
+
+        assertThat(parser.next()).isNull();
+    }
+
     @Test
     void skipTagPair() {
         String input = "[Event \"Leipzig8990 m\"]\n" +
@@ -0,0 +1,90 @@
+package com.github.nstdio.libpgn.core.parser;
+
+import static com.github.nstdio.libpgn.core.TokenTypes.DOT;
+import static com.github.nstdio.libpgn.core.TokenTypes.GAMETERM;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_NUMBER;
+import static com.github.nstdio.libpgn.core.TokenTypes.MOVE_WHITE;
+import static com.github.nstdio.libpgn.core.TokenTypes.UNDEFINED;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.core.Configuration;
+import com.github.nstdio.libpgn.core.GameFactory;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.io.MappedFile;
+
+public class TapePgnLexerTest {
+    private static final String GAMES = "[Event \"A\"]\n[Result \"1-0\"]\n\n1. e4 {comment} e5 (1... c5 2. Nf3) 2. Nf3 $1 Nc6 1-0\n\n"
+            + "[Event \"B\"]\n\n1. d4 d5 1/2-1/2\n\n"
+            + "1. c4 e5 *\n"
+            + "[Event \"C\"]\n1. f4 e5 0-1\n";
+
+    private static File resourceFile(final String resourceName) {
+        return new File(TapePgnLexerTest.class.getResource(resourceName).getFile());
+    }
+
+    private static List<String> games(final PgnLexer lexer) {
+        final PgnParser parser = new PgnParser(lexer, Configuration.defaultConfiguration());
+        final List<String> games = new ArrayList<>();
+
+        for (Game game = parser.next(); game != null; game = parser.next()) {
+            games.add(game.toString());
+        }
+
+        return games;
+    }
+
+    @Test
+    void tape() {
+        final TokenTape tape = TokenTape.build(MappedFile.wrap("1. e4 *".getBytes(StandardCharsets.US_ASCII)), 0, 7);
+
+        assertThat(tape.size()).isEqualTo(4);
+        assertThat(tape.type(0)).isEqualTo(MOVE_NUMBER);
+        assertThat(tape.type(1)).isEqualTo(DOT);
+        assertThat(tape.type(2)).isEqualTo(MOVE_WHITE);
+        assertThat(tape.offset(2)).isEqualTo(3);
+        assertThat(tape.length(2)).isEqualTo(2);
+        assertThat(new String(tape.read(2), StandardCharsets.US_ASCII)).isEqualTo("e4");
+        assertThat(tape.type(3)).isEqualTo(GAMETERM);
+    }
+
+    @Test
+    void sameGamesAsInputStreamLexerForAnyChunkSize() {
+        final byte[] bytes = GAMES.getBytes(StandardCharsets.US_ASCII);
+        final List<String> expected = games(InputStreamPgnLexer.of(bytes));
+
+        assertThat(expected).hasSize(4);
+
+        for (int chunkSize = 1; chunkSize <= bytes.length; chunkSize += 7) {
+            final TapePgnLexer lexer = new TapePgnLexer(MappedFile.wrap(bytes), chunkSize, 3);
+
+            assertThat(games(lexer)).as("chunkSize: %d", chunkSize).isEqualTo(expected);
+            assertThat(lexer.next()).isEqualTo(UNDEFINED);
+            assertThat(lexer.read()).isNull();
+        }
+    }
+
+    @Test
+    void gameFactoryTokenTape() {
+        final File pgn = resourceFile("/compress/uncompressed_2.pgn");
+        final Configuration tape = Configuration.defaultBuilder().tokenTape(true).build();
+
+        assertThat(games(GameFactory.stream(pgn, tape)))
+                .hasSize(2)
+                .isEqualTo(games(GameFactory.stream(pgn)));
+    }
+
+    private static List<String> games(final Stream<Game> stream) {
+        try (stream) {
+            return stream.map(Game::toString).collect(toList());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.nstdio.libpgn.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * The game keeping its mainline as the array of {@link MoveDictionary} ids, about two bytes per ply instead of the
+ * {@link MoveText} and {@link Move} objects. The moves with comment, NAG or variation are kept in the side arrays only
+ * when present. The plies are numbered from {@code 0} for the first move of white, the numbering breaks are kept in
+ * the side array as well.
+ * <p>
+ * The {@link #moves()} are decoded on demand on every call, the scans should use {@link #plyCount()} and {@link
+ * #moveId(int)} or {@link #ply(int)} instead.
+ */
+public final class CompactGame extends Game {
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+    private static final int NONE = 0xFFFF;
+
+    private final MoveDictionary dictionary;
+    private final short[] plies;
+    private final int firstPly;
+
+    /**
+     * The pairs of the ply index and its ply number, the ply numbers following the pair are consecutive.
+     */
+    private final int[] breaks;
+    private final int[] annotated;
+    private final Move[] annotations;
+
+    private CompactGame(final List<TagPair> tagPairs, final byte[] comment, final Result result,
+                        final MoveDictionary dictionary, final short[] plies, final int firstPly, final int[] breaks,
+                        final int[] annotated, final Move[] annotations) {
+        super(tagPairs, comment, null, result);
+        this.dictionary = dictionary;
+        this.plies = plies;
+        this.firstPly = firstPly;
+        this.breaks = breaks;
+        this.annotated = annotated;
+        this.annotations = annotations;
+    }
+
+    public static Builder builder(final MoveDictionary dictionary) {
+        return new Builder(dictionary);
+    }
+
+    /**
+     * Decodes the mainline.
+     *
+     * @return The newly created list.
+     */
+    @Override
+    public List<MoveText> moves() {
+        final List<MoveText> moves = new ArrayList<>((plies.length >> 1) + 1);
+
+        for (int i = 0; i < plies.length; ) {
+            final int number = plyNumber(i);
+            final int moveNo = (number >> 1) + 1;
+
+            if ((number & 1) == 0 && i + 1 < plies.length && plyNumber(i + 1) == number + 1) {
+                moves.add(MoveText.of(moveNo, ply(i), ply(i + 1)));
+                i += 2;
+            } else {
+                moves.add((number & 1) == 0 ? MoveText.ofWhite(moveNo, ply(i)) : MoveText.ofBlack(moveNo, ply(i)));
+                i++;
+            }
+        }
+
+        return moves;
+    }
+
+    /**
+     * @return The number of plies in the mainline.
+     */
+    public int plyCount() {
+        return plies.length;
+    }
+
+    /**
+     * The dictionary id of the ply, the annotated plies have the id of the move without annotations.
+     *
+     * @param index The ply index.
+     *
+     * @return The id or {@code -1} if the move is not in the dictionary, such moves are kept as annotated ones.
+     */
+    public int moveId(final int index) {
+        final int id = plies[index] & 0xFFFF;
+
+        return id == NONE ? -1 : id;
+    }
+
+    /**
+     * @param index The ply index.
+     *
+     * @return The move with its annotations.
+     */
+    public Move ply(final int index) {
+        final int annotation = Arrays.binarySearch(annotated, index);
+
+        return annotation >= 0 ? annotations[annotation] : dictionary.move(plies[index] & 0xFFFF);
+    }
+
+    /**
+     * @param index The ply index.
+     *
+     * @return The ply number, {@code 0} for the first move of white.
+     */
+    public int plyNumber(final int index) {
+        int number = firstPly + index;
+
+        for (int i = 0; i < breaks.length && breaks[i] <= index; i += 2) {
+            number = breaks[i + 1] + index - breaks[i];
+        }
+
+        return number;
+    }
+
+    public MoveDictionary dictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactGame(tagPairs=" + tagPairSection() + ", comment=" + Arrays.toString(comment()) +
+                ", moves=" + moves() + ", result=" + gameResult() + ")";
+    }
+
+    /**
+     * Collects the mainline move by move. The builder can be reused after {@link #build(List, byte[], Result)}.
+     */
+    public static final class Builder {
+        private final MoveDictionary dictionary;
+        private short[] plies = new short[128];
+        private int size;
+        private int firstPly;
+        private int nextPly;
+        private int[] breaks = new int[2];
+        private int breaksSize;
+        private int[] annotated = new int[8];
+        private Move[] annotations = new Move[8];
+        private int annotatedSize;
+
+        private Builder(final MoveDictionary dictionary) {
+            this.dictionary = Objects.requireNonNull(dictionary);
+        }
+
+        /**
+         * Adds the next element of the mainline.
+         *
+         * @param moveNo The move number.
+         * @param white  The move of white or {@code null}.
+         * @param black  The move of black or {@code null}.
+         *
+         * @return Builder itself.
+         *
+         * @throws IllegalArgumentException When {@code white} and {@code black} are both {@code null}.
+         */
+        public Builder add(final int moveNo, @Nullable final Move white, @Nullable final Move black) {
+            if (white == null && black == null) {
+                throw new IllegalArgumentException("white and black cannot be null at the same time");
+            }
+
+            final int number = (moveNo - 1) * 2 + (white == null ? 1 : 0);
+
+            if (size == 0) {
+                firstPly = number;
+            } else if (number != nextPly) {
+                if (breaksSize == breaks.length) {
+                    breaks = Arrays.copyOf(breaks, breaksSize << 1);
+                }
+
+                breaks[breaksSize++] = size;
+                breaks[breaksSize++] = number;
+            }
+
+            if (white != null) {
+                add(white);
+            }
+
+            if (black != null) {
+                add(black);
+            }
+
+            nextPly = number + (white != null && black != null ? 2 : 1);
+
+            return this;
+        }
+
+        private void add(final Move move) {
+            if (size == plies.length) {
+                plies = Arrays.copyOf(plies, size << 1);
+            }
+
+            final int id = dictionary.id(move);
+
+            if (id == -1 || isAnnotated(move)) {
+                if (annotatedSize == annotated.length) {
+                    annotated = Arrays.copyOf(annotated, annotatedSize << 1);
+                    annotations = Arrays.copyOf(annotations, annotatedSize << 1);
+                }
+
+                annotated[annotatedSize] = size;
+                annotations[annotatedSize++] = move;
+            }
+
+            plies[size++] = (short) (id == -1 ? NONE : id);
+        }
+
+        private static boolean isAnnotated(final Move move) {
+            return move.comment().length != 0 || move.nag().length != 0 || !move.variations().isEmpty();
+        }
+
+        /**
+         * Creates the game and resets the builder.
+         *
+         * @param tagPairs The tag pairs.
+         * @param comment  The comment preceding the movetext.
+         * @param result   The game result.
+         *
+         * @return The game.
+         */
+        public CompactGame build(final List<TagPair> tagPairs, final byte[] comment, final Result result) {
+            final CompactGame game = new CompactGame(tagPairs, comment, result, dictionary,
+                    Arrays.copyOf(plies, size),
+                    firstPly,
+                    breaksSize == 0 ? EMPTY_INT_ARRAY : Arrays.copyOf(breaks, breaksSize),
+                    annotatedSize == 0 ? EMPTY_INT_ARRAY : Arrays.copyOf(annotated, annotatedSize),
+                    annotatedSize == 0 ? null : Arrays.copyOf(annotations, annotatedSize));
+
+            clear();
+
+            return game;
+        }
+
+        /**
+         * Drops the collected moves.
+         *
+         * @return Builder itself.
+         */
+        public Builder clear() {
+            size = firstPly = nextPly = breaksSize = 0;
+            Arrays.fill(annotations, 0, annotatedSize, null);
+            annotatedSize = 0;
+
+            return this;
+        }
+    }
+}
@@ -13,7 +13,7 @@ import lombok.ToString;
 
 @SuppressWarnings("WeakerAccess")
 @ToString
-public final class Game {
+public class Game {
     private final List<TagPair> tagPairs;
     private final byte[] comment;
     private final List<MoveText> moves;
@@ -0,0 +1,33 @@
+package com.github.nstdio.libpgn.entity;
+
+/**
+ * The dictionary of the distinct moves, every move is identified by the unsigned 16-bit id. The ids never change, so
+ * the games encoded with the dictionary stay valid as long as it is reachable.
+ *
+ * @see CompactGame
+ */
+public interface MoveDictionary {
+    /**
+     * The maximum number of moves in the dictionary, the ids are less than {@code 0xFFFF}.
+     */
+    int MAXIMUM_SIZE = 0xFFFF;
+
+    /**
+     * Returns the id of the move without comment, NAG and variation with the same bytes as {@code move}, the move is
+     * added if there is no such move.
+     *
+     * @param move The move. Only the move bytes are considered.
+     *
+     * @return The id or {@code -1} if the dictionary is full.
+     */
+    int id(Move move);
+
+    /**
+     * @param id The id.
+     *
+     * @return The move without comment, NAG and variation.
+     *
+     * @throws IllegalArgumentException When there is no move with the {@code id}.
+     */
+    Move move(int id);
+}
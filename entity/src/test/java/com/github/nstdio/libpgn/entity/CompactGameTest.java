@@ -0,0 +1,95 @@
+package com.github.nstdio.libpgn.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CompactGameTest {
+    private final ListDictionary dictionary = new ListDictionary();
+
+    private CompactGame compact(final List<MoveText> moves) {
+        final CompactGame.Builder builder = CompactGame.builder(dictionary);
+
+        for (MoveText movetext : moves) {
+            builder.add(movetext.moveNo(), movetext.white().orElse(null), movetext.black().orElse(null));
+        }
+
+        return builder.build(Collections.singletonList(TagPair.of("White", "A")), null, Result.WHITE);
+    }
+
+    @Test
+    void decodesMainline() {
+        final List<MoveText> moves = Arrays.asList(
+                MoveText.of(1, "e4", "e5"),
+                MoveText.of(2, Move.of("Nf3", "Comment"), Move.of("Nc6")),
+                MoveText.ofWhite(3, Move.of("Bb5", Collections.singletonList(MoveText.ofWhite(3, "Bc4"))))
+        );
+
+        final CompactGame game = compact(moves);
+
+        assertThat(game.moves()).isEqualTo(moves);
+        assertThat(game.plyCount()).isEqualTo(5);
+        assertThat(game.moveId(0)).isEqualTo(0);
+        assertThat(game.moveId(2)).isEqualTo(2);
+        assertThat(game.ply(2)).isSameAs(moves.get(1).white().get());
+        assertThat(game.plyNumber(4)).isEqualTo(4);
+        assertThat(game.white()).isEqualTo("A");
+        assertThat(game.gameResult()).isEqualTo(Result.WHITE);
+        assertThat(dictionary.moves).hasSize(5);
+    }
+
+    @Test
+    void keepsNumberingBreaks() {
+        final List<MoveText> moves = Arrays.asList(
+                MoveText.ofBlack(12, "Kh8"),
+                MoveText.of(13, "Qh5", "Rf8"),
+                MoveText.ofWhite(14, "Rf1"),
+                MoveText.of(20, "e4", "e5"),
+                MoveText.ofBlack(20, "e5")
+        );
+
+        final CompactGame game = compact(moves);
+
+        assertThat(game.moves()).isEqualTo(moves);
+        assertThat(game.plyNumber(0)).isEqualTo(23);
+        assertThat(game.plyNumber(4)).isEqualTo(38);
+    }
+
+    @Test
+    void reusesBuilder() {
+        final CompactGame.Builder builder = CompactGame.builder(dictionary);
+
+        builder.add(1, Move.of("d4", "Comment"), null).clear();
+        builder.add(5, null, Move.of("d5"));
+
+        assertThat(builder.build(null, null, Result.UNKNOWN).moves()).containsExactly(MoveText.ofBlack(5, "d5"));
+        assertThat(builder.build(null, null, Result.UNKNOWN).moves()).isEmpty();
+    }
+
+    private static final class ListDictionary implements MoveDictionary {
+        private final List<Move> moves = new ArrayList<>();
+
+        @Override
+        public int id(final Move move) {
+            for (int i = 0; i < moves.size(); i++) {
+                if (Arrays.equals(moves.get(i).move(), move.move())) {
+                    return i;
+                }
+            }
+
+            moves.add(Move.of(move.move()));
+
+            return moves.size() - 1;
+        }
+
+        @Override
+        public Move move(final int id) {
+            return moves.get(id);
+        }
+    }
+}
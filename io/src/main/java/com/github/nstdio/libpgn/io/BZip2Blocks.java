@@ -0,0 +1,231 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Splits the bzip2 file into the independently decodable blocks. The blocks are not byte aligned, they are found by
+ * the 48-bit block magic at any bit offset, and every block is re-wrapped into the standalone single block bzip2
+ * stream: the stream header, the block bits, the end of stream marker and the stream CRC which is equal to the CRC of
+ * the only block. Concatenated streams are supported.
+ * <p>
+ * The splitting is lazy, the file is scanned only up to the end of the requested block.
+ */
+final class BZip2Blocks implements Iterator<Supplier<byte[]>> {
+    private static final long BLOCK_MAGIC = 0x314159265359L;
+    private static final long END_MAGIC = 0x177245385090L;
+    private static final long MAGIC_MASK = (1L << 48) - 1;
+    private static final int MAGIC_BITS = 48;
+    private static final int CRC_BITS = 32;
+
+    /**
+     * The header of the stream with the largest block size, every block fits in it.
+     */
+    private static final long STREAM_HEADER = 0x425A6839L; // BZh9
+
+    /**
+     * The byte at bits 24..31 of the 64-bit window for any bit offset of both magics.
+     */
+    private static final boolean[] CANDIDATES = new boolean[256];
+
+    static {
+        for (int shift = 0; shift < Byte.SIZE; shift++) {
+            CANDIDATES[(int) (BLOCK_MAGIC >>> (24 - shift)) & 0xFF] = true;
+            CANDIDATES[(int) (END_MAGIC >>> (24 - shift)) & 0xFF] = true;
+        }
+    }
+
+    private final MappedFile file;
+    private final long bitSize;
+
+    /**
+     * The bit position of the next block magic or {@code -1} if there are no more blocks.
+     */
+    private long next;
+
+    /**
+     * The magic found by the last {@link #find(long)} call.
+     */
+    private long found;
+
+    BZip2Blocks(final MappedFile file) {
+        this.file = file;
+        this.bitSize = file.size() * Byte.SIZE;
+        this.next = findBlock(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != -1;
+    }
+
+    @Override
+    public Supplier<byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final long start = next;
+        final long marker = find(start + MAGIC_BITS);
+        final long end = marker == -1 ? bitSize : marker;
+
+        if (marker == -1) {
+            next = -1;
+        } else if (found == BLOCK_MAGIC) {
+            next = marker;
+        } else {
+            next = findBlock(marker + MAGIC_BITS);
+        }
+
+        final byte[] stream = stream(start, end);
+
+        return () -> decode(stream);
+    }
+
+    private static byte[] decode(final byte[] stream) {
+        try (final InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(stream))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the standalone stream from the block occupying {@code [start, end)} bits of the file.
+     */
+    private byte[] stream(final long start, final long end) {
+        final long firstByte = start >>> 3;
+        final byte[] bytes = new byte[(int) (((end + 7) >>> 3) - firstByte)];
+
+        try {
+            file.get(firstByte, bytes, 0, bytes.length);
+        } catch (EOFException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final BitWriter out = new BitWriter(bytes.length + 16);
+        final long offset = start & 7;
+        final long length = end - start;
+
+        out.write(STREAM_HEADER, 32);
+
+        for (long bit = 0; bit < length; bit += 56) {
+            final int n = (int) Math.min(56, length - bit);
+            out.write(bits(bytes, offset + bit, n), n);
+        }
+
+        out.write(END_MAGIC, MAGIC_BITS);
+        // The stream CRC of the single block stream is the block CRC following the block magic.
+        out.write(bits(bytes, offset + MAGIC_BITS, CRC_BITS), CRC_BITS);
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads {@code n <= 56} bits starting at {@code position} bit of the array.
+     */
+    private static long bits(final byte[] bytes, final long position, final int n) {
+        final int first = (int) (position >>> 3);
+        final int last = (int) ((position + n - 1) >>> 3);
+        long value = 0;
+
+        for (int i = first; i <= last; i++) {
+            value = value << 8 | bytes[i] & 0xFF;
+        }
+
+        final int tail = (last + 1) * 8 - (int) (position + n);
+
+        return value >>> tail & ((1L << n) - 1);
+    }
+
+    private long findBlock(long from) {
+        while ((from = find(from)) != -1 && found != BLOCK_MAGIC) {
+            from += MAGIC_BITS;
+        }
+
+        return from;
+    }
+
+    /**
+     * Finds the first block or end of stream magic beginning at or after {@code from} bit.
+     *
+     * @return The bit position of the magic or {@code -1} if not found.
+     */
+    private long find(final long from) {
+        final long size = file.size();
+        long window = 0;
+
+        for (long i = from >>> 3; i < size; i++) {
+            window = window << 8 | file.get(i) & 0xFF;
+
+            if (!CANDIDATES[(int) (window >>> 24) & 0xFF]) {
+                continue;
+            }
+
+            // The magic ending at shift 7 begins before the one ending at shift 0.
+            for (int shift = 7; shift >= 0; shift--) {
+                final long start = (i + 1) * 8 - shift - MAGIC_BITS;
+
+                if (start < from) {
+                    continue;
+                }
+
+                final long candidate = window >>> shift & MAGIC_MASK;
+
+                if (candidate == BLOCK_MAGIC || candidate == END_MAGIC) {
+                    found = candidate;
+                    return start;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Big endian bit sink.
+     */
+    private static final class BitWriter {
+        private byte[] buf;
+        private int length;
+        private long acc;
+        private int accBits;
+
+        private BitWriter(final int capacity) {
+            buf = new byte[capacity];
+        }
+
+        private void write(final long value, final int n) {
+            acc = acc << n | value & ((1L << n) - 1);
+            accBits += n;
+
+            while (accBits >= 8) {
+                if (length == buf.length) {
+                    buf = Arrays.copyOf(buf, length * 2);
+                }
+
+                accBits -= 8;
+                buf[length++] = (byte) (acc >>> accBits);
+            }
+
+            acc &= (1L << accBits) - 1;
+        }
+
+        private byte[] toByteArray() {
+            if (accBits > 0) {
+                write(0, 8 - accBits);
+            }
+
+            return Arrays.copyOf(buf, length);
+        }
+    }
+}
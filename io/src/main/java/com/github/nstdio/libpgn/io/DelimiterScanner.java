@@ -0,0 +1,186 @@
+package com.github.nstdio.libpgn.io;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Finds the first occurrence of any byte from the fixed set of delimiters. The search is performed a word at a time:
+ * eight bytes are loaded into single {@code long} and compared against every delimiter broadcast to all eight lanes
+ * (SWAR - SIMD within a register). The masks are computed once per delimiter set, so instances are intended to be
+ * created once and reused.
+ * <p>
+ * The instances of this class are immutable and thread safe.
+ */
+public final class DelimiterScanner {
+    private static final VarHandle ARRAY_LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle BUFFER_LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * Every delimiter repeated in each byte of the {@code long}.
+     */
+    private final long[] masks;
+
+    /**
+     * Used for the bytes that do not fill the whole word.
+     */
+    private final boolean[] delimiters = new boolean[256];
+
+    private DelimiterScanner(final byte[] bytes) {
+        masks = new long[bytes.length];
+
+        for (int i = 0; i < bytes.length; i++) {
+            masks[i] = (bytes[i] & 0xFFL) * ONES;
+            delimiters[bytes[i] & 0xFF] = true;
+        }
+    }
+
+    /**
+     * Creates the scanner for provided delimiters. The duplicates are ignored.
+     *
+     * @param delimiters The bytes to search for.
+     *
+     * @return The scanner.
+     *
+     * @throws IllegalArgumentException if {@code delimiters} is empty or any of them does not fit into byte.
+     */
+    public static DelimiterScanner of(final int... delimiters) {
+        if (delimiters.length == 0) {
+            throw new IllegalArgumentException("At least one delimiter required.");
+        }
+
+        final byte[] bytes = new byte[delimiters.length];
+        int size = 0;
+
+        for (final int delimiter : delimiters) {
+            if (delimiter < 0 || delimiter > 0xFF) {
+                throw new IllegalArgumentException(String.format("Delimiter is out of byte range: %d", delimiter));
+            }
+
+            final byte b = (byte) delimiter;
+            boolean duplicate = false;
+
+            for (int i = 0; i < size && !duplicate; i++) {
+                duplicate = bytes[i] == b;
+            }
+
+            if (!duplicate) {
+                bytes[size++] = b;
+            }
+        }
+
+        return new DelimiterScanner(Arrays.copyOf(bytes, size));
+    }
+
+    /**
+     * Whether {@code b} is one of the delimiters.
+     *
+     * @param b The byte to check.
+     *
+     * @return {@code true} if {@code b} is the delimiter.
+     */
+    public boolean isDelimiter(final int b) {
+        return delimiters[b & 0xFF];
+    }
+
+    /**
+     * Searches for the delimiter in {@code [from, to)} range of the array.
+     *
+     * @param bytes The bytes to search in.
+     * @param from  The start index (inclusive).
+     * @param to    The end index (exclusive).
+     *
+     * @return The index of the first delimiter or {@code -1} if there is no delimiter in the range.
+     */
+    public int indexOf(final byte[] bytes, final int from, final int to) {
+        // Most of the tokens are short, so the first word is checked by table lookups.
+        int i = from;
+
+        for (final int n = Math.min(from + Long.BYTES, to); i < n; i++) {
+            if (delimiters[bytes[i] & 0xFF]) {
+                return i;
+            }
+        }
+
+        for (final int n = to - Long.BYTES; i <= n; i += Long.BYTES) {
+            final long found = match((long) ARRAY_LONGS.get(bytes, i));
+
+            if (found != 0) {
+                return i + firstLane(found);
+            }
+        }
+
+        for (; i < to; i++) {
+            if (delimiters[bytes[i] & 0xFF]) {
+                return i;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Searches for the delimiter in {@code [from, to)} range of the buffer. The position, limit and byte order of the
+     * buffer are not used and not affected.
+     *
+     * @param buffer The buffer to search in.
+     * @param from   The start index (inclusive).
+     * @param to     The end index (exclusive).
+     *
+     * @return The index of the first delimiter or {@code -1} if there is no delimiter in the range.
+     */
+    public int indexOf(final ByteBuffer buffer, final int from, final int to) {
+        int i = from;
+
+        for (final int n = Math.min(from + Long.BYTES, to); i < n; i++) {
+            if (delimiters[buffer.get(i) & 0xFF]) {
+                return i;
+            }
+        }
+
+        for (final int n = to - Long.BYTES; i <= n; i += Long.BYTES) {
+            final long found = match((long) BUFFER_LONGS.get(buffer, i));
+
+            if (found != 0) {
+                return i + firstLane(found);
+            }
+        }
+
+        for (; i < to; i++) {
+            if (delimiters[buffer.get(i) & 0xFF]) {
+                return i;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Sets the high bit of every byte that is equal to any delimiter. The bytes located after the first match can be
+     * false positives because of borrow propagation, but the lowest set bit always points to the real match.
+     */
+    private long match(final long word) {
+        if (masks.length == 1) {
+            final long x = word ^ masks[0];
+            return (x - ONES) & ~x & HIGHS;
+        }
+
+        long found = 0;
+
+        for (final long mask : masks) {
+            final long x = word ^ mask;
+            found |= (x - ONES) & ~x & HIGHS;
+        }
+
+        return found;
+    }
+
+    private static int firstLane(final long found) {
+        return Long.numberOfTrailingZeros(found) >>> 3;
+    }
+}
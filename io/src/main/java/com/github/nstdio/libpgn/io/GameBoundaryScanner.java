@@ -0,0 +1,84 @@
+package com.github.nstdio.libpgn.io;
+
+import java.util.Objects;
+
+/**
+ * Finds the positions where the games begin without tokenizing the data. The game begins with {@code '['} at the
+ * beginning of the line when the previous non-whitespace bytes are the game termination marker ({@code 1-0},
+ * {@code 0-1}, {@code 1/2-1/2} or {@code *}) or when there is nothing but whitespace before it. The check is purely
+ * local, so the scan can be started from any position of the file.
+ */
+public final class GameBoundaryScanner {
+    private static final DelimiterScanner LINE_FEED = DelimiterScanner.of('\n');
+    private static final int NOT_FOUND = -1;
+
+    private final MappedFile file;
+
+    /**
+     * Constructs the scanner over the whole file.
+     *
+     * @param file The mapped file.
+     */
+    public GameBoundaryScanner(final MappedFile file) {
+        this.file = Objects.requireNonNull(file);
+    }
+
+    /**
+     * Finds the first game start at or after {@code from}.
+     *
+     * @param from The absolute position to start search from (inclusive).
+     * @param to   The absolute position to stop search at (exclusive).
+     *
+     * @return The position of {@code '['} that begins the game or {@code to} if there is no game start in the range.
+     */
+    public long next(final long from, final long to) {
+        long position = Math.max(from, 0);
+
+        while (position < to) {
+            if (file.get(position) == '[' && isLineStart(position) && followsTermination(position)) {
+                return position;
+            }
+
+            final long lineFeed = file.indexOf(LINE_FEED, position, to);
+
+            if (lineFeed == NOT_FOUND) {
+                break;
+            }
+
+            position = lineFeed + 1;
+        }
+
+        return to;
+    }
+
+    /**
+     * Whether the game begins exactly at {@code position}.
+     *
+     * @param position The absolute position to check.
+     *
+     * @return {@code true} if the game begins at {@code position}.
+     */
+    public boolean isGameStart(final long position) {
+        return position >= 0 && position < file.size() && file.get(position) == '['
+                && isLineStart(position) && followsTermination(position);
+    }
+
+    private boolean isLineStart(final long position) {
+        return position == 0 || file.get(position - 1) == '\n';
+    }
+
+    private boolean followsTermination(final long position) {
+        long tail = 0;
+        int length = 0;
+
+        for (long i = position - 1; i >= 0 && length < GameTermination.TAIL_LENGTH; i--) {
+            final byte b = file.get(i);
+
+            if (!GameTermination.isWhiteSpace(b)) {
+                tail |= (long) (b & 0xFF) << (length++ << 3);
+            }
+        }
+
+        return GameTermination.endsGame(tail);
+    }
+}
@@ -0,0 +1,324 @@
+package com.github.nstdio.libpgn.io;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * The positions where the games of the PGN file begin, so any game can be reached without parsing the preceding ones.
+ * The index is stored next to the PGN file in {@code <name>.idx} file as the delta encoded offsets and is built by the
+ * single pass of {@link GameBoundaryScanner} over the mapped file.
+ * <p>
+ * The stored index is used as long as size and modification time of the PGN file are the same as when the index was
+ * written. When the file has grown and its previously indexed part is unchanged, only the appended part is scanned.
+ * <p>
+ * The games without tag pair section cannot be told apart from the movetext of the previous game by the boundary scan,
+ * so they are indexed as part of the previous game.
+ */
+public final class GameIndex {
+    /**
+     * The suffix appended to the name of PGN file.
+     */
+    public static final String SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x50474E49; // PGNI
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the end of indexed part used to check that the file was only appended to.
+     */
+    private static final int TAIL_SIZE = 4096;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final long fileSize;
+    private final long lastModified;
+    private final long tailChecksum;
+    private final long[] offsets;
+    private final int size;
+
+    private GameIndex(final long fileSize, final long lastModified, final long tailChecksum, final long[] offsets,
+                      final int size) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.tailChecksum = tailChecksum;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Loads the index of the {@code pgn} file, building or updating it when the stored index is missing or stale. The
+     * updated index is written back next to the file.
+     *
+     * @param pgn The plain PGN file.
+     *
+     * @return The up-to-date index.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public static GameIndex of(final Path pgn) throws IOException {
+        return of(pgn, MappedFile.map(Objects.requireNonNull(pgn)));
+    }
+
+    /**
+     * Loads the index of the {@code pgn} file already mapped by the caller, so the file is not mapped twice.
+     *
+     * @param pgn  The plain PGN file.
+     * @param file The mapping of {@code pgn}.
+     *
+     * @return The up-to-date index.
+     *
+     * @throws IOException if an I/O error occurs.
+     * @see #of(Path)
+     */
+    public static GameIndex of(final Path pgn, final MappedFile file) throws IOException {
+        Objects.requireNonNull(pgn);
+        Objects.requireNonNull(file);
+
+        final Path indexPath = indexPath(pgn);
+        final long lastModified = Files.getLastModifiedTime(pgn).toMillis();
+        final GameIndex stored = read(indexPath);
+
+        if (stored != null && stored.fileSize == file.size() && stored.lastModified == lastModified) {
+            return stored;
+        }
+
+        final GameIndex index = stored != null && stored.isPrefixOf(file)
+                ? stored.append(file, lastModified)
+                : build(file, lastModified);
+
+        index.write(indexPath);
+
+        return index;
+    }
+
+    /**
+     * Builds the index of the mapped file without storing it.
+     *
+     * @param file The mapped file.
+     *
+     * @return The index.
+     */
+    public static GameIndex build(final MappedFile file) {
+        return build(file, 0);
+    }
+
+    private static GameIndex build(final MappedFile file, final long lastModified) {
+        final long size = file.size();
+        final long[] offsets = new long[INITIAL_CAPACITY];
+
+        if (size == 0) {
+            return new GameIndex(0, lastModified, tailChecksum(file, 0), offsets, 0);
+        }
+
+        // The first game begins at the start of the file even if it has no tag pair section.
+        final long first = new GameBoundaryScanner(file).next(0, size);
+        final long from = isBlank(file, first) ? first : 0;
+        offsets[0] = from;
+
+        return new GameIndex(0, lastModified, 0, offsets, 1).append(file, lastModified);
+    }
+
+    /**
+     * Continues the scan from the last indexed game.
+     */
+    private GameIndex append(final MappedFile file, final long lastModified) {
+        final GameBoundaryScanner boundaries = new GameBoundaryScanner(file);
+        final long end = file.size();
+        long[] offsets = Arrays.copyOf(this.offsets, Math.max(this.offsets.length, INITIAL_CAPACITY));
+        int size = this.size;
+
+        if (size == 0) {
+            return build(file, lastModified);
+        }
+
+        for (long position = boundaries.next(offsets[size - 1] + 1, end); position < end;
+             position = boundaries.next(position + 1, end)) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size + (size >>> 1));
+            }
+
+            offsets[size++] = position;
+        }
+
+        return new GameIndex(end, lastModified, tailChecksum(file, end), offsets, size);
+    }
+
+    private static boolean isBlank(final MappedFile file, final long end) {
+        for (long i = 0; i < end; i++) {
+            final byte b = file.get(i);
+
+            if (b != ' ' && b != '\r' && b != '\n' && b != '\t' && b != '\0') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isPrefixOf(final MappedFile file) {
+        return file.size() > fileSize && tailChecksum(file, fileSize) == tailChecksum;
+    }
+
+    private static long tailChecksum(final MappedFile file, final long end) {
+        final int length = (int) Math.min(TAIL_SIZE, end);
+        final byte[] tail = new byte[length];
+
+        try {
+            file.get(end - length, tail, 0, length);
+        } catch (EOFException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(tail);
+
+        return crc.getValue();
+    }
+
+    /**
+     * @param pgn The PGN file.
+     *
+     * @return The path of the index file for {@code pgn}.
+     */
+    public static Path indexPath(final Path pgn) {
+        return pgn.resolveSibling(pgn.getFileName() + SUFFIX);
+    }
+
+    private static GameIndex read(final Path indexPath) throws IOException {
+        try (final InputStream is = Files.newInputStream(indexPath);
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                return null;
+            }
+
+            final long fileSize = in.readLong();
+            final long lastModified = in.readLong();
+            final long tailChecksum = in.readLong();
+            final int size = in.readInt();
+
+            if (size < 0) {
+                return null;
+            }
+
+            final long[] offsets = new long[Math.max(size, INITIAL_CAPACITY)];
+            long offset = 0;
+
+            for (int i = 0; i < size; i++) {
+                offset += readVarLong(in);
+                offsets[i] = offset;
+            }
+
+            return new GameIndex(fileSize, lastModified, tailChecksum, offsets, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (EOFException e) {
+            // Truncated index is rebuilt.
+            return null;
+        }
+    }
+
+    private void write(final Path indexPath) throws IOException {
+        final Path tmp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+
+        try (final OutputStream os = Files.newOutputStream(tmp);
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeLong(tailChecksum);
+            out.writeInt(size);
+
+            long previous = 0;
+
+            for (int i = 0; i < size; i++) {
+                writeVarLong(out, offsets[i] - previous);
+                previous = offsets[i];
+            }
+        }
+
+        try {
+            Files.move(tmp, indexPath, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, indexPath, REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeVarLong(final DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed index.");
+    }
+
+    /**
+     * @return The number of indexed games.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The size of the indexed file.
+     */
+    public long fileSize() {
+        return fileSize;
+    }
+
+    /**
+     * @param game The zero based game number.
+     *
+     * @return The absolute position where the game begins.
+     *
+     * @throws IndexOutOfBoundsException if {@code game} is out of {@code [0, size())} range.
+     */
+    public long offset(final int game) {
+        Objects.checkIndex(game, size);
+        return offsets[game];
+    }
+
+    /**
+     * @param game The zero based game number.
+     *
+     * @return The absolute position where the game ends, that is where the next game begins or the file size for the
+     * last game.
+     *
+     * @throws IndexOutOfBoundsException if {@code game} is out of {@code [0, size())} range.
+     */
+    public long end(final int game) {
+        Objects.checkIndex(game, size);
+        return game + 1 < size ? offsets[game + 1] : fileSize;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.nstdio.libpgn.io;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single definition of the game boundary rule shared by {@link GameBoundaryScanner} and {@link PgnFileSlicer}.
+ * The rule looks at the last non-whitespace bytes before {@code '['} packed into {@code long}, the latest one in the
+ * lowest byte.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class GameTermination {
+    /**
+     * The number of bytes that is enough to recognize any termination marker.
+     */
+    static final int TAIL_LENGTH = 7;
+
+    private static final long STAR = '*';
+    private static final long WHITE_WINS = pack("1-0");
+    private static final long BLACK_WINS = pack("0-1");
+    private static final long DRAW = pack("1/2-1/2");
+    private static final long TAIL_MASK = 0xFF_FFFF_FFFF_FFFFL;
+
+    private static long pack(final String marker) {
+        long packed = 0;
+
+        for (int i = 0; i < marker.length(); i++) {
+            packed = packed << 8 | marker.charAt(i);
+        }
+
+        return packed;
+    }
+
+    /**
+     * Appends the byte to the tail.
+     *
+     * @param tail The last non-whitespace bytes.
+     * @param b    The next non-whitespace byte.
+     *
+     * @return The new tail.
+     */
+    static long append(final long tail, final byte b) {
+        return (tail << 8 | (b & 0xFF)) & TAIL_MASK;
+    }
+
+    /**
+     * @param tail The last non-whitespace bytes, {@code 0} when there are none.
+     *
+     * @return Whether the game may begin after {@code tail}: it is empty or ends with the game termination marker.
+     */
+    static boolean endsGame(final long tail) {
+        return tail == 0 || (tail & 0xFF) == STAR || (tail & 0xFF_FFFF) == WHITE_WINS
+                || (tail & 0xFF_FFFF) == BLACK_WINS || tail == DRAW;
+    }
+
+    static boolean isWhiteSpace(final byte b) {
+        switch (b) {
+            case ' ':
+            case '\r':
+            case '\n':
+            case '\t':
+            case '\0':
+                return true;
+            default:
+                return false;
+        }
+    }
+}
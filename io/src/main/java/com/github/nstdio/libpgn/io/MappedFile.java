@@ -0,0 +1,196 @@
+package com.github.nstdio.libpgn.io;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * The read-only view of the file mapped into memory. Since single {@code MappedByteBuffer} cannot address more than
+ * {@link Integer#MAX_VALUE} bytes the file is mapped as a sequence of equally sized chunks, so files larger than 2 GB
+ * are supported as well. All positions are absolute offsets from the beginning of the file.
+ * <p>
+ * The instances of this class are immutable and can be safely shared between threads as long as the caller does not
+ * rely on buffer positions returned by {@link #slice(long, int)}.
+ */
+public final class MappedFile {
+    /**
+     * The default chunk size is 1 GB.
+     */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    private final ByteBuffer[] chunks;
+    private final long size;
+    private final int chunkShift;
+    private final long chunkMask;
+
+    MappedFile(final ByteBuffer[] chunks, final long size, final int chunkShift) {
+        this.chunks = chunks;
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+    }
+
+    /**
+     * Maps the whole file into memory.
+     *
+     * @param path The file to map.
+     *
+     * @return The mapped file.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public static MappedFile map(final Path path) throws IOException {
+        return map(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Creates the view over the byte array, so the in-memory data can be handled the same way as mapped files. The
+     * array is not copied.
+     *
+     * @param bytes The data.
+     *
+     * @return The view.
+     */
+    public static MappedFile wrap(final byte[] bytes) {
+        return new MappedFile(new ByteBuffer[]{ByteBuffer.wrap(bytes)}, bytes.length, Integer.SIZE - 1);
+    }
+
+    static MappedFile map(final Path path, final int chunkShift) throws IOException {
+        Objects.requireNonNull(path);
+
+        // The mapping stays valid after the channel is closed.
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long chunkSize = 1L << chunkShift;
+            final ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) >>> chunkShift)];
+
+            for (int i = 0; i < chunks.length; i++) {
+                final long position = (long) i << chunkShift;
+                chunks[i] = channel.map(READ_ONLY, position, Math.min(chunkSize, size - position));
+            }
+
+            return new MappedFile(chunks, size, chunkShift);
+        }
+    }
+
+    /**
+     * @return The size of mapped file in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the byte at given position. The caller is responsible for bounds checking.
+     *
+     * @param position The absolute position.
+     *
+     * @return The byte at {@code position}.
+     */
+    public byte get(final long position) {
+        return chunks[(int) (position >>> chunkShift)].get((int) (position & chunkMask));
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code position} into {@code dst}.
+     *
+     * @param position The absolute position of the first byte to copy.
+     * @param dst      The destination array.
+     * @param offset   The offset in {@code dst}.
+     * @param length   The number of bytes to copy.
+     *
+     * @throws EOFException if the requested range exceeds the file size.
+     */
+    public void get(long position, final byte[] dst, int offset, int length) throws EOFException {
+        checkRange(position, length);
+
+        while (length > 0) {
+            final ByteBuffer chunk = chunks[(int) (position >>> chunkShift)];
+            final int chunkPosition = (int) (position & chunkMask);
+            final int n = Math.min(length, chunk.limit() - chunkPosition);
+
+            chunk.duplicate().position(chunkPosition).get(dst, offset, n);
+
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Creates the read-only view of the {@code length} bytes starting at {@code position}. The view shares the content
+     * with the mapped file and no copy is made unless the range spans two chunks.
+     *
+     * @param position The absolute position of the first byte.
+     * @param length   The length of the view.
+     *
+     * @return The view.
+     *
+     * @throws EOFException if the requested range exceeds the file size.
+     */
+    public ByteBuffer slice(final long position, final int length) throws EOFException {
+        checkRange(position, length);
+
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        final int first = (int) (position >>> chunkShift);
+        final int chunkPosition = (int) (position & chunkMask);
+
+        if (first == (int) ((position + length - 1) >>> chunkShift)) {
+            final ByteBuffer view = chunks[first].asReadOnlyBuffer();
+            view.position(chunkPosition).limit(chunkPosition + length);
+
+            return view.slice();
+        }
+
+        final byte[] copy = new byte[length];
+        get(position, copy, 0, length);
+
+        return ByteBuffer.wrap(copy).asReadOnlyBuffer();
+    }
+
+    /**
+     * Searches for the first delimiter known to {@code scanner} in {@code [from, to)} range.
+     *
+     * @param scanner The scanner for delimiters.
+     * @param from    The absolute start position (inclusive).
+     * @param to      The absolute end position (exclusive).
+     *
+     * @return The absolute position of the first delimiter or {@code -1} if there is no delimiter in the range.
+     */
+    public long indexOf(final DelimiterScanner scanner, long from, final long to) {
+        while (from < to) {
+            final int chunk = (int) (from >>> chunkShift);
+            final long chunkStart = (long) chunk << chunkShift;
+            final int chunkEnd = (int) Math.min(to - chunkStart, chunks[chunk].limit());
+            final int index = scanner.indexOf(chunks[chunk], (int) (from - chunkStart), chunkEnd);
+
+            if (index != -1) {
+                return chunkStart + index;
+            }
+
+            from = chunkStart + chunkEnd;
+        }
+
+        return -1;
+    }
+
+    private void checkRange(final long position, final int length) throws EOFException {
+        if (position < 0 || length < 0) {
+            throw new IndexOutOfBoundsException(String.format("position: %d, length: %d", position, length));
+        }
+
+        if (position + length > size) {
+            throw new EOFException(String.format("Range [%d, %d) exceeds file size %d.", position, position + length, size));
+        }
+    }
+}
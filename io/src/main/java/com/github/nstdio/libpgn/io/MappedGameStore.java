@@ -0,0 +1,1002 @@
+package com.github.nstdio.libpgn.io;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Nonnull;
+
+import com.github.nstdio.libpgn.common.ArrayUtils;
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.Move;
+import com.github.nstdio.libpgn.entity.MoveText;
+import com.github.nstdio.libpgn.entity.Result;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+/**
+ * The off-heap store of the parsed games, so the databases larger than the heap stay queryable. The games are kept in
+ * three memory-mapped files of the store directory:
+ * <ul>
+ * <li>{@value #RECORDS} holds the game records, see below.</li>
+ * <li>{@value #DICTIONARY} holds the tag names, the repeated tag values and the distinct moves, the records refer to
+ * them by the offset. The moves are numbered by the table in the file header, so the ply takes two bytes.</li>
+ * <li>{@value #OFFSETS} holds the record offset of every game, so any game is reached in constant time.</li>
+ * </ul>
+ * The record consists of the fixed header with the counts of the tags, plies, numbering breaks and annotated plies,
+ * followed by the references of the tags, the move ids of the mainline and the annotations. The comments and NAGs of
+ * the moves are kept, the variations are dropped.
+ * <p>
+ * The tag value goes to the dictionary only when it is met again soon after, e.g. player names or events, the values
+ * unique to the game, e.g. site URLs or times, are kept inline in the record. The writer finds the dictionary entries
+ * through the bounded cache, so the heap used by the store does not grow with the database. The reopened store reads
+ * only the move table, the cache is filled by the following appends.
+ * <p>
+ * The games returned by {@link #get(long)} read the mapped bytes on every access, nothing is decoded in advance. The
+ * store is appended by single writer at a time, the readers take no lock and see the games appended before {@link
+ * #size()} was read. The files grow by chunks, so the record cannot be larger than the chunk.
+ */
+public final class MappedGameStore implements Closeable {
+    public static final String RECORDS = "games.dat";
+    public static final String DICTIONARY = "dictionary.dat";
+    public static final String OFFSETS = "offsets.dat";
+
+    /**
+     * The maximum number of distinct moves.
+     */
+    public static final int MAXIMUM_MOVES = 0xFFFF;
+
+    static final int DEFAULT_CHUNK_SHIFT = 27;
+
+    private static final int MAGIC = 0x50474E53; // PGNS
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int END = 8;
+    private static final int MOVE_COUNT = HEADER_SIZE;
+    private static final int MOVE_TABLE = MOVE_COUNT + 4;
+    private static final int DICTIONARY_START = MOVE_TABLE + MAXIMUM_MOVES * 8;
+    private static final int MAXIMUM_ENTRY_LENGTH = 0xFFFF;
+
+    /**
+     * The number of the dictionary entries and the candidate tag values remembered by the writer.
+     */
+    static final int CACHE_SIZE = 1 << 14;
+
+    private static final int TAG_COUNT = 0;
+    private static final int RESULT = 1;
+    private static final int PLY_COUNT = 4;
+    private static final int FIRST_PLY = 8;
+    private static final int BREAK_COUNT = 12;
+    private static final int ANNOTATION_COUNT = 16;
+    private static final int COMMENT_LENGTH = 20;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final int TAG_SIZE = 16;
+
+    private static final Result[] RESULTS = Result.values();
+    private static final long INLINE = -1;
+
+    private final Region records;
+    private final Region dictionary;
+    private final Region offsets;
+
+    private final Map<ByteBuffer, Long> entries = lru(CACHE_SIZE);
+    private final Set<ByteBuffer> candidates = Collections.newSetFromMap(lru(CACHE_SIZE));
+    private final Map<ByteBuffer, Integer> moveIds = new HashMap<>();
+    private long recordsEnd;
+    private long dictionaryEnd;
+    private int moveCount;
+
+    /**
+     * The number of committed games, the readers see the bytes written before it was incremented.
+     */
+    private volatile long size;
+
+    private MappedGameStore(final Region records, final Region dictionary, final Region offsets) {
+        this.records = records;
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Opens the store in the {@code directory}, the store is created if the directory has none.
+     *
+     * @param directory The store directory.
+     *
+     * @return The store.
+     *
+     * @throws IOException if an I/O error occurs or the files are not the store files.
+     */
+    public static MappedGameStore open(final Path directory) throws IOException {
+        return open(directory, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static MappedGameStore open(final Path directory, final int chunkShift) throws IOException {
+        Objects.requireNonNull(directory);
+
+        if (1L << chunkShift <= DICTIONARY_START) {
+            throw new IllegalArgumentException("The chunk cannot hold the dictionary header.");
+        }
+
+        Files.createDirectories(directory);
+
+        final Region records = Region.open(directory.resolve(RECORDS), chunkShift);
+        final Region dictionary = Region.open(directory.resolve(DICTIONARY), chunkShift);
+        final Region offsets = Region.open(directory.resolve(OFFSETS), chunkShift);
+        final MappedGameStore store = new MappedGameStore(records, dictionary, offsets);
+
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+
+        return store;
+    }
+
+    private static <V> Map<ByteBuffer, V> lru(final int capacity) {
+        return new LinkedHashMap<ByteBuffer, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private void load() throws IOException {
+        recordsEnd = records.header(HEADER_SIZE);
+        dictionaryEnd = dictionary.header(DICTIONARY_START);
+        final long committed = (offsets.header(HEADER_SIZE) - HEADER_SIZE) >>> 3;
+
+        moveCount = dictionary.getInt(MOVE_COUNT);
+
+        for (int id = 0; id < moveCount; id++) {
+            moveIds.put(ByteBuffer.wrap(entryBytes(moveEntry(id))), id);
+        }
+
+        size = committed;
+    }
+
+    /**
+     * @return The number of games.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Appends the game. The game is visible to the readers as soon as this method returns.
+     *
+     * @param game The game.
+     *
+     * @return The index of the game.
+     *
+     * @throws IllegalArgumentException When the game record is larger than the chunk.
+     * @throws IllegalStateException    When the store has more than {@link #MAXIMUM_MOVES} distinct moves.
+     * @throws UncheckedIOException     if an I/O error occurs.
+     */
+    public synchronized long append(final Game game) {
+        try {
+            final ByteBuffer record = encode(game);
+            final long position = records.allocate(recordsEnd, record.remaining());
+            records.put(position, record);
+            recordsEnd = position + record.limit();
+
+            final long index = size;
+            offsets.putLong(HEADER_SIZE + (index << 3), position);
+
+            records.putLong(END, recordsEnd);
+            dictionary.putInt(MOVE_COUNT, moveCount);
+            dictionary.putLong(END, dictionaryEnd);
+            offsets.putLong(END, HEADER_SIZE + ((index + 1) << 3));
+
+            size = index + 1;
+
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the games, e.g. {@code store.appendAll(parser.stream())}. The stream is consumed in its encounter order.
+     *
+     * @param games The games.
+     *
+     * @return The number of appended games.
+     */
+    public long appendAll(final Stream<? extends Game> games) {
+        final long before = size;
+
+        try (final Stream<? extends Game> stream = games) {
+            stream.forEachOrdered(this::append);
+        }
+
+        return size - before;
+    }
+
+    /**
+     * @param index The index of the game.
+     *
+     * @return The game reading the mapped bytes.
+     *
+     * @throws IndexOutOfBoundsException When there is no game with such index.
+     */
+    public MappedGame get(final long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("index: %d, size: %d", index, size));
+        }
+
+        return new MappedGame(offsets.getLong(HEADER_SIZE + (index << 3)));
+    }
+
+    /**
+     * @return The stream of the games appended before this call.
+     */
+    public Stream<Game> stream() {
+        return LongStream.range(0, size).mapToObj(this::get);
+    }
+
+    /**
+     * Writes the mapped changes to the storage and closes the files. The games obtained before stay readable.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException exception = null;
+
+        for (final Region region : Arrays.asList(records, dictionary, offsets)) {
+            try {
+                region.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private ByteBuffer encode(final Game game) throws IOException {
+        final List<TagPair> tagPairs = game.tagPairSection() == null ? Collections.emptyList() : game.tagPairSection();
+        final Plies plies = new Plies();
+
+        if (game.moves() != null) {
+            for (final MoveText movetext : game.moves()) {
+                plies.add(movetext);
+            }
+        }
+
+        if (tagPairs.size() > 0xFF) {
+            throw new IllegalArgumentException("The game has more than 255 tag pairs.");
+        }
+
+        final long[] tags = new long[tagPairs.size() * 2];
+        final List<byte[]> inline = new ArrayList<>();
+
+        for (int i = 0; i < tagPairs.size(); i++) {
+            final TagPair tagPair = tagPairs.get(i);
+
+            tags[i * 2] = reference(tagPair.getTag(), true);
+            tags[i * 2 + 1] = reference(tagPair.getValue(), false);
+
+            for (int j = i * 2; j <= i * 2 + 1; j++) {
+                if (tags[j] == INLINE) {
+                    inline.add(j == i * 2 ? tagPair.getTag() : tagPair.getValue());
+                }
+            }
+        }
+
+        final byte[] comment = game.comment();
+        final int commentStart = RECORD_HEADER_SIZE + tags.length * 8 + align(plies.size * 2) + plies.breaks.size() * 4 +
+                plies.annotated.size() * 8;
+        int length = commentStart + (comment == null ? 0 : comment.length);
+
+        for (final byte[] bytes : inline) {
+            length += bytes.length;
+        }
+
+        final int annotationsStart = length;
+
+        for (final Move move : plies.annotations) {
+            length += 8 + move.comment().length + move.nag().length * 2;
+        }
+
+        final ByteBuffer record = ByteBuffer.allocate(length);
+        record.put((byte) tagPairs.size())
+                .put((byte) (game.gameResult() == null ? 0 : game.gameResult().ordinal() + 1))
+                .putShort((short) 0)
+                .putInt(plies.size)
+                .putInt(plies.firstPly)
+                .putInt(plies.breaks.size() / 2)
+                .putInt(plies.annotated.size())
+                .putInt(comment == null ? -1 : comment.length);
+
+        int inlineOffset = commentStart + (comment == null ? 0 : comment.length);
+        int inlineIndex = 0;
+
+        for (final long tag : tags) {
+            if (tag == INLINE) {
+                final int inlineLength = inline.get(inlineIndex++).length;
+
+                record.putLong(inline(inlineOffset, inlineLength));
+                inlineOffset += inlineLength;
+            } else {
+                record.putLong(tag);
+            }
+        }
+
+        for (int i = 0; i < plies.size; i++) {
+            record.putShort((short) moveId(plies.moves.get(i)));
+        }
+
+        record.position(record.position() + align(plies.size * 2) - plies.size * 2);
+        plies.breaks.forEach(record::putInt);
+
+        int annotationOffset = annotationsStart;
+
+        for (int i = 0; i < plies.annotated.size(); i++) {
+            final Move move = plies.annotations.get(i);
+
+            record.putInt(plies.annotated.get(i)).putInt(annotationOffset);
+            annotationOffset += 8 + move.comment().length + move.nag().length * 2;
+        }
+
+        if (comment != null) {
+            record.put(comment);
+        }
+
+        inline.forEach(record::put);
+
+        for (final Move move : plies.annotations) {
+            record.putInt(move.comment().length).put(move.comment()).putInt(move.nag().length);
+
+            for (final short nag : move.nag()) {
+                record.putShort(nag);
+            }
+        }
+
+        return record.flip();
+    }
+
+    private static int align(final int length) {
+        return (length + 3) & ~3;
+    }
+
+    /**
+     * The reference of the bytes kept inline at {@code offset} of the record. The dictionary references are not
+     * negative.
+     */
+    private static long inline(final int offset, final int length) {
+        return Long.MIN_VALUE | (long) length << 32 | offset;
+    }
+
+    /**
+     * Finds the dictionary entry of the bytes, the entry is added if the bytes are the tag name or the tag value met
+     * recently.
+     *
+     * @return The position of the entry or {@link #INLINE} if the bytes should be kept inline.
+     */
+    private long reference(final byte[] bytes, final boolean name) throws IOException {
+        if (bytes.length >= MAXIMUM_ENTRY_LENGTH) {
+            return INLINE;
+        }
+
+        final ByteBuffer key = ByteBuffer.wrap(bytes);
+        final Long existing = entries.get(key);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        if (!name && !candidates.remove(key)) {
+            candidates.add(ByteBuffer.wrap(bytes.clone()));
+            return INLINE;
+        }
+
+        final long entry = entry(bytes);
+        entries.put(ByteBuffer.wrap(bytes.clone()), entry);
+
+        return entry;
+    }
+
+    private long entry(final byte[] bytes) throws IOException {
+        final long position = dictionary.allocate(dictionaryEnd, 2 + bytes.length);
+
+        dictionary.putShort(position, (short) bytes.length);
+        dictionary.put(position + 2, ByteBuffer.wrap(bytes));
+        dictionaryEnd = position + 2 + bytes.length;
+
+        return position;
+    }
+
+    private int moveId(final Move move) throws IOException {
+        final byte[] bytes = move.move();
+        final Integer existing = moveIds.get(ByteBuffer.wrap(bytes));
+
+        if (existing != null) {
+            return existing;
+        }
+
+        if (moveCount == MAXIMUM_MOVES) {
+            throw new IllegalStateException("The store has more than " + MAXIMUM_MOVES + " distinct moves.");
+        }
+
+        if (bytes.length >= MAXIMUM_ENTRY_LENGTH) {
+            throw new IllegalArgumentException("The move is longer than " + (MAXIMUM_ENTRY_LENGTH - 1) + " bytes.");
+        }
+
+        dictionary.putLong(MOVE_TABLE + moveCount * 8L, entry(bytes));
+        moveIds.put(ByteBuffer.wrap(bytes.clone()), moveCount);
+
+        return moveCount++;
+    }
+
+    private long moveEntry(final int id) {
+        return dictionary.getLong(MOVE_TABLE + id * 8L);
+    }
+
+    private byte[] entryBytes(final long entry) {
+        return dictionary.getBytes(entry + 2, dictionary.getShort(entry) & 0xFFFF);
+    }
+
+    /**
+     * @param reference The dictionary or inline reference.
+     * @param record    The position of the record holding the reference.
+     */
+    private byte[] bytes(final long reference, final long record) {
+        return reference < 0
+                ? records.getBytes(record + (int) reference, (int) (reference >>> 32) & Integer.MAX_VALUE)
+                : entryBytes(reference);
+    }
+
+    private boolean bytesEqual(final long reference, final long record, final byte[] bytes) {
+        final Region region = reference < 0 ? records : dictionary;
+        final long start;
+        final int length;
+
+        if (reference < 0) {
+            start = record + (int) reference;
+            length = (int) (reference >>> 32) & Integer.MAX_VALUE;
+        } else {
+            start = reference + 2;
+            length = dictionary.getShort(reference) & 0xFFFF;
+        }
+
+        if (length != bytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (region.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * The mainline in the order of plies, the same numbering as {@link com.github.nstdio.libpgn.entity.CompactGame}.
+     */
+    private static final class Plies {
+        private final List<Move> moves = new ArrayList<>();
+        private final List<Integer> breaks = new ArrayList<>();
+        private final List<Integer> annotated = new ArrayList<>();
+        private final List<Move> annotations = new ArrayList<>();
+        private int size;
+        private int firstPly;
+        private int nextPly;
+
+        void add(final MoveText movetext) {
+            final Move white = movetext.white().orElse(null);
+            final Move black = movetext.black().orElse(null);
+            final int number = (movetext.moveNo() - 1) * 2 + (white == null ? 1 : 0);
+
+            if (size == 0) {
+                firstPly = number;
+            } else if (number != nextPly) {
+                breaks.add(size);
+                breaks.add(number);
+            }
+
+            Arrays.asList(white, black).forEach(move -> {
+                if (move != null) {
+                    add(move);
+                }
+            });
+
+            nextPly = number + (white != null && black != null ? 2 : 1);
+        }
+
+        private void add(final Move move) {
+            if (move.comment().length != 0 || move.nag().length != 0) {
+                annotated.add(size);
+                annotations.add(move);
+            }
+
+            moves.add(move);
+            size++;
+        }
+    }
+
+    /**
+     * The game reading the record of the store.
+     */
+    public final class MappedGame extends Game {
+        private final long position;
+        private final int tagCount;
+        private final int plyCount;
+        private final int breakCount;
+        private final int annotationCount;
+        private final int commentLength;
+
+        private MappedGame(final long position) {
+            super(null, null, null, null);
+            this.position = position;
+            this.tagCount = records.get(position + TAG_COUNT) & 0xFF;
+            this.plyCount = records.getInt(position + PLY_COUNT);
+            this.breakCount = records.getInt(position + BREAK_COUNT);
+            this.annotationCount = records.getInt(position + ANNOTATION_COUNT);
+            this.commentLength = records.getInt(position + COMMENT_LENGTH);
+        }
+
+        private long tags() {
+            return position + RECORD_HEADER_SIZE;
+        }
+
+        private long plies() {
+            return tags() + tagCount * (long) TAG_SIZE;
+        }
+
+        private long breaks() {
+            return plies() + align(plyCount * 2);
+        }
+
+        private long annotations() {
+            return breaks() + breakCount * 8L;
+        }
+
+        private long commentPosition() {
+            return annotations() + annotationCount * 8L;
+        }
+
+        @Override
+        public List<TagPair> tagPairSection() {
+            return new AbstractList<TagPair>() {
+                @Override
+                public TagPair get(final int index) {
+                    Objects.checkIndex(index, tagCount);
+
+                    final long tag = tags() + index * (long) TAG_SIZE;
+
+                    return new MappedTagPair(records.getLong(tag), records.getLong(tag + 8), position);
+                }
+
+                @Override
+                public int size() {
+                    return tagCount;
+                }
+            };
+        }
+
+        /**
+         * Compares the tag names with the mapped bytes, only the value found is copied.
+         */
+        @Override
+        public String tag(final String name) {
+            final byte[] nameBytes = name.getBytes();
+
+            for (int i = 0; i < tagCount; i++) {
+                final long tag = tags() + i * (long) TAG_SIZE;
+
+                if (bytesEqual(records.getLong(tag), position, nameBytes)) {
+                    return new String(bytes(records.getLong(tag + 8), position));
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public byte[] comment() {
+            return commentLength == -1 ? null : records.getBytes(commentPosition(), commentLength);
+        }
+
+        @Override
+        public Result gameResult() {
+            final int result = records.get(position + RESULT);
+
+            return result == 0 ? null : RESULTS[result - 1];
+        }
+
+        /**
+         * Decodes the mainline. The annotations and numbering breaks are walked once along the plies.
+         *
+         * @return The newly created list.
+         */
+        @Override
+        public List<MoveText> moves() {
+            final Move[] plies = new Move[plyCount];
+            final int[] numbers = new int[plyCount];
+            int annotation = 0;
+            int nextBreak = 0;
+            int number = records.getInt(position + FIRST_PLY);
+
+            for (int i = 0; i < plyCount; i++, number++) {
+                if (nextBreak < breakCount && records.getInt(breaks() + nextBreak * 8L) == i) {
+                    number = records.getInt(breaks() + nextBreak * 8L + 4);
+                    nextBreak++;
+                }
+
+                final long entry = moveEntry(moveId(i));
+
+                if (annotation < annotationCount && records.getInt(annotations() + annotation * 8L) == i) {
+                    plies[i] = new MappedMove(entry, position + records.getInt(annotations() + annotation * 8L + 4));
+                    annotation++;
+                } else {
+                    plies[i] = new MappedMove(entry, -1);
+                }
+
+                numbers[i] = number;
+            }
+
+            final List<MoveText> moves = new ArrayList<>((plyCount >> 1) + 1);
+
+            for (int i = 0; i < plyCount; ) {
+                final int moveNo = (numbers[i] >> 1) + 1;
+
+                if ((numbers[i] & 1) == 0 && i + 1 < plyCount && numbers[i + 1] == numbers[i] + 1) {
+                    moves.add(MoveText.of(moveNo, plies[i], plies[i + 1]));
+                    i += 2;
+                } else {
+                    moves.add((numbers[i] & 1) == 0 ? MoveText.ofWhite(moveNo, plies[i]) : MoveText.ofBlack(moveNo, plies[i]));
+                    i++;
+                }
+            }
+
+            return moves;
+        }
+
+        /**
+         * @return The number of plies in the mainline.
+         */
+        public int plyCount() {
+            return plyCount;
+        }
+
+        /**
+         * @param index The ply index.
+         *
+         * @return The move id of the ply, the same for the same moves of all games of the store.
+         */
+        public int moveId(final int index) {
+            Objects.checkIndex(index, plyCount);
+
+            return records.getShort(plies() + index * 2L) & 0xFFFF;
+        }
+
+        /**
+         * @param index The ply index.
+         *
+         * @return The move reading the mapped bytes.
+         */
+        public Move ply(final int index) {
+            final long entry = moveEntry(moveId(index));
+            int low = 0;
+            int high = annotationCount - 1;
+
+            // The annotated plies are written in ascending order.
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final long annotation = annotations() + middle * 8L;
+                final int ply = records.getInt(annotation);
+
+                if (ply < index) {
+                    low = middle + 1;
+                } else if (ply > index) {
+                    high = middle - 1;
+                } else {
+                    return new MappedMove(entry, position + records.getInt(annotation + 4));
+                }
+            }
+
+            return new MappedMove(entry, -1);
+        }
+
+        /**
+         * @param index The ply index.
+         *
+         * @return The ply number, {@code 0} for the first move of white.
+         */
+        public int plyNumber(final int index) {
+            int number = records.getInt(position + FIRST_PLY) + index;
+
+            for (int i = 0; i < breakCount; i++) {
+                final long pair = breaks() + i * 8L;
+                final int breakIndex = records.getInt(pair);
+
+                if (breakIndex > index) {
+                    break;
+                }
+
+                number = records.getInt(pair + 4) + index - breakIndex;
+            }
+
+            return number;
+        }
+
+        @Override
+        public String toString() {
+            return "MappedGame(tagPairs=" + tagPairSection() + ", comment=" + Arrays.toString(comment()) +
+                    ", moves=" + moves() + ", result=" + gameResult() + ")";
+        }
+    }
+
+    private final class MappedTagPair implements TagPair {
+        private final long tag;
+        private final long value;
+        private final long record;
+
+        private MappedTagPair(final long tag, final long value, final long record) {
+            this.tag = tag;
+            this.value = value;
+            this.record = record;
+        }
+
+        @Nonnull
+        @Override
+        public byte[] getTag() {
+            return bytes(tag, record);
+        }
+
+        @Nonnull
+        @Override
+        public byte[] getValue() {
+            return bytes(value, record);
+        }
+
+        @Override
+        public String toString() {
+            return "MappedTagPair(tag=" + getTagAsString() + ", value=" + getValueAsString() + ")";
+        }
+    }
+
+    private final class MappedMove implements Move {
+        private final long entry;
+
+        /**
+         * The position of the annotation or {@code -1} if there is none.
+         */
+        private final long annotation;
+
+        private MappedMove(final long entry, final long annotation) {
+            this.entry = entry;
+            this.annotation = annotation;
+        }
+
+        @Nonnull
+        @Override
+        public byte[] move() {
+            return entryBytes(entry);
+        }
+
+        @Nonnull
+        @Override
+        public byte[] comment() {
+            return annotation == -1 ? ArrayUtils.EMPTY_BYTE_ARRAY
+                    : records.getBytes(annotation + 4, records.getInt(annotation));
+        }
+
+        @Nonnull
+        @Override
+        public short[] nag() {
+            if (annotation == -1) {
+                return ArrayUtils.EMPTY_SHORT_ARRAY;
+            }
+
+            final long nags = annotation + 4 + records.getInt(annotation);
+            final short[] nag = new short[records.getInt(nags)];
+
+            for (int i = 0; i < nag.length; i++) {
+                nag[i] = records.getShort(nags + 4 + i * 2L);
+            }
+
+            return nag;
+        }
+
+        @Nonnull
+        @Override
+        public List<MoveText> variations() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String toString() {
+            return "MappedMove(move=" + new String(move()) + ")";
+        }
+    }
+
+    /**
+     * The file mapped by chunks of the same size, the chunks are mapped as the file grows. The chunk array is
+     * replaced on growth, so the readers see either the old or the new one.
+     */
+    private static final class Region implements Closeable {
+        private final FileChannel channel;
+        private final int chunkShift;
+        private final long chunkMask;
+        private volatile MappedByteBuffer[] chunks;
+
+        private Region(final FileChannel channel, final int chunkShift, final MappedByteBuffer[] chunks) {
+            this.channel = channel;
+            this.chunkShift = chunkShift;
+            this.chunkMask = (1L << chunkShift) - 1;
+            this.chunks = chunks;
+        }
+
+        static Region open(final Path path, final int chunkShift) throws IOException {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+
+            try {
+                final long chunkSize = 1L << chunkShift;
+                final int count = (int) Math.max(1, (channel.size() + chunkSize - 1) >>> chunkShift);
+                final MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+
+                for (int i = 0; i < count; i++) {
+                    chunks[i] = channel.map(READ_WRITE, (long) i << chunkShift, chunkSize);
+                }
+
+                return new Region(channel, chunkShift, chunks);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Checks the header of the file, the header is written if the file is new.
+         *
+         * @param start The position following the header of the new file.
+         *
+         * @return The end of the data.
+         */
+        long header(final long start) throws IOException {
+            final int magic = getInt(0);
+
+            if (magic == 0) {
+                putInt(0, MAGIC);
+                putInt(4, VERSION);
+                putLong(END, start);
+
+                return start;
+            }
+
+            if (magic != MAGIC || getInt(4) != VERSION) {
+                throw new IOException("Not a game store file or unsupported version.");
+            }
+
+            return getLong(END);
+        }
+
+        /**
+         * @return The position of the {@code length} bytes not spanning two chunks, starting at {@code position} if
+         * possible.
+         */
+        long allocate(final long position, final int length) throws IOException {
+            if (length > chunkMask + 1) {
+                throw new IllegalArgumentException(String.format("The %d bytes do not fit the chunk.", length));
+            }
+
+            final long start = (position & chunkMask) + length > chunkMask + 1 ? nextChunk(position) : position;
+            ensure(start + length);
+
+            return start;
+        }
+
+        private long nextChunk(final long position) {
+            return ((position >>> chunkShift) + 1) << chunkShift;
+        }
+
+        private void ensure(final long end) throws IOException {
+            final MappedByteBuffer[] chunks = this.chunks;
+            final int count = (int) ((end + chunkMask) >>> chunkShift);
+
+            if (count > chunks.length) {
+                final MappedByteBuffer[] grown = Arrays.copyOf(chunks, count);
+
+                for (int i = chunks.length; i < count; i++) {
+                    grown[i] = channel.map(READ_WRITE, (long) i << chunkShift, chunkMask + 1);
+                }
+
+                this.chunks = grown;
+            }
+        }
+
+        private ByteBuffer chunk(final long position) {
+            return chunks[(int) (position >>> chunkShift)];
+        }
+
+        private int index(final long position) {
+            return (int) (position & chunkMask);
+        }
+
+        byte get(final long position) {
+            return chunk(position).get(index(position));
+        }
+
+        short getShort(final long position) {
+            return chunk(position).getShort(index(position));
+        }
+
+        int getInt(final long position) {
+            return chunk(position).getInt(index(position));
+        }
+
+        long getLong(final long position) {
+            return chunk(position).getLong(index(position));
+        }
+
+        byte[] getBytes(final long position, final int length) {
+            final byte[] bytes = new byte[length];
+            final ByteBuffer chunk = chunk(position).duplicate();
+            chunk.position(index(position));
+            chunk.get(bytes);
+
+            return bytes;
+        }
+
+        void put(final long position, final ByteBuffer src) {
+            final ByteBuffer chunk = chunk(position).duplicate();
+            chunk.position(index(position));
+            chunk.put(src);
+        }
+
+        void putShort(final long position, final short value) {
+            chunk(position).putShort(index(position), value);
+        }
+
+        void putInt(final long position, final int value) {
+            chunk(position).putInt(index(position), value);
+        }
+
+        void putLong(final long position, final long value) throws IOException {
+            ensure(position + 8);
+            chunk(position).putLong(index(position), value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (final MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+
+            channel.close();
+        }
+    }
+}
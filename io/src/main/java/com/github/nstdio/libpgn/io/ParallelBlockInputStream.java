@@ -0,0 +1,201 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The input stream decompressing the independent blocks or frames of the compressed file concurrently. The blocks are decoded on
+ * the common fork-join pool and their output is read in the original order. At most {@code blocksInFlight} blocks are
+ * decoded or kept decoded at any time besides the one being read, so the memory use is bounded.
+ * <p>
+ * The bzip2 blocks are found by their bit-level magic. Since the magic can occur inside the compressed data by chance,
+ * though it is extremely unlikely, such file fails to decompress in this mode and should be read sequentially.
+ */
+public final class ParallelBlockInputStream extends InputStream {
+    /**
+     * The maximum uncompressed size of the xz block or Zstandard frame decoded concurrently. The files having the larger
+     * ones are decoded sequentially, so at most {@code blocksInFlight} blocks of this size are kept in memory.
+     */
+    public static final int MAXIMUM_BLOCK_SIZE = 1 << 26;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Iterator<Supplier<byte[]>> blocks;
+    private final int blocksInFlight;
+    private final Deque<CompletableFuture<byte[]>> pending;
+
+    private byte[] current = EMPTY;
+    private int pos;
+    private boolean closed;
+
+    ParallelBlockInputStream(final Iterator<Supplier<byte[]>> blocks, final int blocksInFlight) {
+        if (blocksInFlight <= 0) {
+            throw new IllegalArgumentException("blocksInFlight must be positive.");
+        }
+
+        this.blocks = Objects.requireNonNull(blocks);
+        this.blocksInFlight = blocksInFlight;
+        this.pending = new ArrayDeque<>(blocksInFlight);
+    }
+
+    /**
+     * Creates the stream decompressing the {@code .bz2} file.
+     *
+     * @param file           The bzip2 compressed file.
+     * @param blocksInFlight The maximum number of blocks decoded ahead.
+     *
+     * @return The stream of decompressed data.
+     *
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException When {@code blocksInFlight} is not positive.
+     */
+    public static ParallelBlockInputStream ofBZip2(final Path file, final int blocksInFlight) throws IOException {
+        return new ParallelBlockInputStream(new BZip2Blocks(MappedFile.map(file)), blocksInFlight);
+    }
+
+    /**
+     * Creates the stream decompressing the {@code .xz} file. Only the files compressed in multi-threaded mode consist
+     * of several blocks.
+     *
+     * @param file           The xz compressed file.
+     * @param blocksInFlight The maximum number of blocks decoded ahead.
+     * @param maxBlockSize   The maximum uncompressed size of the block.
+     *
+     * @return The stream of decompressed data or {@code null} if the file has the only block or the block larger than
+     * {@code maxBlockSize}.
+     *
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException When {@code blocksInFlight} is not positive.
+     */
+    @Nullable
+    static ParallelBlockInputStream ofXz(final Path file, final int blocksInFlight, final int maxBlockSize)
+            throws IOException {
+        final List<Supplier<byte[]>> blocks = XzBlocks.of(file, maxBlockSize);
+
+        return blocks == null ? null : new ParallelBlockInputStream(blocks.iterator(), blocksInFlight);
+    }
+
+    /**
+     * Creates the stream decompressing the {@code .zst} file. The frames are decoded straight from the mapped file.
+     *
+     * @param file           The Zstandard compressed file.
+     * @param blocksInFlight The maximum number of frames decoded ahead.
+     * @param maxFrameSize   The maximum decompressed size of the frame.
+     *
+     * @return The stream of decompressed data or {@code null} if the file has the only frame or the frame possibly
+     * larger than {@code maxFrameSize}.
+     *
+     * @throws IOException              if an I/O error occurs or the file is truncated.
+     * @throws IllegalArgumentException When {@code blocksInFlight} is not positive.
+     */
+    @Nullable
+    static ParallelBlockInputStream ofZstd(final Path file, final int blocksInFlight, final int maxFrameSize)
+            throws IOException {
+        final List<Supplier<byte[]>> frames = ZstdFrames.of(MappedFile.map(file), maxFrameSize);
+
+        return frames == null ? null : new ParallelBlockInputStream(frames.iterator(), blocksInFlight);
+    }
+
+    private void fillPending() {
+        while (pending.size() < blocksInFlight && blocks.hasNext()) {
+            pending.add(CompletableFuture.supplyAsync(blocks.next()));
+        }
+    }
+
+    /**
+     * Moves to the next non-empty block.
+     *
+     * @return {@code false} if there are no more blocks.
+     */
+    private boolean advance() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+
+        try {
+            while (pos == current.length) {
+                fillPending();
+
+                if (pending.isEmpty()) {
+                    return false;
+                }
+
+                current = await(pending.poll());
+                pos = 0;
+                fillPending();
+            }
+        } catch (UncheckedIOException e) {
+            // The block boundaries are found on the reading thread.
+            throw e.getCause();
+        }
+
+        return true;
+    }
+
+    private static byte[] await(final CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return advance() ? current[pos++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (!advance()) {
+            return -1;
+        }
+
+        final int n = Math.min(len, current.length - pos);
+        System.arraycopy(current, pos, b, off, n);
+        pos += n;
+
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - pos;
+    }
+
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        current = EMPTY;
+        pos = 0;
+        closed = true;
+    }
+}
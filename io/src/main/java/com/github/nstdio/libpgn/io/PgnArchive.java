@@ -0,0 +1,214 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+/**
+ * The entries of zip or tar archive as separate inputs, so every entry can be parsed by its own parser. The zip entries
+ * are read by random access, each of them can be opened from any thread. The tar entries can only be read one after
+ * another, so the entry content is read into memory when the iterator moves to it.
+ * <p>
+ * Directories are skipped.
+ */
+public abstract class PgnArchive implements Iterator<PgnArchive.Entry>, Closeable {
+    private static final Pattern ZIP = Pattern.compile("\\.zip$");
+    private static final Pattern TAR = Pattern.compile("\\.(tar|tar\\.[xg]z)$");
+
+    PgnArchive() {
+    }
+
+    /**
+     * Opens the archive.
+     *
+     * @param file The {@code .zip}, {@code .tar}, {@code .tar.gz} or {@code .tar.xz} file.
+     *
+     * @return The archive.
+     *
+     * @throws IllegalArgumentException if the file is not supported archive.
+     * @throws UncheckedIOException     if an I/O error occurs.
+     */
+    public static PgnArchive open(final File file) {
+        final String name = Objects.requireNonNull(file).getName();
+
+        if (ZIP.matcher(name).find()) {
+            return new Zip(file);
+        }
+
+        if (TAR.matcher(name).find()) {
+            try {
+                return new Tar(new TarArchiveInputStream(PgnInputStreamFactory.decompressed(file)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        throw new IllegalArgumentException(String.format("Not an archive: %s", file.getPath()));
+    }
+
+    /**
+     * @param file The file.
+     *
+     * @return Whether the file can be opened by {@link #open(File)}.
+     */
+    public static boolean isArchive(final File file) {
+        final String name = file.getName();
+        return ZIP.matcher(name).find() || TAR.matcher(name).find();
+    }
+
+    /**
+     * The single entry of the archive.
+     */
+    public abstract static class Entry {
+        private final String name;
+
+        Entry(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return The entry name including the path within the archive.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Opens the entry content. The caller is responsible for closing the stream.
+         *
+         * @return The entry content.
+         *
+         * @throws UncheckedIOException if an I/O error occurs.
+         */
+        public abstract InputStream open();
+    }
+
+    private static final class Zip extends PgnArchive {
+        private final ZipFile zip;
+        private final Enumeration<? extends ZipEntry> entries;
+        private ZipEntry next;
+
+        private Zip(final File file) {
+            try {
+                zip = new ZipFile(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            entries = zip.entries();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+
+                if (!entry.isDirectory()) {
+                    next = entry;
+                }
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final ZipEntry entry = next;
+            next = null;
+
+            return new Entry(entry.getName()) {
+                @Override
+                public InputStream open() {
+                    try {
+                        return zip.getInputStream(entry);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+
+    private static final class Tar extends PgnArchive {
+        private final ArchiveInputStream in;
+        private ArchiveEntry next;
+
+        private Tar(final ArchiveInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    final ArchiveEntry entry = in.getNextEntry();
+
+                    if (entry == null) {
+                        return false;
+                    }
+
+                    if (!entry.isDirectory()) {
+                        next = entry;
+                    }
+                }
+
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final byte[] content;
+
+            try {
+                content = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            final Entry entry = new Entry(next.getName()) {
+                @Override
+                public InputStream open() {
+                    return new ByteArrayInputStream(content);
+                }
+            };
+            next = null;
+
+            return entry;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.github.nstdio.libpgn.io;
 
-import java.io.*;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
 import static java.nio.file.StandardOpenOption.WRITE;
@@ -13,10 +28,17 @@ import static java.nio.file.StandardOpenOption.WRITE;
 /**
  * Represents cutting one large file into smaller pieces. Since large files are not practical to read completely, this
  * implementation will help to cut a huge file into smaller pieces.
+ * <p>
+ * The file is cut only where the game begins, see {@link GameBoundaryScanner}. The plain file is mapped into memory to
+ * find the cuts, then the chunks are copied concurrently by {@link FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)}, so the content does not pass through the heap. The compressed file is
+ * decoded by {@link PgnInputStreamFactory} and cut while it is read, its chunks are plain PGN files named after the
+ * source without the compression extension.
  */
 public class PgnFileSlicer implements Closeable {
     private static final OpenOption[] DEFAULT_OPEN_OPTIONS = {WRITE, CREATE_NEW};
     private final RandomAccessFile file;
+    private final FileChannel channel;
     private final Path path;
     private final FileNamingStrategy fileNamingStrategy;
     private final int rwBufferSize;
@@ -27,8 +49,8 @@ public class PgnFileSlicer implements Closeable {
      *
      * @param file               The source file.
      * @param fileNamingStrategy The file naming strategy object to somehow name the output files.
-     * @param bufferSize         The size of intermediate buffer to read into and then write from it on destination
-     *                           file.
+     * @param bufferSize         The size of intermediate buffer to read the decompressed data into. Not used for plain
+     *                           files.
      * @param chunkSize          The estimated size for destination file. The output file typically will be a few bytes
      *                           bigger then this size.
      *
@@ -37,49 +59,37 @@ public class PgnFileSlicer implements Closeable {
     public PgnFileSlicer(final File file, final FileNamingStrategy fileNamingStrategy, final int bufferSize,
                          final long chunkSize) throws FileNotFoundException {
         this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
         this.path = file.toPath();
         this.fileNamingStrategy = fileNamingStrategy;
         this.rwBufferSize = bufferSize;
         this.chunkSize = chunkSize;
     }
 
+    /**
+     * Finds the chunk boundaries.
+     *
+     * @return The positions where chunks begin followed by the file size.
+     */
     private long[] marks() throws IOException {
-        final List<Long> em = new ArrayList<>();
-        final long fileSize = file.length();
+        final long fileSize = channel.size();
 
         if (fileSize / chunkSize <= 1.0) {
             throw new IOException("Invalid chunkSize for file.");
         }
 
-        long termination = chunkSize;
-
-        while (termination < fileSize) {
-            final long term = nearestGameTermination(termination);
-            termination = term + chunkSize;
-            em.add(term);
-        }
+        final GameBoundaryScanner scanner = new GameBoundaryScanner(MappedFile.map(path));
+        final List<Long> marks = new ArrayList<>();
+        long mark = 0;
 
-        if (em.get(em.size() - 1) != fileSize) {
-            em.add(fileSize);
+        while (mark < fileSize) {
+            marks.add(mark);
+            mark = scanner.next(mark + chunkSize, fileSize);
         }
 
-        final long[] marks = em.stream().mapToLong(value -> value).toArray();
-        em.clear();
+        marks.add(fileSize);
 
-        return marks;
-    }
-
-    private long nearestGameTermination(final long seek) throws IOException {
-        file.seek(seek);
-
-        String line;
-
-        do {
-            line = file.readLine();
-        }
-        while (!(line.endsWith("1-0") || line.endsWith("1/2-1/2") || line.endsWith("0-1") || line.endsWith("*")));
-
-        return file.getFilePointer();
+        return marks.stream().mapToLong(Long::longValue).toArray();
     }
 
     @Override
@@ -97,30 +107,136 @@ public class PgnFileSlicer implements Closeable {
      *                     than one.
      */
     public void write(OpenOption... options) throws IOException {
-        options = options.length == 0 ? DEFAULT_OPEN_OPTIONS : options;
+        final Set<OpenOption> openOptions = new HashSet<>(Arrays.asList(options.length == 0 ? DEFAULT_OPEN_OPTIONS : options));
+        openOptions.add(WRITE);
 
-        // rewind
-        file.seek(0);
+        final Optional<PgnFormatProvider> format = PgnInputStreamFactory.format(path.toFile());
+
+        if (format.isPresent()) {
+            writeDecoded(format.get(), openOptions);
+        } else {
+            writeChunks(openOptions);
+        }
+    }
 
-        final byte[] rwBuffer = new byte[rwBufferSize];
+    private void writeChunks(final Set<OpenOption> options) throws IOException {
         final long[] marks = marks();
+        final CompletableFuture<?>[] writes = new CompletableFuture<?>[marks.length - 1];
+
+        for (int i = 0; i < writes.length; i++) {
+            final long from = marks[i];
+            final long to = marks[i + 1];
+            final Path out = fileNamingStrategy.name(path, i + 1);
+
+            writes[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    transfer(from, to, out, options);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        try {
+            CompletableFuture.allOf(writes).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
 
-        for (int i = 0; i < marks.length; i++) {
-            write(marks[i], rwBuffer, fileNamingStrategy.name(path, i + 1), options);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
         }
     }
 
-    private void write(final long readUntil, final byte[] rwBuffer, final Path out, final OpenOption... options) throws IOException {
-        try (final OutputStream outputStream = Files.newOutputStream(out, options)) {
-            long pointer = file.getFilePointer();
+    /**
+     * The positional transfer does not move the channel position, so the chunks can be copied from the same channel
+     * concurrently.
+     */
+    private void transfer(final long from, final long to, final Path out, final Set<OpenOption> options) throws IOException {
+        try (final FileChannel target = FileChannel.open(out, options)) {
+            long position = from;
+
+            while (position < to) {
+                final long n = channel.transferTo(position, to - position, target);
+
+                if (n <= 0) {
+                    throw new EOFException(String.format("%s is truncated at %d.", path, position));
+                }
+
+                position += n;
+            }
+        }
+    }
 
-            while (pointer < readUntil) {
-                final int rem = (int) Math.min(readUntil - pointer, rwBufferSize);
-                file.read(rwBuffer, 0, rem);
-                outputStream.write(rwBuffer, 0, rem);
+    private void writeDecoded(final PgnFormatProvider format, final Set<OpenOption> options) throws IOException {
+        final String name = path.getFileName().toString();
+        final Path source = name.endsWith(format.extension())
+                ? path.resolveSibling(name.substring(0, name.length() - format.extension().length()))
+                : path;
+        final OpenOption[] openOptions = options.toArray(new OpenOption[0]);
+
+        try (final InputStream in = PgnInputStreamFactory.of(path.toFile(), rwBufferSize)) {
+            final byte[] buf = new byte[rwBufferSize];
+            final GameStarts starts = new GameStarts();
+            int chunk = 1;
+            long written = 0;
+            OutputStream out = Files.newOutputStream(fileNamingStrategy.name(source, chunk), openOptions);
+
+            try {
+                int n;
+
+                while ((n = in.read(buf)) != -1) {
+                    int from = 0;
+
+                    for (int i = 0; i < n; i++) {
+                        if (starts.isGameStart(buf[i]) && written + i - from >= chunkSize) {
+                            out.write(buf, from, i - from);
+                            out.close();
+                            out = Files.newOutputStream(fileNamingStrategy.name(source, ++chunk), openOptions);
+                            written = 0;
+                            from = i;
+                        }
+                    }
+
+                    out.write(buf, from, n - from);
+                    written += n - from;
+                }
+            } finally {
+                out.close();
+            }
+        }
+    }
 
-                pointer = file.getFilePointer();
+    /**
+     * The streaming counterpart of {@link GameBoundaryScanner}: the bytes are fed one by one and only the last
+     * non-whitespace bytes are remembered.
+     */
+    private static final class GameStarts {
+        /**
+         * The last non-whitespace bytes, see {@link GameTermination}.
+         */
+        private long tail;
+        private boolean lineStart = true;
+
+        /**
+         * @param b The next byte.
+         *
+         * @return Whether the game begins at {@code b}.
+         */
+        boolean isGameStart(final byte b) {
+            final boolean gameStart = b == '[' && lineStart && GameTermination.endsGame(tail);
+
+            lineStart = b == '\n';
+
+            if (!GameTermination.isWhiteSpace(b)) {
+                tail = GameTermination.append(tail, b);
             }
+
+            return gameStart;
         }
     }
 }
@@ -0,0 +1,78 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The input format recognized by its leading bytes: the compression format or the archive. The providers are located
+ * with {@link java.util.ServiceLoader}, so besides the built-in {@link PgnFormats} any module or jar can register its
+ * own one. The file not matched by its leading bytes is matched by its {@link #extension()}, the input not matched by
+ * any provider is read as plain PGN.
+ * <p>
+ * The {@link #matches(byte[], int)} is called for every input, so it should be cheap and the provider should not
+ * touch the classes of its decoder until the input is actually decoded. The decoded content is inspected again, so
+ * the {@code .tar.gz} file is decoded by the gzip provider and then by the tar provider.
+ */
+public interface PgnFormatProvider {
+    /**
+     * The maximum number of leading bytes passed to {@link #matches(byte[], int)}.
+     */
+    int HEADER_SIZE = 512;
+
+    /**
+     * @return The format name used in logs and error messages.
+     */
+    String name();
+
+    /**
+     * @param header The leading bytes of the input.
+     * @param length The number of valid bytes in {@code header}, less than {@link #HEADER_SIZE} only for short inputs.
+     *
+     * @return Whether the input has this format.
+     */
+    boolean matches(byte[] header, int length);
+
+    /**
+     * @return The file name extension including the dot, e.g. {@code ".gz"}.
+     */
+    String extension();
+
+    /**
+     * @return Whether the format is an archive, i.e. its content consists of entries.
+     */
+    default boolean isArchive() {
+        return false;
+    }
+
+    /**
+     * Decodes the input. The stream is positioned at the beginning of the input and supports {@code mark}/{@code
+     * reset}.
+     *
+     * @param in The encoded input.
+     *
+     * @return The decoded content.
+     *
+     * @throws IOException                   if an I/O error occurs.
+     * @throws UnsupportedOperationException if the decoder is not on the classpath.
+     */
+    InputStream decode(InputStream in) throws IOException;
+
+    /**
+     * Decodes the file. The file allows decoders to use random access or to decode the independent parts of the input
+     * concurrently, the default implementation reads the file sequentially.
+     *
+     * @param file           The encoded file.
+     * @param blocksInFlight The maximum number of blocks decoded ahead or {@code 0} to decode sequentially.
+     *
+     * @return The decoded content.
+     *
+     * @throws IOException                   if an I/O error occurs.
+     * @throws UnsupportedOperationException if the decoder is not on the classpath.
+     */
+    default InputStream decode(Path file, int blocksInFlight) throws IOException {
+        return decode(new BufferedInputStream(Files.newInputStream(file)));
+    }
+}
@@ -0,0 +1,505 @@
+package com.github.nstdio.libpgn.io;
+
+import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.tukaani.xz.XZInputStream;
+
+/**
+ * The built-in formats. Only gzip and zip are decoded by the JDK, other formats require Commons Compress or XZ for
+ * Java. The classes of these libraries are touched only by the {@link Commons} and {@link Tukaani} holders, so they
+ * are not loaded until the input of their format is met.
+ * <p>
+ * When the file is decoded the fastest path is chosen: the blocks of bzip2, xz and Zstandard files are decoded
+ * concurrently if {@code blocksInFlight} is positive, otherwise gzip, xz and Zstandard are decoded on their own
+ * thread, see {@link ReadAheadInputStream}.
+ */
+public final class PgnFormats {
+    /**
+     * The number of buffers between the decompressing thread and the lexer.
+     */
+    private static final int DECOMPRESSED_BUFFERS = 4;
+
+    private PgnFormats() {
+    }
+
+    private static boolean startsWith(final byte[] header, final int length, final int offset, final int... magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static InputStream buffered(final Path file) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(file));
+    }
+
+    private static InputStream pipelined(final InputStream in) {
+        return new ReadAheadInputStream(in, PgnInputStream.DEFAULT_BUFFER_SIZE, DECOMPRESSED_BUFFERS);
+    }
+
+    private static void require(final String className, final String library, final String format) {
+        try {
+            Class.forName(className, false, PgnFormats.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException(String.format("Cannot read %s input without %s.", format, library), e);
+        }
+    }
+
+    private static void requireCommonsCompress(final String format) {
+        require("org.apache.commons.compress.compressors.CompressorInputStream", "Commons Compress", format);
+    }
+
+    /**
+     * The gzip stream, possibly of several members. Decoded by the JDK.
+     */
+    public static final class Gzip implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "gzip";
+        }
+
+        @Override
+        public String extension() {
+            return ".gz";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 0x1F, 0x8B);
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            return new GZIPInputStream(in, PgnInputStream.DEFAULT_BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            return pipelined(decode(Files.newInputStream(file)));
+        }
+    }
+
+    /**
+     * The bzip2 stream, possibly of several concatenated streams.
+     */
+    public static final class BZip2 implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "bzip2";
+        }
+
+        @Override
+        public String extension() {
+            return ".bz2";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 'B', 'Z', 'h') && length > 3 && header[3] >= '1' && header[3] <= '9';
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            requireCommonsCompress(name());
+            return Commons.bzip2(in);
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            if (blocksInFlight > 0) {
+                requireCommonsCompress(name());
+                return ParallelBlockInputStream.ofBZip2(file, blocksInFlight);
+            }
+
+            return decode(buffered(file));
+        }
+    }
+
+    /**
+     * The xz stream. The file of the only block, which is the default of single-threaded {@code xz}, or having the block
+     * larger than {@link ParallelBlockInputStream#MAXIMUM_BLOCK_SIZE} is decoded sequentially even if {@code
+     * blocksInFlight} is positive.
+     */
+    public static final class Xz implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "xz";
+        }
+
+        @Override
+        public String extension() {
+            return ".xz";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 0xFD, '7', 'z', 'X', 'Z', 0x00);
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            require("org.tukaani.xz.XZInputStream", "XZ for Java", name());
+            return Tukaani.xz(in);
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            if (blocksInFlight > 0) {
+                require("org.tukaani.xz.XZInputStream", "XZ for Java", name());
+
+                final InputStream blocks = ParallelBlockInputStream.ofXz(file, blocksInFlight,
+                        ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE);
+
+                if (blocks != null) {
+                    return blocks;
+                }
+            }
+
+            return pipelined(decode(buffered(file)));
+        }
+    }
+
+    /**
+     * The Zstandard stream. The file may start with the skippable frame. The file of the only frame, which is the
+     * default of {@code zstd}, or having the frame possibly larger than {@link
+     * ParallelBlockInputStream#MAXIMUM_BLOCK_SIZE} is decoded sequentially even if {@code blocksInFlight} is positive.
+     */
+    public static final class Zstd implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "zstd";
+        }
+
+        @Override
+        public String extension() {
+            return ".zst";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 0x28, 0xB5, 0x2F, 0xFD)
+                    || length >= 4 && (header[0] & 0xF0) == 0x50 && startsWith(header, length, 1, 0x2A, 0x4D, 0x18);
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            requireCommonsCompress(name());
+            require("com.github.luben.zstd.ZstdInputStream", "zstd-jni", name());
+            return Commons.zstd(in);
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            if (blocksInFlight > 0) {
+                requireCommonsCompress(name());
+                require("com.github.luben.zstd.ZstdInputStream", "zstd-jni", name());
+
+                final InputStream frames = ParallelBlockInputStream.ofZstd(file, blocksInFlight,
+                        ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE);
+
+                if (frames != null) {
+                    return frames;
+                }
+            }
+
+            return pipelined(decode(buffered(file)));
+        }
+    }
+
+    /**
+     * The zip archive, all entries are read one after another. The file is read by the JDK with random access.
+     */
+    public static final class Zip implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "zip";
+        }
+
+        @Override
+        public String extension() {
+            return ".zip";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 'P', 'K')
+                    && (startsWith(header, length, 2, 3, 4) || startsWith(header, length, 2, 5, 6)
+                    || startsWith(header, length, 2, 7, 8));
+        }
+
+        @Override
+        public boolean isArchive() {
+            return true;
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            requireCommonsCompress(name());
+            return Commons.zip(in);
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            final ZipFile zipFile = new ZipFile(file.toFile());
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            return new SequenceInputStream(new Enumeration<InputStream>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return entries.hasMoreElements();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    return wrapChecked(() -> zipFile.getInputStream(entries.nextElement()));
+                }
+            }) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zipFile.close();
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * The 7z archive, only the first entry is read. The stream input is read into memory first since the archive
+     * requires random access.
+     */
+    public static final class SevenZip implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "7z";
+        }
+
+        @Override
+        public String extension() {
+            return ".7z";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, '7', 'z', 0xBC, 0xAF, 0x27, 0x1C);
+        }
+
+        @Override
+        public boolean isArchive() {
+            return true;
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            requireCommonsCompress(name());
+            return Commons.sevenZip(in.readAllBytes());
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) throws IOException {
+            requireCommonsCompress(name());
+            return Commons.sevenZip(file);
+        }
+    }
+
+    /**
+     * The tar archive, all entries are read one after another.
+     */
+    public static final class Tar implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "tar";
+        }
+
+        @Override
+        public String extension() {
+            return ".tar";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 257, 'u', 's', 't', 'a', 'r');
+        }
+
+        @Override
+        public boolean isArchive() {
+            return true;
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) throws IOException {
+            requireCommonsCompress(name());
+            return Commons.tar(in);
+        }
+    }
+
+    /**
+     * The rar archive is recognized only to fail early instead of parsing the binary content.
+     */
+    public static final class Rar implements PgnFormatProvider {
+        @Override
+        public String name() {
+            return "rar";
+        }
+
+        @Override
+        public String extension() {
+            return ".rar";
+        }
+
+        @Override
+        public boolean matches(final byte[] header, final int length) {
+            return startsWith(header, length, 0, 'R', 'a', 'r', '!', 0x1A, 0x07);
+        }
+
+        @Override
+        public boolean isArchive() {
+            return true;
+        }
+
+        @Override
+        public InputStream decode(final InputStream in) {
+            throw new UnsupportedOperationException("Cannot read rar input.");
+        }
+
+        @Override
+        public InputStream decode(final Path file, final int blocksInFlight) {
+            throw new UnsupportedOperationException(String.format("Cannot read rar input: %s", file.toAbsolutePath()));
+        }
+    }
+
+    /**
+     * The decoders from Commons Compress.
+     */
+    private static final class Commons {
+        private Commons() {
+        }
+
+        static InputStream bzip2(final InputStream in) throws IOException {
+            return new BZip2CompressorInputStream(in, true);
+        }
+
+        static InputStream zstd(final InputStream in) throws IOException {
+            return new ZstdCompressorInputStream(in);
+        }
+
+        static InputStream tar(final InputStream in) throws IOException {
+            return IteratingArchiveInputStream.of(new TarArchiveInputStream(in));
+        }
+
+        static InputStream zip(final InputStream in) throws IOException {
+            return IteratingArchiveInputStream.of(new ZipArchiveInputStream(in));
+        }
+
+        static InputStream sevenZip(final Path file) throws IOException {
+            return SevenZFileInputStream.of(new SevenZFile(file.toFile()));
+        }
+
+        static InputStream sevenZip(final byte[] bytes) throws IOException {
+            return SevenZFileInputStream.of(new SevenZFile(new SeekableInMemoryByteChannel(bytes)));
+        }
+    }
+
+    /**
+     * The decoders from XZ for Java.
+     */
+    private static final class Tukaani {
+        private Tukaani() {
+        }
+
+        static InputStream xz(final InputStream in) throws IOException {
+            return new XZInputStream(in);
+        }
+    }
+
+    /**
+     * Reads all entries of the archive one after another.
+     */
+    private static final class IteratingArchiveInputStream extends FilterInputStream {
+        private final ArchiveInputStream in;
+
+        private IteratingArchiveInputStream(final ArchiveInputStream in) {
+            super(in);
+            this.in = in;
+        }
+
+        static InputStream of(final ArchiveInputStream in) throws IOException {
+            in.getNextEntry();
+            return new IteratingArchiveInputStream(in);
+        }
+
+        @Override
+        public int read(@Nonnull final byte[] buff, final int off, final int len) throws IOException {
+            int read;
+
+            while ((read = in.read(buff, off, len)) == -1) {
+                if (in.getNextEntry() == null) {
+                    return -1;
+                }
+            }
+
+            return read;
+        }
+    }
+
+    /**
+     * Wrapping {@code SevenZFile} into {@code InputStream}. The first entry is read.
+     */
+    private static final class SevenZFileInputStream extends InputStream {
+        private final SevenZFile file;
+
+        private SevenZFileInputStream(final SevenZFile file) {
+            this.file = file;
+        }
+
+        static InputStream of(final SevenZFile file) throws IOException {
+            file.getNextEntry();
+            return new SevenZFileInputStream(file);
+        }
+
+        @Override
+        public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+            return file.read(b, off, len);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return file.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -4,148 +4,368 @@ import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Objects;
 
+import javax.annotation.Nullable;
+
+/**
+ * The input stream optimized for the lexer needs. The stream owns the byte buffer and all lookahead operations are
+ * performed directly on it, so there is no {@code mark}/{@code reset} and no synchronization involved. The buffer grows
+ * when the single token does not fit into it.
+ * <p>
+ * Note that this class is not thread safe.
+ */
 public class PgnInputStream extends FilterInputStream {
+    /**
+     * The default size of the internal buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
     private static final int EOF = -1;
 
+    private byte[] buf;
+
+    /**
+     * The index of the next byte to read.
+     */
+    private int pos;
+
+    /**
+     * The index one greater than the last valid byte in the buffer.
+     */
+    private int count;
+
+    /**
+     * Whether the underlying stream is exhausted.
+     */
+    private boolean eof;
+
+    /**
+     * The number of bytes consumed before the first byte of the buffer.
+     */
+    private long base;
+
+    /**
+     * The stream read by the dedicated thread somewhere in the chain of {@code in}, if any.
+     */
+    @Nullable
+    private final ReadAheadInputStream readAhead;
+
     PgnInputStream(final InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    PgnInputStream(final InputStream in, final int bufferSize) {
+        this(in, bufferSize, in instanceof ReadAheadInputStream ? (ReadAheadInputStream) in : null);
+    }
+
+    PgnInputStream(final InputStream in, final int bufferSize, @Nullable final ReadAheadInputStream readAhead) {
         super(Objects.requireNonNull(in));
 
-        if (!in.markSupported()) {
-            throw new IllegalArgumentException("The InputStream must support the mark/reset." +
-                    " Probably should use use the java.io.BufferedInputStream");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive.");
+        }
+
+        buf = new byte[bufferSize];
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Makes sure that at least {@code required} bytes are available in the buffer.
+     *
+     * @param required The number of bytes that need to be buffered.
+     *
+     * @return {@code false} if the stream ended before {@code required} bytes were buffered.
+     */
+    private boolean fill(final int required) throws IOException {
+        final int available = count - pos;
+
+        if (available >= required) {
+            return true;
+        }
+
+        if (eof) {
+            return false;
+        }
+
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, available);
+            base += pos;
+            pos = 0;
+            count = available;
+        }
+
+        if (required > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(required, buf.length << 1));
         }
+
+        while (count < required) {
+            final int n = in.read(buf, count, buf.length - count);
+
+            if (n == EOF) {
+                eof = true;
+                return false;
+            }
+
+            count += n;
+        }
+
+        return true;
     }
 
     @Override
     public int read() throws IOException {
-        final int read = super.read();
-
-        if (read == EOF) {
+        if (pos >= count && !fill(1)) {
             throw new EOFException();
         }
 
-        return read;
+        return buf[pos++] & 0xFF;
     }
 
-    @Deprecated
-    public int until(final int i1) throws IOException {
-        int current;
-        int rc = 0;
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+
+        if (len == 0) {
+            return 0;
+        }
 
-        mark(0);
-        do {
-            current = read();
-            rc++;
+        int available = count - pos;
 
-            if (current == i1) {
-                reset();
-                return rc;
+        if (available <= 0) {
+            if (eof) {
+                return EOF;
             }
 
-        } while (current != EOF);
+            // Do not copy large chunks twice.
+            if (len >= buf.length) {
+                final int n = in.read(b, off, len);
 
-        reset();
+                if (n == EOF) {
+                    eof = true;
+                } else {
+                    base += n;
+                }
+
+                return n;
+            }
+
+            if (!fill(1)) {
+                return EOF;
+            }
 
-        return EOF;
+            available = count - pos;
+        }
+
+        final int n = Math.min(available, len);
+        System.arraycopy(buf, pos, b, off, n);
+        pos += n;
+
+        return n;
     }
 
-    @Deprecated
-    public int until(int i1, int i2, int i3, int i4, int i5, int i6, int i7, int i8, int i9, int i10) throws IOException {
-        int c;
-        int rc = 0;
+    /**
+     * @return The number of bytes consumed from this stream so far.
+     */
+    public long position() {
+        return base + pos;
+    }
 
-        mark(0);
-        do {
-            c = read();
-            rc++;
+    /**
+     * @return The number of times this stream has waited for the read-ahead thread, {@code 0} when the input is not
+     * read ahead.
+     *
+     * @see ReadAheadInputStream#consumerWaits()
+     */
+    public long readAheadWaits() {
+        return readAhead == null ? 0 : readAhead.consumerWaits();
+    }
+
+    /**
+     * @return The total time this stream has waited for the read-ahead thread in nanoseconds, {@code 0} when the input
+     * is not read ahead.
+     *
+     * @see ReadAheadInputStream#consumerWaitNanos()
+     */
+    public long readAheadWaitNanos() {
+        return readAhead == null ? 0 : readAhead.consumerWaitNanos();
+    }
 
-            if (c == i1 || c == i2 || c == i3 || c == i4 || c == i5 || c == i6 || c == i7 || c == i8 || c == i9 || c == i10) {
-                reset();
-                return rc;
+    @Override
+    public long skip(final long n) throws IOException {
+        long remaining = n;
+
+        while (remaining > 0) {
+            if (pos >= count && !fill(1)) {
+                break;
             }
 
-        } while (c != EOF);
+            final int k = (int) Math.min(count - pos, remaining);
+            pos += k;
+            remaining -= k;
+        }
+
+        return n - Math.max(remaining, 0);
+    }
+
+    @Override
+    public int available() throws IOException {
+        final int available = count - pos;
+
+        return eof ? available : (int) Math.min((long) available + in.available(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(final int readLimit) {
+    }
 
-        reset();
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        eof = true;
+        base += pos;
+        pos = count = 0;
 
-        return EOF;
+        in.close();
     }
 
     /**
-     * Sequentially reads the {@code offset} bytes and returns the last {@link #read()} result. After reads the position
-     * should not be affected.
+     * Counts the bytes until the first occurrence of {@code i1}. The position is not affected.
      *
-     * @param offset The number of reads that need to be performed.
+     * @param i1 The terminator.
      *
-     * @return The last result of sequentially read calling or {@code -1} when stream is ended before perform necessary
-     * count of reads.
+     * @return The number of bytes up to and including the terminator.
      *
-     * @throws IOException              if an I/O error occurs.
-     * @throws IllegalArgumentException if {@code offset} is negative or zero.
+     * @throws EOFException if the stream ended before the terminator occurred.
      */
-    public int readAhead(final int offset) throws IOException {
+    public int until(final int i1) throws IOException {
+        int scanned = 0;
 
-        if (offset <= 0) {
-            throw new IllegalArgumentException("offset must be positive.");
-        }
+        while (true) {
+            final byte[] b = buf;
+
+            for (int i = pos + scanned, n = count; i < n; i++) {
+                if ((b[i] & 0xFF) == i1) {
+                    return i - pos + 1;
+                }
+            }
 
-        if (offset == 1) {
-            return readAhead1();
+            scanned = count - pos;
+
+            if (!fill(scanned + 1)) {
+                throw new EOFException();
+            }
         }
+    }
 
-        mark(offset);
+    /**
+     * Counts the bytes until the first occurrence of any of the terminators. The position is not affected.
+     *
+     * @return The number of bytes up to and including the terminator.
+     *
+     * @throws EOFException if the stream ended before any of terminators occurred.
+     */
+    public int until(int i1, int i2, int i3, int i4, int i5, int i6, int i7, int i8, int i9, int i10) throws IOException {
+        int scanned = 0;
 
-        int rc = 0;
-        int read = EOF;
+        while (true) {
+            final byte[] b = buf;
 
-        while (rc < offset) {
-            try {
-                read = read();
-                rc++;
+            for (int i = pos + scanned, n = count; i < n; i++) {
+                final int c = b[i] & 0xFF;
 
-            } catch (EOFException e) {
-                reset();
-                throw e;
+                if (c == i1 || c == i2 || c == i3 || c == i4 || c == i5 || c == i6 || c == i7 || c == i8 || c == i9 || c == i10) {
+                    return i - pos + 1;
+                }
             }
-        }
 
-        reset();
+            scanned = count - pos;
 
-        return read;
+            if (!fill(scanned + 1)) {
+                throw new EOFException();
+            }
+        }
     }
 
-    private int readAhead1() throws IOException {
-        mark(1);
+    /**
+     * Counts the bytes until the first occurrence of any delimiter known to {@code scanner}. The position is not
+     * affected. In contrast to {@link #until(int, int, int, int, int, int, int, int, int, int)} the buffer is scanned
+     * eight bytes at a time.
+     *
+     * @param scanner The scanner for delimiters.
+     *
+     * @return The number of bytes up to and including the delimiter.
+     *
+     * @throws EOFException if the stream ended before any of delimiters occurred.
+     */
+    public int until(final DelimiterScanner scanner) throws IOException {
+        int scanned = 0;
 
-        final int read = read();
+        while (true) {
+            final int index = scanner.indexOf(buf, pos + scanned, count);
 
-        reset();
+            if (index != EOF) {
+                return index - pos + 1;
+            }
 
-        return read;
+            scanned = count - pos;
+
+            if (!fill(scanned + 1)) {
+                throw new EOFException();
+            }
+        }
     }
 
-    public void skipWhiteSpace() throws IOException {
-        boolean isWhiteSpace;
+    /**
+     * Looks at the byte at {@code offset} position without consuming it. After the call the position is not affected.
+     *
+     * @param offset The offset from current position. {@code 1} means the next byte.
+     *
+     * @return The byte at {@code offset}.
+     *
+     * @throws IOException              if an I/O error occurs.
+     * @throws EOFException             if stream is ended before {@code offset}.
+     * @throws IllegalArgumentException if {@code offset} is negative or zero.
+     */
+    public int readAhead(final int offset) throws IOException {
+        if (offset <= 0) {
+            throw new IllegalArgumentException("offset must be positive.");
+        }
 
-        do {
-            mark(1);
+        if (!fill(offset)) {
+            throw new EOFException();
+        }
 
-            // don't want to throw {@code EOFException}
-            switch (in.read()) {
+        return buf[pos + offset - 1] & 0xFF;
+    }
+
+    /**
+     * Consumes all the whitespace characters from the current position.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void skipWhiteSpace() throws IOException {
+        while (pos < count || fill(1)) {
+            switch (buf[pos]) {
                 case ' ':
                 case '\r':
                 case '\n':
                 case '\t':
                 case '\0':
-                    isWhiteSpace = true;
+                    pos++;
                     break;
                 default:
-                    isWhiteSpace = false;
-                    reset();
-                    break;
+                    return;
             }
-        } while (isWhiteSpace);
+        }
     }
 }
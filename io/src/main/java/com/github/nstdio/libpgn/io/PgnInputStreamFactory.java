@@ -4,73 +4,92 @@ import static com.github.nstdio.libpgn.common.ExceptionUtils.wrapChecked;
 
 import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.function.Function;
-import java.util.regex.Pattern;
-import java.util.zip.ZipFile;
-
-import javax.annotation.Nonnull;
-
-import org.apache.commons.compress.archivers.ArchiveInputStream;
-import org.apache.commons.compress.archivers.ArchiveStreamFactory;
-import org.apache.commons.compress.archivers.sevenz.SevenZFile;
-import org.apache.commons.compress.compressors.CompressorInputStream;
-import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import java.util.Optional;
+import java.util.ServiceLoader;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * The central point for creating an instance of {@code PgnInputStream}. This factory can deal with not just plain
- * {@code .pgn} files but with archived files too.
+ * {@code .pgn} files but with compressed and archived inputs too. The format is detected by the leading bytes of the
+ * input, not by the file name, see {@link PgnFormatProvider}. The input of unknown format is read as plain PGN.
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class PgnInputStreamFactory {
-    private static final Map<Pattern, Function<File, InputStream>> producers;
-    private static final CompressorStreamFactory STREAM_FACTORY;
-
-    static {
-        final StreamProducer plain = new StreamProducer();
-
-        producers = new LinkedHashMap<>();
-
-        producers.put(Pattern.compile("\\.pgn$"), LoggingInputStreamProducer.of(plain.andThen(buffered())));
+    /**
+     * Creates the {@code PgnInputStream} from provided file.
+     *
+     * @param file The input file.
+     *
+     * @return The input stream.
+     */
+    public static PgnInputStream of(final File file) {
+        return of(file, PgnInputStream.DEFAULT_BUFFER_SIZE);
+    }
 
-        if (commonsCompressAtClasspath()) {
-            STREAM_FACTORY = new CompressorStreamFactory(true);
+    /**
+     * Creates the {@code PgnInputStream} from provided file with specified buffer size.
+     *
+     * @param file       The input file.
+     * @param bufferSize The initial size of the stream buffer.
+     *
+     * @return The input stream.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive.
+     */
+    public static PgnInputStream of(final File file, final int bufferSize) {
+        return ofFile(file, bufferSize, false, 0);
+    }
 
-            producers.put(Pattern.compile("\\.(tar\\.[xg]z)$"), LoggingInputStreamProducer.of(new ArchiveStreamProducer(plain)));
-            producers.put(Pattern.compile("\\.bz2$"), LoggingInputStreamProducer.of(new BZip2SteamProducer(plain)));
-            producers.put(Pattern.compile("\\.7z$"), LoggingInputStreamProducer.of(SevenZipStreamProducer.of()));
-            producers.put(Pattern.compile("\\.zip$"), LoggingInputStreamProducer.of(new ZipFileStreamProducer()));
-            producers.put(Pattern.compile("\\.rar$"), NoOpStreamProducer.of());
-        } else {
-            STREAM_FACTORY = null;
-        }
+    /**
+     * Creates the {@code PgnInputStream} from provided file with specified buffer size. When {@code readAhead} is
+     * {@code true} the file is read (and decompressed) by the dedicated thread, see {@link ReadAheadInputStream}.
+     *
+     * @param file       The input file.
+     * @param bufferSize The initial size of the stream buffer and the size of each read-ahead buffer.
+     * @param readAhead  Whether to read the file in the background.
+     *
+     * @return The input stream.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive.
+     */
+    public static PgnInputStream of(final File file, final int bufferSize, final boolean readAhead) {
+        return ofFile(file, bufferSize, readAhead, 0);
     }
 
     /**
-     * Creates the {@code PgnInputStream} from provided file.
+     * Creates the {@code PgnInputStream} from provided file with specified buffer size. When {@code blocksInFlight} is
+     * positive the blocks of {@code .bz2} and {@code .xz} files and the frames of {@code .zst} files are decompressed
+     * concurrently, see {@link ParallelBlockInputStream}. Other files are read as usual.
      *
-     * @param file The input file.
+     * @param file           The input file.
+     * @param bufferSize     The initial size of the stream buffer and the size of each read-ahead buffer.
+     * @param readAhead      Whether to read the file in the background.
+     * @param blocksInFlight The maximum number of blocks decompressed ahead or {@code 0} to decompress sequentially.
      *
      * @return The input stream.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive or {@code blocksInFlight} is negative.
      */
-    public static PgnInputStream of(final File file) {
-        return ofFile(file);
+    public static PgnInputStream of(final File file, final int bufferSize, final boolean readAhead,
+                                    final int blocksInFlight) {
+        if (blocksInFlight < 0) {
+            throw new IllegalArgumentException("blocksInFlight must not be negative.");
+        }
+
+        return ofFile(file, bufferSize, readAhead, blocksInFlight);
     }
 
     /**
@@ -79,254 +98,170 @@ public final class PgnInputStreamFactory {
      * @param in The source input stream.
      *
      * @return The wrapped input stream.
-     *
-     * @throws IllegalArgumentException When {@code in} does not support marking.
      */
     public static PgnInputStream of(final InputStream in) {
+        return of(in, PgnInputStream.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates the {@code PgnInputStream} from provided input stream with specified buffer size. There is no need to
+     * wrap {@code in} into {@code BufferedInputStream}, the created stream does its own buffering. The compressed or
+     * archived input is decoded, so the first {@link PgnFormatProvider#HEADER_SIZE} bytes of {@code in} are read
+     * eagerly to detect its format.
+     *
+     * @param in         The source input stream.
+     * @param bufferSize The initial size of the stream buffer.
+     *
+     * @return The wrapped input stream.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive.
+     */
+    public static PgnInputStream of(final InputStream in, final int bufferSize) {
         if (in instanceof PgnInputStream) {
             log.info("The input is already PgnInputStream, do no constructing new object.");
             return (PgnInputStream) in;
         }
 
-        return new PgnInputStream(in);
+        return wrapChecked(() -> decode(in, bufferSize, false));
     }
 
-    private static PgnInputStream ofFile(final File file) {
-        final String fileName = Objects.requireNonNull(file).getName();
+    private static PgnInputStream ofFile(final File file, final int bufferSize, final boolean readAhead,
+                                         final int blocksInFlight) {
+        final Path path = Objects.requireNonNull(file).toPath();
 
-        return producers.entrySet().stream()
-                .filter(mapEntry -> mapEntry.getKey().matcher(fileName).find())
-                .findFirst().map(Map.Entry::getValue)
-                .orElseThrow(() -> new IllegalArgumentException(String.format("Cannot find reader for file: %s", file.getPath())))
-                .andThen(PgnInputStreamFactory::of)
-                .apply(file);
+        return wrapChecked(() -> open(path, bufferSize, readAhead, blocksInFlight));
     }
 
-    private static boolean commonsCompressAtClasspath() {
-        try {
-            Class.forName("org.apache.commons.compress.compressors.CompressorStreamFactory");
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
-        }
-    }
+    private static PgnInputStream open(final Path file, final int bufferSize, final boolean readAhead,
+                                       final int blocksInFlight) throws IOException {
+        final Optional<PgnFormatProvider> format = format(file);
 
-    @Nonnull
-    private static Function<InputStream, BufferedInputStream> buffered() {
-        return is -> is instanceof BufferedInputStream ? (BufferedInputStream) is : new BufferedInputStream(is);
-    }
+        if (format.isPresent()) {
+            log.info("Detected {} format: {}", format.get().name(), file);
 
-    @Nonnull
-    private static Function<InputStream, CompressorInputStream> compressorStream() {
-        return is -> wrapChecked(() -> STREAM_FACTORY.createCompressorInputStream(is));
-    }
-
-    private static Function<InputStream, InputStream> bufferedCompressorStream() {
-        return is -> compressorStream()
-                .compose(buffered())
-                .andThen(buffered())
-                .apply(is);
-    }
-
-    @Nonnull
-    private static Function<InputStream, ArchiveInputStream> archiveStream() {
-        return is -> wrapChecked(() -> new ArchiveStreamFactory().createArchiveInputStream(is));
-    }
-
-    /**
-     * Plain old ZIP archives.
-     */
-    private static class ZipFileStreamProducer implements Function<File, InputStream> {
-        @Override
-        public InputStream apply(final File file) {
-            final ZipFile zipFile = wrapChecked(() -> new ZipFile(file));
-
-            return zipFile.stream()
-                    .map(entry -> wrapChecked(() -> zipFile.getInputStream(entry)))
-                    .reduce(SequenceInputStream::new)
-                    .map(buffered())
-                    .orElseThrow(() -> new IllegalArgumentException("Cannot create InputStream from File: "
-                            + file.getAbsoluteFile())
-                    );
+            return decode(format.get().decode(file, blocksInFlight), bufferSize, readAhead);
         }
-    }
 
-    /**
-     * Just creates input stream from file. Can be used for plain PGN files.
-     */
-    private static class StreamProducer implements Function<File, InputStream> {
-        @Override
-        public InputStream apply(final File file) {
-            return wrapChecked(() -> Files.newInputStream(file.toPath(), StandardOpenOption.READ));
-        }
-    }
+        final InputStream in = Files.newInputStream(file, StandardOpenOption.READ);
 
-    /**
-     * The empty stub for any unknown/unsupported file formats.
-     */
-    @NoArgsConstructor(staticName = "of")
-    private static class NoOpStreamProducer implements Function<File, InputStream> {
-        @Override
-        public InputStream apply(final File file) {
-            throw new UnsupportedOperationException(String.format("Cannot create InputStream from File: %s", file.getAbsoluteFile()));
-        }
+        return new PgnInputStream(readAhead ? new ReadAheadInputStream(in, bufferSize) : in, bufferSize);
     }
 
     /**
-     * The specialized class to handle 7z archives.
+     * Detects the format of the file.
+     *
+     * @param file The file.
+     *
+     * @return The format or empty optional if the file should be read as plain PGN. The file name is consulted only
+     * when the leading bytes do not match any format.
+     *
+     * @throws java.io.UncheckedIOException if an I/O error occurs.
      */
-    @NoArgsConstructor(staticName = "of")
-    private static class SevenZipStreamProducer implements Function<File, InputStream> {
-        @Override
-        public InputStream apply(final File file) {
-            return new BufferedInputStream(SevenZFileInputStream.of(
-                    wrapChecked(() -> {
-                        final SevenZFile sevenZFile = new SevenZFile(file);
-                        sevenZFile.getNextEntry();
-
-                        return sevenZFile;
-                    })
-            ));
-        }
+    public static Optional<PgnFormatProvider> format(final File file) {
+        return wrapChecked(() -> format(file.toPath()));
     }
 
-    /**
-     * The bz2 archives.
-     */
-    @ToString
-    private static class BZip2SteamProducer extends DelegatingStreamProducer {
+    private static Optional<PgnFormatProvider> format(final Path file) throws IOException {
+        final byte[] header = new byte[PgnFormatProvider.HEADER_SIZE];
 
-        private BZip2SteamProducer(final StreamProducer delegate) {
-            super(delegate);
-        }
+        try (final InputStream in = Files.newInputStream(file, StandardOpenOption.READ)) {
+            final Optional<PgnFormatProvider> format = Formats.find(header, in.readNBytes(header, 0, header.length));
 
-        @Override
-        public InputStream apply(final File file) {
-            return delegate
-                    .andThen(bufferedCompressorStream())
-                    .apply(file);
+            return format.isPresent() ? format : Formats.find(file.getFileName().toString());
         }
     }
 
     /**
-     * Used for archives.
+     * Decodes the input until the plain content is met.
+     *
+     * @param in         The input.
+     * @param bufferSize The size of the stream buffer.
+     * @param readAhead  Whether to read the content in the background unless some decoder already does.
+     *
+     * @return The stream over the plain content.
      */
-    @ToString
-    private static class ArchiveStreamProducer extends DelegatingStreamProducer {
-
-        private ArchiveStreamProducer(final StreamProducer delegate) {
-            super(delegate);
+    private static PgnInputStream decode(final InputStream in, final int bufferSize, final boolean readAhead)
+            throws IOException {
+        InputStream content = in;
+        ReadAheadInputStream pipeline = in instanceof ReadAheadInputStream ? (ReadAheadInputStream) in : null;
+        Optional<PgnFormatProvider> format;
+
+        while ((format = format(content = markable(content))).isPresent()) {
+            log.info("Detected {} format.", format.get().name());
+            content = format.get().decode(content);
+
+            if (content instanceof ReadAheadInputStream) {
+                pipeline = (ReadAheadInputStream) content;
+            }
         }
 
-        @Override
-        public InputStream apply(final File file) {
-            return delegate
-                    .andThen(bufferedCompressorStream())
-                    .andThen(archiveStream())
-                    .andThen(ais -> {
-                        wrapChecked(ais::getNextEntry);
-                        return new IteratingArchiveInputStream(ais);
-                    })
-                    .andThen(buffered())
-                    .apply(file);
+        if (readAhead && pipeline == null) {
+            content = pipeline = new ReadAheadInputStream(content, bufferSize);
         }
-    }
 
-    /**
-     * Forwards the {@code InputStream} creation to it's delegate.
-     */
-    @RequiredArgsConstructor(staticName = "of")
-    private static class DelegatingStreamProducer implements Function<File, InputStream> {
-        @NonNull
-        final Function<File, InputStream> delegate;
-
-        @Override
-        public InputStream apply(final File file) {
-            return delegate.apply(file);
-        }
+        return new PgnInputStream(content, bufferSize, pipeline);
     }
 
     /**
-     * The logging wrapper for producer functions.
+     * Opens the tar archive, possibly compressed. The compression is decoded, the archive itself is not.
+     *
+     * @param file The archive file.
+     *
+     * @return The tar content.
      */
-    @ToString
-    private static class LoggingInputStreamProducer extends DelegatingStreamProducer {
+    static InputStream decompressed(final File file) throws IOException {
+        InputStream content = Files.newInputStream(file.toPath(), StandardOpenOption.READ);
+        Optional<PgnFormatProvider> format;
 
-        private LoggingInputStreamProducer(final Function<File, InputStream> delegate) {
-            super(delegate);
+        while ((format = format(content = markable(content))).filter(f -> !f.isArchive()).isPresent()) {
+            content = format.get().decode(content);
         }
 
-        @Override
-        public InputStream apply(final File file) {
-            log.info("Trying to convert file to InputStream using: {}", delegate.getClass().getName());
+        return content;
+    }
 
-            if (log.isDebugEnabled()) {
-                log.debug("File: {}", file.getAbsolutePath());
-                log.debug("File Size: {} bytes", file.length());
-                log.debug("File Readable: {}", file.canRead());
-            }
+    private static InputStream markable(final InputStream in) {
+        return in.markSupported() ? in : new BufferedInputStream(in);
+    }
 
-            try {
-                final InputStream is = delegate.apply(file);
-                log.info("Producer successfully converted file to input stream: {}", is.getClass().getName());
+    private static Optional<PgnFormatProvider> format(final InputStream in) throws IOException {
+        final byte[] header = new byte[PgnFormatProvider.HEADER_SIZE];
 
-                return is;
-            } catch (RuntimeException e) {
-                log.error("Producer encountered the exception.", e);
+        in.mark(header.length);
+        final int length = in.readNBytes(header, 0, header.length);
+        in.reset();
 
-                throw e;
-            }
-        }
+        return Formats.find(header, length);
     }
 
     /**
-     * Wrapping {@code SevenZFile} into {@code InputStream}.
+     * The providers are loaded on the first use.
      */
-    @RequiredArgsConstructor(staticName = "of")
-    private static class SevenZFileInputStream extends InputStream {
-        @NonNull
-        private final SevenZFile file;
-
-        @Override
-        public int read(@Nonnull final byte[] b) throws IOException {
-            return file.read(b);
-        }
+    private static final class Formats {
+        private static final List<PgnFormatProvider> PROVIDERS = load();
 
-        @Override
-        public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
-            return file.read(b, off, len);
+        private Formats() {
         }
 
-        @Override
-        public int read() throws IOException {
-            return file.read();
-        }
+        private static List<PgnFormatProvider> load() {
+            final List<PgnFormatProvider> providers = new ArrayList<>();
+            ServiceLoader.load(PgnFormatProvider.class, PgnFormatProvider.class.getClassLoader()).forEach(providers::add);
 
-        @Override
-        public void close() throws IOException {
-            file.close();
-        }
-    }
+            log.debug("Loaded format providers: {}", providers);
 
-    /**
-     * To help read all entries in archive.
-     */
-    @Slf4j
-    @ToString
-    private static class IteratingArchiveInputStream extends FilterInputStream {
-        @NonNull
-        private final ArchiveInputStream in;
-
-        private IteratingArchiveInputStream(final ArchiveInputStream in) {
-            super(in);
-            this.in = in;
+            return Collections.unmodifiableList(providers);
         }
 
-        @Override
-        public int read(@Nonnull final byte[] buff, final int off, final int len) throws IOException {
-            final int read = in.read(buff, off, len);
+        static Optional<PgnFormatProvider> find(final byte[] header, final int length) {
+            return PROVIDERS.stream()
+                    .filter(provider -> provider.matches(header, length))
+                    .findFirst();
+        }
 
-            return read == -1 ? in.getNextEntry() == null ? read : in.read(buff, off, len) : read;
+        static Optional<PgnFormatProvider> find(final String fileName) {
+            return PROVIDERS.stream()
+                    .filter(provider -> fileName.endsWith(provider.extension()))
+                    .findFirst();
         }
     }
 }
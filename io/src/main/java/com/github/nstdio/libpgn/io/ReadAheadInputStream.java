@@ -0,0 +1,287 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nonnull;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The input stream reading the source in the dedicated thread. The I/O thread fills the next buffers of the ring while
+ * the consumer reads the current one, so the latency of slow storage or the decompression is hidden behind the lexing.
+ * The buffers are reused and handed over through the lock-free single producer/single consumer protocol: the producer publishes the filled buffer by incrementing {@code
+ * produced} and the consumer returns it by incrementing {@code consumed}, the threads are parked only when there is
+ * nothing to do.
+ * <p>
+ * The stream must be read by the single thread at a time. The number of times the consumer has waited for the data and
+ * the total time of these waits are available through {@link #consumerWaits()} and {@link #consumerWaitNanos()}, the
+ * streams created by {@link PgnInputStreamFactory} report them through {@link PgnInputStream#readAheadWaits()} and
+ * {@link PgnInputStream#readAheadWaitNanos()}.
+ */
+@Slf4j
+public final class ReadAheadInputStream extends InputStream {
+    private static final int DEFAULT_BUFFERS = 2;
+    private static final int SPINS = 64;
+
+    private final InputStream source;
+    private final int ring;
+    private final byte[][] buffers;
+    private final int[] lengths;
+    private final Thread producer;
+
+    private volatile long produced;
+    private volatile long consumed;
+    private volatile Thread consumer;
+    private volatile boolean closed;
+
+    /**
+     * The cause of the failure in the I/O thread. Published by the {@link #produced} increment.
+     */
+    private IOException failure;
+
+    /**
+     * Position in the current buffer, the current buffer is {@code buffers[consumed % ring]}.
+     */
+    private int pos;
+    private boolean acquired;
+
+    private volatile long consumerWaits;
+    private volatile long consumerWaitNanos;
+
+    /**
+     * Constructs the new stream and starts the I/O thread.
+     *
+     * @param source     The source input stream.
+     * @param bufferSize The size of each buffer.
+     * @param buffers    The number of buffers in the ring, at least two.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive or {@code buffers} is less than two.
+     */
+    public ReadAheadInputStream(final InputStream source, final int bufferSize, final int buffers) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive.");
+        }
+
+        if (buffers < 2) {
+            throw new IllegalArgumentException("buffers must be at least 2.");
+        }
+
+        this.source = Objects.requireNonNull(source);
+        this.ring = buffers;
+        this.buffers = new byte[buffers][bufferSize];
+        this.lengths = new int[buffers];
+        this.producer = new Thread(this::produce, "pgn-read-ahead");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    /**
+     * Constructs the new stream with two buffers and starts the I/O thread.
+     *
+     * @param source     The source input stream.
+     * @param bufferSize The size of each of two buffers.
+     *
+     * @throws IllegalArgumentException When {@code bufferSize} is not positive.
+     */
+    public ReadAheadInputStream(final InputStream source, final int bufferSize) {
+        this(source, bufferSize, DEFAULT_BUFFERS);
+    }
+
+    /**
+     * Constructs the new stream with two {@link PgnInputStream#DEFAULT_BUFFER_SIZE} buffers.
+     *
+     * @param source The source input stream.
+     */
+    public ReadAheadInputStream(final InputStream source) {
+        this(source, PgnInputStream.DEFAULT_BUFFER_SIZE);
+    }
+
+    private void produce() {
+        long next = 0;
+
+        while (!closed) {
+            // All buffers are full.
+            while (next - consumed == ring) {
+                LockSupport.park(this);
+
+                if (closed) {
+                    return;
+                }
+            }
+
+            final int slot = (int) (next % ring);
+            int length;
+
+            try {
+                length = fill(buffers[slot]);
+            } catch (IOException e) {
+                failure = e;
+                length = -1;
+            }
+
+            lengths[slot] = length;
+            produced = ++next;
+            LockSupport.unpark(consumer);
+
+            if (length == -1) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads until the buffer is full or the source ends.
+     *
+     * @return The number of bytes read or {@code -1} if the source has ended.
+     */
+    private int fill(final byte[] buffer) throws IOException {
+        int length = 0;
+
+        while (length < buffer.length) {
+            final int n = source.read(buffer, length, buffer.length - length);
+
+            if (n == -1) {
+                break;
+            }
+
+            length += n;
+        }
+
+        return length == 0 ? -1 : length;
+    }
+
+    /**
+     * Makes sure the current buffer has bytes to read.
+     *
+     * @return The current buffer slot or {@code -1} if the source has ended.
+     */
+    private int acquire() throws IOException {
+        if (acquired) {
+            final int slot = (int) (consumed % ring);
+
+            if (lengths[slot] == -1) {
+                return ended();
+            }
+
+            if (pos < lengths[slot]) {
+                return slot;
+            }
+
+            acquired = false;
+            pos = 0;
+            consumed = consumed + 1;
+            LockSupport.unpark(producer);
+        }
+
+        await();
+        acquired = true;
+
+        final int slot = (int) (consumed % ring);
+
+        return lengths[slot] == -1 ? ended() : slot;
+    }
+
+    private int ended() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+
+        return -1;
+    }
+
+    private void await() throws IOException {
+        final long target = consumed;
+
+        if (produced > target) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < SPINS && produced == target; i++) {
+            Thread.onSpinWait();
+        }
+
+        consumer = Thread.currentThread();
+
+        while (produced == target) {
+            if (closed) {
+                throw new IOException("Stream closed.");
+            }
+
+            LockSupport.park(this);
+        }
+
+        consumerWaits = consumerWaits + 1;
+        consumerWaitNanos = consumerWaitNanos + System.nanoTime() - start;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int slot = acquire();
+
+        return slot == -1 ? -1 : buffers[slot][pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(@Nonnull final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+
+        if (len == 0) {
+            return 0;
+        }
+
+        final int slot = acquire();
+
+        if (slot == -1) {
+            return -1;
+        }
+
+        final int n = Math.min(len, lengths[slot] - pos);
+        System.arraycopy(buffers[slot], pos, b, off, n);
+        pos += n;
+
+        return n;
+    }
+
+    @Override
+    public int available() {
+        if (!acquired) {
+            return 0;
+        }
+
+        return Math.max(lengths[(int) (consumed % ring)] - pos, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        LockSupport.unpark(producer);
+        LockSupport.unpark(consumer);
+
+        log.debug("Read-ahead consumer waited {} times for {} ms.", consumerWaits, consumerWaitNanos / 1_000_000);
+
+        source.close();
+    }
+
+    /**
+     * @return The number of times the consumer has waited for the I/O thread.
+     */
+    public long consumerWaits() {
+        return consumerWaits;
+    }
+
+    /**
+     * @return The total time the consumer has waited for the I/O thread in nanoseconds.
+     */
+    public long consumerWaitNanos() {
+        return consumerWaitNanos;
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.tukaani.xz.SeekableFileInputStream;
+import org.tukaani.xz.SeekableXZInputStream;
+
+/**
+ * The blocks of the xz file listed in its index. Every block is decoded by its own seekable stream, so the blocks can
+ * be decoded concurrently. The file compressed in single-threaded mode usually has the only block.
+ */
+final class XzBlocks {
+    private XzBlocks() {
+    }
+
+    /**
+     * @param file         The xz file.
+     * @param maxBlockSize The maximum uncompressed size of the block.
+     *
+     * @return The blocks or {@code null} if the file has the only block or the block larger than {@code maxBlockSize},
+     * such file is decoded sequentially.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Nullable
+    static List<Supplier<byte[]>> of(final Path file, final int maxBlockSize) throws IOException {
+        final List<Supplier<byte[]>> blocks = new ArrayList<>();
+
+        try (final SeekableXZInputStream in = open(file)) {
+            if (in.getBlockCount() < 2) {
+                return null;
+            }
+
+            for (int i = 0; i < in.getBlockCount(); i++) {
+                final long size = in.getBlockSize(i);
+
+                if (size > maxBlockSize) {
+                    return null;
+                }
+
+                final int block = i;
+                blocks.add(() -> decode(file, block, (int) size));
+            }
+        }
+
+        return blocks;
+    }
+
+    private static SeekableXZInputStream open(final Path file) throws IOException {
+        return new SeekableXZInputStream(new SeekableFileInputStream(file.toFile()));
+    }
+
+    private static byte[] decode(final Path file, final int block, final int size) {
+        try (final SeekableXZInputStream in = open(file)) {
+            in.seekToBlock(block);
+
+            final byte[] bytes = new byte[size];
+            final int n = in.readNBytes(bytes, 0, size);
+
+            if (n != size) {
+                throw new IOException(String.format("Block %d is truncated: %d of %d bytes.", block, n, size));
+            }
+
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.nstdio.libpgn.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+
+/**
+ * Splits the Zstandard file into frames. The frames are independent, so they can be decoded concurrently. The frame
+ * end is found by walking over the frame header and block headers without decoding. Skippable frames are dropped.
+ * <p>
+ * The decompressed size of the frame is bounded by the block headers: the raw and RLE blocks declare their size and
+ * the compressed block is not larger than {@value #BLOCK_MAXIMUM_SIZE} bytes, so the frame size is known not to exceed
+ * the limit before the frame is decoded.
+ */
+final class ZstdFrames {
+    private static final int FRAME_MAGIC = 0xFD2FB528;
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_MASK = 0xFFFFFFF0;
+    private static final int[] DICT_ID_SIZES = {0, 1, 2, 4};
+    private static final int[] CONTENT_SIZE_SIZES = {1, 2, 4, 8};
+    private static final int BLOCK_RLE = 1;
+    private static final int BLOCK_COMPRESSED = 2;
+    private static final int BLOCK_RESERVED = 3;
+    private static final int BLOCK_MAXIMUM_SIZE = 128 * 1024;
+
+    private final MappedFile file;
+    private long position;
+
+    /**
+     * The upper bound of the decompressed size of the last frame.
+     */
+    private long frameSize;
+
+    private ZstdFrames(final MappedFile file) {
+        this.file = file;
+    }
+
+    /**
+     * @param file         The Zstandard file.
+     * @param maxFrameSize The maximum decompressed size of the frame.
+     *
+     * @return The frames or {@code null} if the file has the only frame or the frame possibly larger than {@code
+     * maxFrameSize}, such file is decoded sequentially.
+     *
+     * @throws IOException if the file is not the Zstandard file or is truncated.
+     */
+    @Nullable
+    static List<Supplier<byte[]>> of(final MappedFile file, final int maxFrameSize) throws IOException {
+        final ZstdFrames frames = new ZstdFrames(file);
+        final List<Supplier<byte[]>> suppliers = new ArrayList<>();
+        boolean splittable = true;
+
+        frames.skipSkippableFrames();
+
+        while (frames.position < file.size()) {
+            final long start = frames.position;
+            final long end = frames.frameEnd(start);
+
+            splittable &= frames.frameSize <= maxFrameSize;
+
+            if (splittable) {
+                suppliers.add(() -> decode(file, start, (int) (end - start)));
+            }
+
+            frames.position = end;
+            frames.skipSkippableFrames();
+        }
+
+        return splittable && suppliers.size() > 1 ? suppliers : null;
+    }
+
+    /**
+     * Decodes the frame straight from the mapping.
+     */
+    private static byte[] decode(final MappedFile file, final long start, final int length) {
+        try (final InputStream in = new ZstdCompressorInputStream(new ByteBufferInputStream(file.slice(start, length)))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void skipSkippableFrames() {
+        while (position + 8 <= file.size() && (int32(position) & SKIPPABLE_MASK) == SKIPPABLE_MAGIC) {
+            position += 8 + (int32(position + 4) & 0xFFFFFFFFL);
+        }
+    }
+
+    private long frameEnd(final long start) throws IOException {
+        if (start + 6 > file.size() || int32(start) != FRAME_MAGIC) {
+            throw new IOException(String.format("No Zstandard frame at %d.", start));
+        }
+
+        final int descriptor = file.get(start + 4) & 0xFF;
+        final int contentSizeFlag = descriptor >>> 6;
+        final boolean singleSegment = (descriptor & 0x20) != 0;
+        final boolean checksum = (descriptor & 0x04) != 0;
+
+        long position = start + 5;
+        position += singleSegment ? 0 : 1;
+        position += DICT_ID_SIZES[descriptor & 0x03];
+        position += contentSizeFlag == 0 && !singleSegment ? 0 : CONTENT_SIZE_SIZES[contentSizeFlag];
+
+        boolean last = false;
+        frameSize = 0;
+
+        while (!last) {
+            if (position + 3 > file.size()) {
+                throw new EOFException(String.format("Truncated Zstandard frame at %d.", start));
+            }
+
+            final int header = (file.get(position) & 0xFF) | (file.get(position + 1) & 0xFF) << 8
+                    | (file.get(position + 2) & 0xFF) << 16;
+            final int type = header >>> 1 & 0x03;
+            final int size = header >>> 3;
+
+            if (type == BLOCK_RESERVED) {
+                throw new IOException(String.format("Reserved block type at %d.", position));
+            }
+
+            last = (header & 1) != 0;
+            position += 3 + (type == BLOCK_RLE ? 1 : size);
+            frameSize += type == BLOCK_COMPRESSED ? BLOCK_MAXIMUM_SIZE : size;
+        }
+
+        final long end = position + (checksum ? 4 : 0);
+
+        if (end > file.size()) {
+            throw new EOFException(String.format("Truncated Zstandard frame at %d.", start));
+        }
+
+        return end;
+    }
+
+    private int int32(final long position) {
+        return (file.get(position) & 0xFF) | (file.get(position + 1) & 0xFF) << 8
+                | (file.get(position + 2) & 0xFF) << 16 | (file.get(position + 3) & 0xFF) << 24;
+    }
+
+    /**
+     * Reads the mapped frame without copying it to the heap.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@Nonnull final byte[] b, final int off, final int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -6,5 +6,18 @@ module com.github.nstdio.libpgn.io {
     requires lombok;
     requires jsr305;
     requires org.apache.commons.compress;
+    requires static org.tukaani.xz;
     requires org.slf4j;
+
+    uses com.github.nstdio.libpgn.io.PgnFormatProvider;
+
+    provides com.github.nstdio.libpgn.io.PgnFormatProvider with
+            com.github.nstdio.libpgn.io.PgnFormats.Gzip,
+            com.github.nstdio.libpgn.io.PgnFormats.BZip2,
+            com.github.nstdio.libpgn.io.PgnFormats.Xz,
+            com.github.nstdio.libpgn.io.PgnFormats.Zstd,
+            com.github.nstdio.libpgn.io.PgnFormats.Zip,
+            com.github.nstdio.libpgn.io.PgnFormats.SevenZip,
+            com.github.nstdio.libpgn.io.PgnFormats.Tar,
+            com.github.nstdio.libpgn.io.PgnFormats.Rar;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DelimiterScannerTest {
+    private static final int[] DELIMITERS = {' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*'};
+
+    private static int naiveIndexOf(final byte[] bytes, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            for (final int delimiter : DELIMITERS) {
+                if ((bytes[i] & 0xFF) == delimiter) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Test
+    void sameAsNaiveSearch() {
+        final DelimiterScanner scanner = DelimiterScanner.of(DELIMITERS);
+        final Random random = new Random(42);
+        final byte[] alphabet = {'e', '4', 'N', 'x', '-', '+', 1, 0, ' ', '\r', '\n', '\t', '{', '(', ')', '$', ';', '*', -1, -128};
+
+        for (int run = 0; run < 200; run++) {
+            final byte[] bytes = new byte[random.nextInt(40)];
+
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = random.nextInt(4) == 0 ? alphabet[random.nextInt(alphabet.length)] : (byte) random.nextInt(256);
+            }
+
+            for (int from = 0; from <= bytes.length; from++) {
+                final int expected = naiveIndexOf(bytes, from, bytes.length);
+
+                assertThat(scanner.indexOf(bytes, from, bytes.length)).isEqualTo(expected);
+                assertThat(scanner.indexOf(ByteBuffer.wrap(bytes), from, bytes.length)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void borrowDoesNotProduceFalsePositive() {
+        final DelimiterScanner scanner = DelimiterScanner.of(' ');
+
+        // 0x21 is ' ' + 1, it becomes 0x01 after xor with the mask.
+        assertThat(scanner.indexOf("!!!! !!!".getBytes(), 0, 8)).isEqualTo(4);
+        assertThat(scanner.indexOf("!!!!!!!!".getBytes(), 0, 8)).isEqualTo(-1);
+    }
+
+    @Test
+    void respectsRange() {
+        final DelimiterScanner scanner = DelimiterScanner.of('$');
+        final byte[] bytes = "$abcdefghijk$".getBytes();
+
+        assertThat(scanner.indexOf(bytes, 1, bytes.length - 1)).isEqualTo(-1);
+        assertThat(scanner.indexOf(bytes, 1, bytes.length)).isEqualTo(12);
+        assertThat(scanner.isDelimiter('$')).isTrue();
+        assertThat(scanner.isDelimiter('a')).isFalse();
+    }
+
+    @Test
+    void invalidDelimiters() {
+        assertThatIllegalArgumentException().isThrownBy(DelimiterScanner::of);
+        assertThatIllegalArgumentException().isThrownBy(() -> DelimiterScanner.of(256));
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class GameBoundaryScannerTest {
+    private static final String FIRST = "[Event \"A\"]\n[Result \"1-0\"]\n\n1. e4 {[%clk 0:03:00]\n[not a tag]} e5 1-0\n\n";
+    private static final String SECOND = "[Event \"B\"]\n\n1. d4 d5 1/2-1/2\n";
+    private static final String THIRD = "[Event \"C\"]\n1. c4 *\r\n";
+    private static final String FOURTH = "[Event \"D\"]\n1. f4 0-1";
+
+    private final byte[] bytes = (FIRST + SECOND + THIRD + FOURTH).getBytes(StandardCharsets.US_ASCII);
+    private final GameBoundaryScanner scanner = new GameBoundaryScanner(MappedFile.wrap(bytes));
+
+    @Test
+    void findsAllGameStarts() {
+        final long second = FIRST.length();
+        final long third = second + SECOND.length();
+        final long fourth = third + THIRD.length();
+
+        assertThat(scanner.next(0, bytes.length)).isEqualTo(0);
+        assertThat(scanner.next(1, bytes.length)).isEqualTo(second);
+        assertThat(scanner.next(second + 1, bytes.length)).isEqualTo(third);
+        assertThat(scanner.next(third + 1, bytes.length)).isEqualTo(fourth);
+        assertThat(scanner.next(fourth + 1, bytes.length)).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void tagsAndCommentsAreNotGameStarts() {
+        assertThat(scanner.isGameStart(0)).isTrue();
+        assertThat(scanner.isGameStart(FIRST.indexOf("[Result"))).isFalse();
+        assertThat(scanner.isGameStart(FIRST.indexOf("[not"))).isFalse();
+        assertThat(scanner.isGameStart(FIRST.indexOf("[%clk"))).isFalse();
+        assertThat(scanner.isGameStart(FIRST.length())).isTrue();
+    }
+
+    @Test
+    void respectsUpperBound() {
+        assertThat(scanner.next(1, FIRST.length())).isEqualTo(FIRST.length());
+        assertThat(scanner.next(1, 5)).isEqualTo(5);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GameIndexTest {
+    private static final String FIRST = "[Event \"A\"]\n[Result \"1-0\"]\n\n1. e4 {[%clk 0:03:00]\n[not a tag]} e5 1-0\n\n";
+    private static final String SECOND = "[Event \"B\"]\n\n1. d4 d5 1/2-1/2\n\n";
+    private static final String THIRD = "[Event \"C\"]\n1. c4 *\n";
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("index", ".pgn");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(GameIndex.indexPath(path));
+    }
+
+    private void write(final String content, final StandardOpenOption option) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.CREATE, option);
+    }
+
+    @Test
+    void build() {
+        final String content = "\n\n" + FIRST + SECOND + THIRD;
+        final GameIndex index = GameIndex.build(MappedFile.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.offset(0)).isEqualTo(2);
+        assertThat(index.offset(1)).isEqualTo(2 + FIRST.length());
+        assertThat(index.offset(2)).isEqualTo(2 + FIRST.length() + SECOND.length());
+        assertThat(index.end(2)).isEqualTo(content.length());
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> index.offset(3));
+    }
+
+    @Test
+    void firstGameWithoutTags() {
+        final String content = "1. e4 e5 1-0\n\n" + SECOND;
+        final GameIndex index = GameIndex.build(MappedFile.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.offset(0)).isEqualTo(0);
+        assertThat(index.offset(1)).isEqualTo(content.indexOf('['));
+    }
+
+    @Test
+    void storedNextToFile() throws IOException {
+        write(FIRST + SECOND, StandardOpenOption.TRUNCATE_EXISTING);
+
+        final GameIndex built = GameIndex.of(path);
+        final GameIndex loaded = GameIndex.of(path);
+
+        assertThat(Files.exists(GameIndex.indexPath(path))).isTrue();
+        assertThat(loaded.size()).isEqualTo(built.size()).isEqualTo(2);
+        assertThat(loaded.offset(1)).isEqualTo(built.offset(1)).isEqualTo(FIRST.length());
+        assertThat(loaded.fileSize()).isEqualTo(Files.size(path));
+    }
+
+    @Test
+    void updatedWhenAppended() throws IOException {
+        write(FIRST, StandardOpenOption.TRUNCATE_EXISTING);
+        assertThat(GameIndex.of(path).size()).isEqualTo(1);
+
+        write(SECOND + THIRD, StandardOpenOption.APPEND);
+        final GameIndex index = GameIndex.of(path);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.offset(1)).isEqualTo(FIRST.length());
+        assertThat(index.offset(2)).isEqualTo(FIRST.length() + SECOND.length());
+    }
+
+    @Test
+    void rebuiltWhenRewritten() throws IOException {
+        write(FIRST + SECOND, StandardOpenOption.TRUNCATE_EXISTING);
+        assertThat(GameIndex.of(path).size()).isEqualTo(2);
+
+        write(THIRD + SECOND + FIRST, StandardOpenOption.TRUNCATE_EXISTING);
+        final GameIndex index = GameIndex.of(path);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.offset(1)).isEqualTo(THIRD.length());
+        assertThat(index.offset(2)).isEqualTo(THIRD.length() + SECOND.length());
+    }
+
+    @Test
+    void rebuiltWhenCorrupted() throws IOException {
+        write(FIRST + SECOND, StandardOpenOption.TRUNCATE_EXISTING);
+        GameIndex.of(path);
+        Files.write(GameIndex.indexPath(path), new byte[]{1, 2, 3});
+
+        assertThat(GameIndex.of(path).size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MappedFileTest {
+    private static final byte[] CONTENT = "0123456789abcdef!".getBytes();
+
+    private Path path;
+    private MappedFile file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("mapped", ".pgn");
+        Files.write(path, CONTENT);
+
+        // 4 byte chunks to cross the chunk boundaries.
+        file = MappedFile.map(path, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void get() {
+        assertThat(file.size()).isEqualTo(CONTENT.length);
+
+        for (int i = 0; i < CONTENT.length; i++) {
+            assertThat(file.get(i)).isEqualTo(CONTENT[i]);
+        }
+    }
+
+    @Test
+    void bulkGetAcrossChunks() throws EOFException {
+        final byte[] dst = new byte[10];
+
+        file.get(3, dst, 0, dst.length);
+
+        assertThat(new String(dst)).isEqualTo("3456789abc");
+    }
+
+    @Test
+    void slice() throws EOFException {
+        final ByteBuffer withinChunk = file.slice(4, 3);
+        final ByteBuffer acrossChunks = file.slice(2, 7);
+
+        assertThat(withinChunk.isReadOnly()).isTrue();
+        assertThat(withinChunk.remaining()).isEqualTo(3);
+        assertThat(withinChunk.get(0)).isEqualTo((byte) '4');
+
+        assertThat(acrossChunks.isReadOnly()).isTrue();
+        assertThat(acrossChunks.remaining()).isEqualTo(7);
+        assertThat(acrossChunks.get(6)).isEqualTo((byte) '8');
+
+        assertThat(file.slice(CONTENT.length, 0).remaining()).isZero();
+    }
+
+    @Test
+    void outOfRange() {
+        assertThatExceptionOfType(EOFException.class).isThrownBy(() -> file.slice(10, 10));
+        assertThatExceptionOfType(EOFException.class).isThrownBy(() -> file.get(16, new byte[2], 0, 2));
+    }
+
+    @Test
+    void indexOfAcrossChunks() {
+        final DelimiterScanner scanner = DelimiterScanner.of('b', '!');
+
+        assertThat(file.indexOf(scanner, 0, file.size())).isEqualTo(11);
+        assertThat(file.indexOf(scanner, 12, file.size())).isEqualTo(16);
+        assertThat(file.indexOf(scanner, 0, 11)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,272 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.nstdio.libpgn.entity.Game;
+import com.github.nstdio.libpgn.entity.Move;
+import com.github.nstdio.libpgn.entity.MoveText;
+import com.github.nstdio.libpgn.entity.Result;
+import com.github.nstdio.libpgn.entity.TagPair;
+
+public class MappedGameStoreTest {
+    private static final int CHUNK_SHIFT = 20;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("store");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static Game game(final String white, final Result result) {
+        final List<TagPair> tagPairs = Arrays.asList(
+                TagPair.of("Event", "Casual"),
+                TagPair.of("White", white),
+                TagPair.of("Black", "Carlsen, Magnus")
+        );
+        final List<MoveText> moves = Arrays.asList(
+                MoveText.of(1, Move.of("e4", "{Best by test}"), Move.of("e5")),
+                MoveText.of(2, Move.of("Nf3", new short[]{1, 14}), Move.of("Nc6", Collections.singletonList(MoveText.ofBlack(2, "d6")))),
+                MoveText.ofWhite(3, "Bb5")
+        );
+
+        return new Game(tagPairs, "{Opening}".getBytes(), moves, result);
+    }
+
+    private static List<String> movetext(final Game game) {
+        final List<String> plies = new ArrayList<>();
+
+        for (final MoveText movetext : game.moves()) {
+            plies.add(movetext.moveNo() + ". " + movetext.white().map(MappedGameStoreTest::ply).orElse("..") + " "
+                    + movetext.black().map(MappedGameStoreTest::ply).orElse(""));
+        }
+
+        return plies;
+    }
+
+    private static String ply(final Move move) {
+        return new String(move.move()) + new String(move.comment()) + Arrays.toString(move.nag());
+    }
+
+    @Test
+    void appendAndGet() throws IOException {
+        final Game game = game("Caruana, Fabiano", Result.WHITE);
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            assertThat(store.append(game)).isZero();
+            assertThat(store.append(new Game(Collections.emptyList(), Collections.singletonList(MoveText.ofBlack(17, "Qh5")), null))).isOne();
+
+            final MappedGameStore.MappedGame first = store.get(0);
+
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(first.white()).isEqualTo("Caruana, Fabiano");
+            assertThat(first.tag("Round")).isNull();
+            assertThat(first.tagPairSection()).extracting(TagPair::getTagAsString).containsExactly("Event", "White", "Black");
+            assertThat(first.tagPairSection()).extracting(TagPair::getValueAsString).containsExactly("Casual", "Caruana, Fabiano", "Carlsen, Magnus");
+            assertThat(new String(first.comment())).isEqualTo("{Opening}");
+            assertThat(first.gameResult()).isEqualTo(Result.WHITE);
+            assertThat(first.plyCount()).isEqualTo(5);
+            assertThat(movetext(first)).isEqualTo(movetext(game));
+            assertThat(first.ply(3).variations()).isEmpty();
+
+            final MappedGameStore.MappedGame second = store.get(1);
+
+            assertThat(second.tagPairSection()).isEmpty();
+            assertThat(second.comment()).isNull();
+            assertThat(second.gameResult()).isNull();
+            assertThat(movetext(second)).containsExactly("17. .. Qh5[]");
+            assertThat(second.plyNumber(0)).isEqualTo(33);
+
+            assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> store.get(2));
+        }
+    }
+
+    @Test
+    void reopen() throws IOException {
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            store.appendAll(Stream.of(game("Caruana, Fabiano", Result.WHITE), game("Nakamura, Hikaru", Result.DRAW)));
+        }
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            store.append(game("So, Wesley", Result.BLACK));
+
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.stream().map(Game::white))
+                    .containsExactly("Caruana, Fabiano", "Nakamura, Hikaru", "So, Wesley");
+            assertThat(store.get(2).moveId(0)).isEqualTo(store.get(0).moveId(0));
+            assertThat(movetext(store.get(1))).isEqualTo(movetext(game("", null)));
+        }
+    }
+
+    @Test
+    void chunks() throws IOException {
+        final int count = 20_000;
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            assertThat(store.appendAll(IntStream.range(0, count).mapToObj(i -> game("Player " + i, Result.WHITE))))
+                    .isEqualTo(count);
+        }
+
+        assertThat(Files.size(directory.resolve(MappedGameStore.RECORDS))).isGreaterThan(1L << CHUNK_SHIFT);
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            assertThat(store.size()).isEqualTo(count);
+
+            for (int i = 0; i < count; i += 997) {
+                assertThat(store.get(i).white()).isEqualTo("Player " + i);
+            }
+
+            assertThat(store.get(count - 1).white()).isEqualTo("Player " + (count - 1));
+        }
+    }
+
+    @Test
+    void recordLargerThanChunk() throws IOException {
+        final char[] comment = new char[1 << CHUNK_SHIFT];
+        Arrays.fill(comment, 'x');
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> store.append(
+                    new Game(Collections.emptyList(), new String(comment).getBytes(), Collections.emptyList(), null)));
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    void uniqueValuesAreKeptInline() throws IOException {
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            for (int i = 0; i < 100; i++) {
+                store.append(new Game(Arrays.asList(
+                        TagPair.of("Site", "https://lichess.org/game" + i),
+                        TagPair.of("White", "Player " + i % 3)
+                ), Collections.emptyList(), Result.WHITE));
+            }
+
+            assertThat(store.get(42).tag("Site")).isEqualTo("https://lichess.org/game42");
+            assertThat(store.get(42).white()).isEqualTo("Player 0");
+        }
+
+        final String dictionary = new String(Files.readAllBytes(directory.resolve(MappedGameStore.DICTIONARY)),
+                StandardCharsets.US_ASCII);
+
+        assertThat(dictionary).contains("Site", "Player 0", "Player 2").doesNotContain("https://lichess.org/game42");
+    }
+
+    @Test
+    void longTagValue() throws IOException {
+        final char[] value = new char[100_000];
+        Arrays.fill(value, 'v');
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            for (int i = 0; i < 2; i++) {
+                store.append(new Game(Collections.singletonList(TagPair.of("Annotator", new String(value))),
+                        Collections.emptyList(), null));
+            }
+
+            assertThat(store.get(1).tag("Annotator")).isEqualTo(new String(value));
+        }
+    }
+
+    @Test
+    void everyPlyAnnotated() throws IOException {
+        final List<MoveText> moves = new ArrayList<>();
+
+        for (int i = 1; i <= 60; i++) {
+            moves.add(MoveText.of(i, Move.of("Nf3", "{[%clk 0:03:" + i + "]}"), Move.of("Nf6", new short[]{(short) i})));
+        }
+
+        final Game game = new Game(Collections.emptyList(), moves, Result.DRAW);
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            store.append(game);
+
+            final MappedGameStore.MappedGame stored = store.get(0);
+
+            assertThat(movetext(stored)).isEqualTo(movetext(game));
+            assertThat(new String(stored.ply(84).comment())).isEqualTo("{[%clk 0:03:43]}");
+            assertThat(stored.ply(85).nag()).containsExactly((short) 43);
+        }
+    }
+
+    @Test
+    void concurrentReaders() throws Exception {
+        final int count = 20_000;
+        final ExecutorService readers = Executors.newFixedThreadPool(3);
+
+        try (final MappedGameStore store = MappedGameStore.open(directory, CHUNK_SHIFT)) {
+            final AtomicBoolean done = new AtomicBoolean();
+            final List<Future<Long>> reads = new ArrayList<>();
+
+            for (int i = 0; i < 3; i++) {
+                reads.add(readers.submit(() -> {
+                    final Random random = new Random();
+                    long read = 0;
+
+                    while (!done.get()) {
+                        final long size = store.size();
+
+                        if (size == 0) {
+                            continue;
+                        }
+
+                        final long index = size - 1 - random.nextInt((int) Math.min(size, 100));
+                        final MappedGameStore.MappedGame game = store.get(index);
+
+                        assertThat(game.white()).isEqualTo("Player " + index);
+                        assertThat(game.plyCount()).isEqualTo(5);
+                        assertThat(movetext(game)).hasSize(3);
+                        read++;
+                    }
+
+                    return read;
+                }));
+            }
+
+            for (int i = 0; i < count; i++) {
+                store.append(game("Player " + i, Result.WHITE));
+            }
+
+            done.set(true);
+
+            for (final Future<Long> read : reads) {
+                assertThat(read.get()).isPositive();
+            }
+
+            assertThat(Files.size(directory.resolve(MappedGameStore.RECORDS))).isGreaterThan(1L << CHUNK_SHIFT);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+public class ParallelBlockInputStreamTest {
+    private static final String[] MOVES = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7", "Re1", "b5"};
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("parallel", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static byte[] games(final int size) {
+        final Random random = new Random(11);
+        final StringBuilder sb = new StringBuilder(size + 100);
+
+        for (int game = 0; sb.length() < size; game++) {
+            sb.append("[Event \"").append(game).append("\"]\n\n");
+
+            for (int move = 1; move < 40; move++) {
+                sb.append(move).append(". ").append(MOVES[random.nextInt(MOVES.length)]).append(' ')
+                        .append(MOVES[random.nextInt(MOVES.length)]).append(' ');
+            }
+
+            sb.append("1-0\n\n");
+        }
+
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] bzip2(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // 100k blocks.
+        try (final OutputStream bz = new BZip2CompressorOutputStream(out, 1)) {
+            bz.write(data);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void bzip2Blocks() throws IOException {
+        final byte[] data = games(550_000);
+        Files.write(path, bzip2(data));
+
+        assertThat(readAll(ParallelBlockInputStream.ofBZip2(path, 2))).isEqualTo(data);
+    }
+
+    @Test
+    void concatenatedBZip2Streams() throws IOException {
+        final byte[] first = games(250_000);
+        final byte[] second = "[Event \"last\"]\n\n1. d4 *\n".getBytes(StandardCharsets.US_ASCII);
+
+        try (final OutputStream out = Files.newOutputStream(path)) {
+            out.write(bzip2(first));
+            out.write(bzip2(second));
+        }
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+
+        assertThat(readAll(ParallelBlockInputStream.ofBZip2(path, 3))).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    void xzBlocks() throws IOException {
+        final byte[] data = games(300_000);
+
+        try (final XZOutputStream xz = new XZOutputStream(Files.newOutputStream(path), new LZMA2Options())) {
+            for (int i = 0; i < data.length; i += 64 * 1024) {
+                xz.write(data, i, Math.min(64 * 1024, data.length - i));
+                xz.endBlock();
+            }
+        }
+
+        assertThat(readAll(ParallelBlockInputStream.ofXz(path, 2, ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE))).isEqualTo(data);
+    }
+
+    @Test
+    void singleXzBlockIsDecodedSequentially() throws IOException {
+        final byte[] data = games(300_000);
+
+        try (final XZOutputStream xz = new XZOutputStream(Files.newOutputStream(path), new LZMA2Options())) {
+            xz.write(data);
+        }
+
+        assertThat(ParallelBlockInputStream.ofXz(path, 2, ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE)).isNull();
+        assertThat(readAll(new PgnFormats.Xz().decode(path, 2))).isEqualTo(data);
+    }
+
+    @Test
+    void largeXzBlockIsDecodedSequentially() throws IOException {
+        final byte[] data = games(300_000);
+
+        try (final XZOutputStream xz = new XZOutputStream(Files.newOutputStream(path), new LZMA2Options())) {
+            xz.write(data, 0, 200_000);
+            xz.endBlock();
+            xz.write(data, 200_000, data.length - 200_000);
+        }
+
+        assertThat(ParallelBlockInputStream.ofXz(path, 2, 100_000)).isNull();
+        assertThat(readAll(ParallelBlockInputStream.ofXz(path, 2, 200_000))).isEqualTo(data);
+    }
+
+    @Test
+    void zstdFrames() throws IOException {
+        final byte[] data = games(200_000);
+        final byte[] skippable = {0x50, 0x2A, 0x4D, 0x18, 3, 0, 0, 0, 1, 2, 3};
+
+        try (final OutputStream out = Files.newOutputStream(path)) {
+            out.write(skippable);
+
+            for (int i = 0; i < data.length; i += 50_000) {
+                final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+
+                try (final OutputStream zstd = new ZstdCompressorOutputStream(frame)) {
+                    zstd.write(data, i, Math.min(50_000, data.length - i));
+                }
+
+                out.write(frame.toByteArray());
+                out.write(skippable);
+            }
+        }
+
+        assertThat(readAll(ParallelBlockInputStream.ofZstd(path, 2, ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE))).isEqualTo(data);
+    }
+
+    @Test
+    void singleZstdFrameIsDecodedSequentially() throws IOException {
+        final byte[] data = games(500_000);
+
+        try (final OutputStream zstd = new ZstdCompressorOutputStream(Files.newOutputStream(path))) {
+            zstd.write(data);
+        }
+
+        assertThat(ParallelBlockInputStream.ofZstd(path, 2, ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE)).isNull();
+        assertThat(readAll(new PgnFormats.Zstd().decode(path, 2))).isEqualTo(data);
+    }
+
+    @Test
+    void largeZstdFrameIsDecodedSequentially() throws IOException {
+        final byte[] data = games(500_000);
+
+        try (final OutputStream out = Files.newOutputStream(path)) {
+            for (final int[] range : new int[][]{{0, 400_000}, {400_000, data.length}}) {
+                final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+
+                try (final OutputStream zstd = new ZstdCompressorOutputStream(frame)) {
+                    zstd.write(data, range[0], range[1] - range[0]);
+                }
+
+                out.write(frame.toByteArray());
+            }
+        }
+
+        // The first frame is larger than 128 KiB, the size of the decoded block.
+        assertThat(ParallelBlockInputStream.ofZstd(path, 2, 128 * 1024)).isNull();
+        assertThat(readAll(new PgnFormats.Zstd().decode(path, 2))).isEqualTo(data);
+    }
+
+    @Test
+    void truncatedZstdFrameIsReported() throws IOException {
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+
+        try (final OutputStream zstd = new ZstdCompressorOutputStream(frame)) {
+            zstd.write(games(10_000));
+        }
+
+        Files.write(path, Arrays.copyOf(frame.toByteArray(), frame.size() - 10));
+
+        assertThatExceptionOfType(EOFException.class).isThrownBy(() -> readAll(ParallelBlockInputStream.ofZstd(path, 2, ParallelBlockInputStream.MAXIMUM_BLOCK_SIZE)));
+    }
+
+    @Test
+    void corruptedBlockIsReported() throws IOException {
+        final byte[] compressed = bzip2(games(250_000));
+        // Damage the data of the first block, after the stream header, the block magic and the CRC.
+        compressed[40] ^= 0x55;
+        Files.write(path, compressed);
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> readAll(ParallelBlockInputStream.ofBZip2(path, 2)));
+    }
+
+    @Test
+    void invalidBlocksInFlight() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ParallelBlockInputStream(Collections.emptyIterator(), 0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PgnFileSlicerTest {
+    private static final String GAME = "[Event \"A\"]\n[Result \"1-0\"]\n\n1. e4 {tricky *\n} e5 {[%clk 0:03:00]\n[not a tag]} 1-0\n\n";
+    private static final int GAMES = 50;
+
+    private final byte[] content = GAME.repeat(GAMES).getBytes(StandardCharsets.US_ASCII);
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("slicer");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private void assertChunks(final String chunkPrefix) throws IOException {
+        final ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        int chunks = 0;
+
+        for (Path chunk = dir.resolve(String.format("%s_%02d.pgn", chunkPrefix, 1)); Files.exists(chunk);
+             chunk = dir.resolve(String.format("%s_%02d.pgn", chunkPrefix, ++chunks + 1))) {
+            final byte[] bytes = Files.readAllBytes(chunk);
+
+            assertThat(new String(bytes, StandardCharsets.US_ASCII)).startsWith("[Event");
+            joined.write(bytes);
+        }
+
+        assertThat(chunks).isGreaterThan(1);
+        assertThat(joined.toByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void cutsPlainFileAtGameStarts() throws IOException {
+        final Path source = Files.write(dir.resolve("games.pgn"), content);
+
+        try (final PgnFileSlicer slicer = new PgnFileSlicer(source.toFile(), new SimpleFileNamingStrategy(), 16, GAME.length() * 7 + 3)) {
+            slicer.write();
+        }
+
+        assertChunks("games");
+    }
+
+    @Test
+    void cutsDecompressedContent() throws IOException {
+        final Path source = dir.resolve("games.pgn.gz");
+
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(source))) {
+            out.write(content);
+        }
+
+        try (final PgnFileSlicer slicer = new PgnFileSlicer(source.toFile(), new SimpleFileNamingStrategy(), 16, GAME.length() * 7 + 3)) {
+            slicer.write();
+        }
+
+        assertChunks("games");
+    }
+
+    private static List<String> slice(final Path source) throws IOException {
+        try (final PgnFileSlicer slicer = new PgnFileSlicer(source.toFile(), new SimpleFileNamingStrategy(), 16, 20)) {
+            slicer.write();
+        }
+
+        final List<String> chunks = new ArrayList<>();
+
+        for (Path chunk = source.resolveSibling("games_01.pgn"); Files.exists(chunk);
+             chunk = source.resolveSibling(String.format("games_%02d.pgn", chunks.size() + 1))) {
+            chunks.add(new String(Files.readAllBytes(chunk), StandardCharsets.US_ASCII));
+        }
+
+        return chunks;
+    }
+
+    @Test
+    void plainAndCompressedFilesAreCutAlike() throws IOException {
+        final byte[] games = ("[Event \"A\"]\n\n1. e4 {odds -1/2\n[not a tag]} e5 1/2-1/2\n\n" +
+                "[Event \"B\"]\n\n1. d4 {no result\n[not a tag]} d5 0-1\n\n" +
+                "[Event \"C\"]\n\n1. c4 {2 -1/2\n[not a tag]} *\n\n").repeat(10).getBytes(StandardCharsets.US_ASCII);
+        final Path plain = Files.write(Files.createDirectory(dir.resolve("plain")).resolve("games.pgn"), games);
+        final Path compressed = Files.createDirectory(dir.resolve("compressed")).resolve("games.pgn.gz");
+
+        try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            out.write(games);
+        }
+
+        final List<String> chunks = slice(plain);
+
+        assertThat(chunks.size()).isGreaterThan(1);
+        assertThat(chunks).allMatch(chunk -> chunk.startsWith("[Event"));
+        assertThat(String.join("", chunks)).isEqualTo(new String(games, StandardCharsets.US_ASCII));
+        assertThat(slice(compressed)).isEqualTo(chunks);
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -43,6 +45,20 @@ public class PgnInputStreamTest {
         assertThatExceptionOfType(EOFException.class).isThrownBy(stream::read);
     }
 
+    @Test
+    public void positionCountsConsumedBytes() throws IOException {
+        stream = new PgnInputStream(new ByteArrayInputStream("abcdefghij".getBytes()), 4);
+
+        assertThat(stream.position()).isZero();
+        assertThat(stream.read()).isEqualTo('a');
+        assertThat(stream.until('f')).isEqualTo(5);
+        assertThat(stream.position()).isEqualTo(1);
+        assertThat(stream.skip(3)).isEqualTo(3);
+        assertThat(stream.position()).isEqualTo(4);
+        assertThat(stream.readAllBytes()).hasSize(6);
+        assertThat(stream.position()).isEqualTo(10);
+    }
+
     @Test
     public void readUntilWhenReadingSequentially() throws IOException {
         final String input = "abc";
@@ -154,4 +170,60 @@ public class PgnInputStreamTest {
 
         assertThatExceptionOfType(EOFException.class).isThrownBy(stream::read);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bufferGrowsWhenTokenDoesNotFit() throws IOException {
+        stream = PgnInputStreamFactory.of(new ByteArrayInputStream("ab cdefg h".getBytes()), 2);
+
+        assertThat(stream.until(' ')).isEqualTo(3);
+        stream.skip(3);
+        assertThat(stream.until(' ', '\n', '\n', '\n', '\n', '\n', '\n', '\n', '\n', '\n')).isEqualTo(6);
+        assertThat(stream.readAhead(7)).isEqualTo('h');
+        assertThat(stream.read()).isEqualTo('c');
+
+        final byte[] rest = new byte[16];
+        assertThat(stream.read(rest, 0, rest.length)).isEqualTo(6);
+        assertThat(new String(rest, 0, 6)).isEqualTo("defg h");
+        assertThat(stream.read(rest, 0, rest.length)).isEqualTo(-1);
+    }
+
+    @Test
+    public void markIsNotSupported() {
+        stream = ofString("abc");
+
+        assertThat(stream.markSupported()).isFalse();
+        assertThatIOException().isThrownBy(stream::reset);
+    }
+
+    @Test
+    public void readAheadWaits() throws IOException {
+        stream = ofString("abc");
+
+        assertThat(stream.readAheadWaits()).isZero();
+        assertThat(stream.readAheadWaitNanos()).isZero();
+
+        stream.close();
+
+        final InputStream slow = new FilterInputStream(new ByteArrayInputStream(new byte[64])) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+
+                return super.read(b, off, Math.min(len, 16));
+            }
+        };
+
+        stream = PgnInputStreamFactory.of(new ReadAheadInputStream(slow, 16), 16);
+
+        while (stream.read(new byte[8], 0, 8) != -1) {
+            // Drain.
+        }
+
+        assertThat(stream.readAheadWaits()).isPositive();
+        assertThat(stream.readAheadWaitNanos()).isPositive();
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.nstdio.libpgn.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ReadAheadInputStreamTest {
+    private static byte[] randomBytes(final int size) {
+        final byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+
+        return bytes;
+    }
+
+    @Test
+    void readsSameBytesAsSource() throws IOException {
+        final byte[] expected = randomBytes(100_000);
+
+        try (final ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(expected), 1000)) {
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[777];
+
+            for (int i = 0; ; i++) {
+                // Mix single byte and bulk reads.
+                if (i % 2 == 0) {
+                    final int b = in.read();
+
+                    if (b == -1) {
+                        break;
+                    }
+
+                    actual.write(b);
+                } else {
+                    final int n = in.read(chunk, 0, chunk.length);
+
+                    if (n == -1) {
+                        break;
+                    }
+
+                    actual.write(chunk, 0, n);
+                }
+            }
+
+            assertThat(actual.toByteArray()).isEqualTo(expected);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void emptySource() throws IOException {
+        try (final ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), 8)) {
+            assertThat(in.read()).isEqualTo(-1);
+            assertThat(in.read(new byte[4], 0, 4)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void sourceFailureIsRethrown() throws IOException {
+        final InputStream failing = new FilterInputStream(new ByteArrayInputStream(new byte[16])) {
+            private int reads;
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                if (++reads > 1) {
+                    throw new IOException("Disk is gone.");
+                }
+
+                return super.read(b, off, Math.min(len, 4));
+            }
+        };
+
+        try (final ReadAheadInputStream in = new ReadAheadInputStream(failing, 8)) {
+            assertThatExceptionOfType(IOException.class)
+                    .isThrownBy(() -> in.read(new byte[8], 0, 8))
+                    .withMessage("Disk is gone.");
+            assertThatExceptionOfType(IOException.class).isThrownBy(in::read);
+        }
+    }
+
+    @Test
+    void consumerWaitsAreCounted() throws IOException {
+        final InputStream slow = new FilterInputStream(new ByteArrayInputStream(randomBytes(64))) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+
+                return super.read(b, off, Math.min(len, 16));
+            }
+        };
+
+        try (final ReadAheadInputStream in = new ReadAheadInputStream(slow, 16)) {
+            while (in.read() != -1) {
+                // Drain.
+            }
+
+            assertThat(in.consumerWaits()).isPositive();
+            assertThat(in.consumerWaitNanos()).isPositive();
+        }
+    }
+
+    @Test
+    void invalidBufferSize() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), 0));
+    }
+}